@@ -0,0 +1,155 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator;
+
+import com.github.jonathanxd.buildergenerator.spec.BuilderSpec;
+import com.github.jonathanxd.kores.bytecode.BytecodeClass;
+import com.github.jonathanxd.kores.bytecode.VisitLineType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.Semaphore;
+import java.util.function.BiConsumer;
+
+/**
+ * Generates bytecode of many builders in parallel.
+ *
+ * Each worker thread reuses the same configured {@code BytecodeGenerator} (see {@link KoresBuilderGenerator.Bytecode}).
+ * At most {@code maxPending} specs are queued at the same time, {@link #generate(Iterable, BiConsumer)} blocks the
+ * producer until a slot is available, so specs can be lazily produced (e.g. while scanning a jar) without retaining all
+ * of them in memory.
+ */
+public final class BytecodeBatch implements AutoCloseable {
+
+    private final KoresBuilderGenerator.Bytecode generator;
+    private final ExecutorService executor;
+    private final Semaphore pending;
+
+    /**
+     * Creates a batch with one worker per available processor, which emits line numbers and bridge methods.
+     */
+    public BytecodeBatch() {
+        this(Runtime.getRuntime().availableProcessors(), VisitLineType.GEN_LINE_INSTRUCTION);
+    }
+
+    /**
+     * @param parallelism Number of worker threads.
+     * @param visitLines  Line number emission, {@link VisitLineType#DISABLED} generates smaller classes.
+     */
+    public BytecodeBatch(int parallelism, VisitLineType visitLines) {
+        this(parallelism, parallelism * 4, visitLines, true);
+    }
+
+    /**
+     * @param parallelism           Number of worker threads.
+     * @param maxPending            Max number of specs queued or being generated at the same time.
+     * @param visitLines            Line number emission, {@link VisitLineType#DISABLED} generates smaller classes.
+     * @param generateBridgeMethods Whether bridge methods should be generated.
+     */
+    public BytecodeBatch(int parallelism, int maxPending, VisitLineType visitLines, boolean generateBridgeMethods) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("Parallelism must be greater than zero.");
+
+        if (maxPending < 1)
+            throw new IllegalArgumentException("Max pending must be greater than zero.");
+
+        this.generator = new KoresBuilderGenerator.Bytecode(generateBridgeMethods, visitLines);
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "BuilderGenerator-BytecodeBatch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pending = new Semaphore(maxPending);
+    }
+
+    /**
+     * Generates all {@code specs} and waits for completion.
+     *
+     * {@code consumer} is called from worker threads as soon as each builder is generated, so it must be thread-safe.
+     * Failure to generate a builder does not stop the batch, all failures are reported after the batch completes.
+     *
+     * @param specs    Specifications of builders to generate.
+     * @param consumer Consumer of generated classes of each spec.
+     * @throws IllegalStateException If generation of any builder failed.
+     */
+    public void generate(Iterable<BuilderSpec> specs, BiConsumer<BuilderSpec, List<BytecodeClass>> consumer) {
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        Phaser phaser = new Phaser(1);
+
+        try {
+            for (BuilderSpec spec : specs) {
+                this.pending.acquire();
+                phaser.register();
+
+                try {
+                    this.executor.execute(() -> {
+                        try {
+                            consumer.accept(spec, this.generator.generate(spec, methodTypeSpecs -> {
+                            }));
+                        } catch (Throwable t) {
+                            failures.add(new IllegalStateException(
+                                    "Failed to generate builder '" + spec.getBuilderQualifiedName() + "'!", t));
+                        } finally {
+                            this.pending.release();
+                            phaser.arriveAndDeregister();
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    this.pending.release();
+                    phaser.arriveAndDeregister();
+                    throw e;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while generating builders.", e);
+        } finally {
+            phaser.arriveAndAwaitAdvance();
+        }
+
+        if (!failures.isEmpty()) {
+            IllegalStateException exception = new IllegalStateException(
+                    "Failed to generate " + failures.size() + " builders.", failures.get(0));
+
+            for (int i = 1; i < failures.size(); i++) {
+                exception.addSuppressed(failures.get(i));
+            }
+
+            throw exception;
+        }
+    }
+
+    @Override
+    public void close() {
+        this.executor.shutdown();
+    }
+}
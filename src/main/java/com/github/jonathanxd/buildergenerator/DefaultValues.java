@@ -57,7 +57,7 @@ public final class DefaultValues {
      *
      * {@link Collections#emptyList}
      */
-    @Inline
+    @Inline(pure = true)
     public static Instruction emptyList(VariableBase propertyInfo) {
         return InvocationFactory.invokeStatic(Collections.class, "emptyList", Factories.typeSpec(List.class),
                 Collections.emptyList());
@@ -68,7 +68,7 @@ public final class DefaultValues {
      *
      * {@link Collections#emptySet}
      */
-    @Inline
+    @Inline(pure = true)
     public static Instruction emptySet(VariableBase propertyInfo) {
         return InvocationFactory.invokeStatic(Collections.class, "emptySet", Factories.typeSpec(Set.class),
                 Collections.emptyList());
@@ -77,7 +77,7 @@ public final class DefaultValues {
     /**
      * Empty array.
      */
-    @Inline
+    @Inline(pure = true)
     public static Instruction emptyArray(VariableBase propertyInfo) {
         int arrayDimension = ImplicitKoresType.getArrayDimension(propertyInfo.getVariableType());
 
@@ -93,7 +93,7 @@ public final class DefaultValues {
     /**
      * Calls the static {@code empty} method of variable type.
      */
-    @Inline
+    @Inline(pure = true)
     public static Instruction empty(VariableBase propertyInfo) {
         return InvocationFactory.invokeStatic(propertyInfo.getVariableType(), "empty",
                 Factories.typeSpec(propertyInfo.getVariableType()), Collections.emptyList());
@@ -27,14 +27,15 @@
  */
 package com.github.jonathanxd.buildergenerator;
 
+import com.github.jonathanxd.buildergenerator.spec.BuilderFeature;
 import com.github.jonathanxd.buildergenerator.spec.BuilderSpec;
 import com.github.jonathanxd.buildergenerator.spec.MethodRefSpec;
 import com.github.jonathanxd.buildergenerator.spec.MethodSpec;
 import com.github.jonathanxd.buildergenerator.spec.PropertySpec;
 import com.github.jonathanxd.buildergenerator.util.CTypeUtil;
 import com.github.jonathanxd.buildergenerator.util.InlineMethodInvoker;
+import com.github.jonathanxd.buildergenerator.util.InlineMethodRegistry;
 import com.github.jonathanxd.buildergenerator.util.MethodInvocationUtil;
-import com.github.jonathanxd.buildergenerator.util.MethodResolver;
 import com.github.jonathanxd.iutils.collection.Collections3;
 import com.github.jonathanxd.iutils.object.Pair;
 import com.github.jonathanxd.kores.Instruction;
@@ -45,6 +46,7 @@ import com.github.jonathanxd.kores.base.ClassDeclaration;
 import com.github.jonathanxd.kores.base.ConstructorDeclaration;
 import com.github.jonathanxd.kores.base.FieldAccess;
 import com.github.jonathanxd.kores.base.FieldDeclaration;
+import com.github.jonathanxd.kores.base.IfExpr;
 import com.github.jonathanxd.kores.base.InvokeType;
 import com.github.jonathanxd.kores.base.KoresModifier;
 import com.github.jonathanxd.kores.base.KoresParameter;
@@ -63,6 +65,7 @@ import com.github.jonathanxd.kores.factory.InvocationFactory;
 import com.github.jonathanxd.kores.factory.PartFactory;
 import com.github.jonathanxd.kores.inspect.InstructionsInspect;
 import com.github.jonathanxd.kores.literal.Literals;
+import com.github.jonathanxd.kores.operator.Operators;
 import com.github.jonathanxd.kores.source.process.PlainSourceGenerator;
 import com.github.jonathanxd.kores.type.Generic;
 import com.github.jonathanxd.kores.type.GenericType;
@@ -74,12 +77,18 @@ import com.github.jonathanxd.kores.util.conversion.ConversionsKt;
 
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
 import java.util.stream.Collectors;
 
 import kotlin.collections.CollectionsKt;
@@ -90,17 +99,30 @@ import kotlin.text.StringsKt;
  * generate source classes. Because of modular nature of {@code CodeAPI}, you only need dependency on the {@code
  * CodeAPI-SourceWriter} when using {@code BuilderGenerator} as annotation processor.
  *
- * Runtime builder generator is not available yet, but it will only require dependency on the {@code CodeAPI-BytecodeWriter}. Do
+ * Runtime builder generator ({@link com.github.jonathanxd.buildergenerator.runtime.RuntimeBuilders}) only requires dependency on
+ * the {@code CodeAPI-BytecodeWriter}. Do
  * not reference {@link Source Source class} if the class path do not contains {@code CodeAPI-SourceWriter} module and do not
  * reference {@link Bytecode Bytecode class} if the class path do not contains {@code CodeAPI-BytecodeWriter} module.
  */
 public final class KoresBuilderGenerator {
 
+    /**
+     * Default estimated bytecode size limit of {@code build()} and defaults constructor, larger methods are split into
+     * helper methods. HotSpot does not JIT-compile methods larger than 8000 bytes.
+     */
+    public static final int DEFAULT_METHOD_SIZE_BUDGET = 8000;
+
+    // Fields of builders generated with BuilderFeature.PRESERVE_IDENTITY
+    private static final String SOURCE_FIELD = "$source";
+    private static final String DIRTY_FIELD = "$dirty";
+    private static final String SET_SUFFIX = "$set";
+
     private KoresBuilderGenerator() {
         throw new IllegalStateException();
     }
 
-    static TypeDeclaration generate(BuilderSpec builderSpec, Consumer<List<MethodTypeSpec>> verifier) {
+    static TypeDeclaration generate(BuilderSpec builderSpec, Consumer<List<MethodTypeSpec>> verifier,
+                                    InlineMethodRegistry inlineMethodRegistry, int methodSizeBudget) {
 
         String builderName = builderSpec.getBuilderQualifiedName();
         KoresType baseClass = builderSpec.getBaseClass();
@@ -109,8 +131,8 @@ public final class KoresBuilderGenerator {
 
         List<ExtendedProperty> extendedProperties = properties.stream()
                 .map(propertySpec -> new ExtendedProperty(propertySpec,
-                        MethodResolver.resolveValidator(propertySpec).orElse(null),
-                        MethodResolver.resolveDefaultMethod(propertySpec).orElse(null)))
+                        inlineMethodRegistry.resolveValidator(propertySpec).orElse(null),
+                        inlineMethodRegistry.resolveDefaultMethod(propertySpec).orElse(null)))
                 .collect(Collectors.toList());
 
         // Refers to 'classDeclaration' type. That is undefined yet.
@@ -121,28 +143,83 @@ public final class KoresBuilderGenerator {
         MutableInstructions body = MutableInstructions.create();
 
         List<MethodDeclaration> methods = new ArrayList<>();
+        List<TypeDeclaration> innerTypes = new ArrayList<>();
+        List<MethodDeclaration> constructorHelpers = new ArrayList<>();
+
+        MetricsInstructions metrics = builderSpec.hasFeature(BuilderFeature.METRICS)
+                                      ? new MetricsInstructions(ref, baseClass.getCanonicalName())
+                                      : null;
+
+        boolean preserveIdentity = builderSpec.hasFeature(BuilderFeature.PRESERVE_IDENTITY);
+        // Combine only merges properties which were set, so it needs to know which of them were.
+        boolean trackSet = builderSpec.hasFeature(BuilderFeature.COMBINE);
+        // Field initializers are emitted in all constructors, wide builders initialize fields in helper methods
+        boolean splitInitializers = KoresBuilderGenerator.isInitializersSplit(extendedProperties, metrics,
+                preserveIdentity, trackSet, methodSizeBudget);
+
+        List<FieldDeclaration> fields = KoresBuilderGenerator.getPropertiesFields(extendedProperties, splitInitializers);
+
+        if (metrics != null)
+            fields.addAll(metrics.getFields());
+
+        if (trackSet) {
+            for (ExtendedProperty property : extendedProperties) {
+                fields.add(KoresBuilderGenerator.getStateField(Types.BOOLEAN,
+                        property.propertySpec.getName() + SET_SUFFIX, Literals.FALSE, splitInitializers));
+            }
+        }
+
+        if (preserveIdentity) {
+            fields.add(KoresBuilderGenerator.getStateField(baseClass, SOURCE_FIELD, Literals.NULL, splitInitializers));
+            fields.add(KoresBuilderGenerator.getStateField(Types.BOOLEAN, DIRTY_FIELD, Literals.FALSE,
+                    splitInitializers));
+        }
+
+        List<Type> implementations = new ArrayList<>();
+
+        implementations.add(builderBaseGeneric);
+
+        if (builderSpec.hasFeature(BuilderFeature.BUILDER_ARGUMENT))
+            implementations.add(baseClass);
+
+        if (builderSpec.hasFeature(BuilderFeature.COPY))
+            implementations.add(Cloneable.class);
 
         ClassDeclaration classDeclaration = ClassDeclaration.Builder.builder()
                 .modifiers(KoresModifier.PUBLIC, KoresModifier.FINAL)
                 .qualifiedName(builderName)
                 .superClass(Types.OBJECT)
-                .implementations(builderBaseGeneric)
-                .fields(KoresBuilderGenerator.getPropertiesFields(extendedProperties))
-                .constructors(KoresBuilderGenerator.getConstructors(extendedProperties, baseClass))
+                .implementations(implementations.toArray(new Type[0]))
+                .fields(fields)
+                .constructors(KoresBuilderGenerator.getConstructors(extendedProperties, baseClass, ref,
+                        methodSizeBudget, metrics, preserveIdentity, trackSet, splitInitializers, constructorHelpers))
                 .methods(methods)
+                .innerTypes(innerTypes)
                 .build();
 
 
         methods.addAll(
                 Collections3.concat(
-                        KoresBuilderGenerator.getWithMethods(extendedProperties, classDeclaration),
-                        KoresBuilderGenerator.getDefMethod(builderBaseGeneric, builderSpec),
+                        KoresBuilderGenerator.getWithMethods(extendedProperties, classDeclaration, metrics,
+                                preserveIdentity, trackSet),
+                        KoresBuilderGenerator.getDefMethod(builderBaseGeneric, builderSpec, inlineMethodRegistry),
                         KoresBuilderGenerator.getGetterMethods(extendedProperties),
-                        KoresBuilderGenerator.getBuildMethod(extendedProperties, baseClass, builderSpec)
+                        KoresBuilderGenerator.getBuildMethod(extendedProperties, baseClass, ref, builderSpec,
+                                methodSizeBudget, metrics),
+                        constructorHelpers
                 )
 
         );
 
+        if (builderSpec.hasFeature(BuilderFeature.COPY))
+            methods.add(KoresBuilderGenerator.getCopyMethod(ref));
+
+        if (builderSpec.hasFeature(BuilderFeature.COMBINE)) {
+            methods.addAll(KoresBuilderGenerator.getCombineMethod(extendedProperties, classDeclaration,
+                    preserveIdentity, methodSizeBudget));
+            methods.addAll(KoresBuilderGenerator.getCollectorMethod(ref, baseClass, innerTypes));
+        }
+
         List<MethodTypeSpec> inspect = InstructionsInspect.builder(codePart -> codePart instanceof MethodDeclaration)
                 .includeRoot(true)
                 .mapTo(codePart -> {
@@ -159,14 +236,76 @@ public final class KoresBuilderGenerator {
         return classDeclaration;
     }
 
-    private static List<FieldDeclaration> getPropertiesFields(List<ExtendedProperty> properties) {
+    /**
+     * Returns true if field initializers of {@code properties} and the defaults copy do not fit in the constructor
+     * size budget, in this case fields have no initializer (zero values are the JVM default values) and default values
+     * are assigned by {@code initDefaults$N} helpers.
+     */
+    private static boolean isInitializersSplit(List<ExtendedProperty> properties, MetricsInstructions metrics,
+                                               boolean preserveIdentity, boolean trackSet, int methodSizeBudget) {
+        int size = MethodSizeEstimator.constructor(preserveIdentity);
+        boolean defaultValues = false;
+
+        for (ExtendedProperty property : properties) {
+            size += KoresBuilderGenerator.getInitializerSize(property, metrics)
+                    + MethodSizeEstimator.defaultsCopy(property.propertySpec);
+
+            if (trackSet) {
+                // Initializer and defaults copy
+                size += 2 * MethodSizeEstimator.setFlag();
+            }
+
+            defaultValues |= property.propertySpec.getDefaultValueSpec().isPresent();
+        }
+
+        if (metrics != null && defaultValues)
+            size += MethodSizeEstimator.metricsGuard();
+
+        if (preserveIdentity) {
+            // $source and $dirty initializers
+            size += 2 * MethodSizeEstimator.setFlag();
+        }
+
+        return size > methodSizeBudget;
+    }
+
+    /**
+     * Creates a builder state field initialized to the zero value {@code value}, the initializer is omitted if {@code
+     * splitInitializers} is true.
+     */
+    private static FieldDeclaration getStateField(KoresType type, String name, Instruction value,
+                                                  boolean splitInitializers) {
+        FieldDeclaration.Builder builder = FieldDeclaration.Builder.builder()
+                .modifiers(KoresModifier.PRIVATE)
+                .type(type)
+                .name(name);
+
+        if (!splitInitializers)
+            builder.value(value);
+
+        return builder.build();
+    }
+
+    private static int getInitializerSize(ExtendedProperty property, MetricsInstructions metrics) {
+        int size = MethodSizeEstimator.fieldInitializer(property.propertySpec, property.defaultValue != null);
+
+        if (metrics != null && property.propertySpec.getDefaultValueSpec().isPresent())
+            size += MethodSizeEstimator.defaultValueReport();
+
+        return size;
+    }
+
+    private static List<FieldDeclaration> getPropertiesFields(List<ExtendedProperty> properties,
+                                                              boolean splitInitializers) {
 
         List<FieldDeclaration> fieldDeclarations = new ArrayList<>();
 
         for (ExtendedProperty property : properties) {
 
-            Instruction propertyDefaultValue = KoresBuilderGenerator.getPropertyDefaultValue(property.propertySpec,
-                    property.defaultValue);
+            Instruction propertyDefaultValue = splitInitializers
+                                               ? null
+                                               : KoresBuilderGenerator.getPropertyDefaultValue(property.propertySpec,
+                                                       property.defaultValue);
 
             FieldDeclaration.Builder valueBuilder = FieldDeclaration.Builder.builder()
                     .modifiers(KoresModifier.PRIVATE)
@@ -186,21 +325,142 @@ public final class KoresBuilderGenerator {
         return fieldDeclarations;
     }
 
-    private static List<ConstructorDeclaration> getConstructors(List<ExtendedProperty> properties, KoresType baseType) {
+    private static List<ConstructorDeclaration> getConstructors(List<ExtendedProperty> properties, KoresType baseType,
+                                                                KoresType currentType, int methodSizeBudget,
+                                                                MetricsInstructions metrics, boolean preserveIdentity,
+                                                                boolean trackSet, boolean splitInitializers,
+                                                                List<MethodDeclaration> helpers) {
 
         List<ConstructorDeclaration> constructorDeclarations = new ArrayList<>();
 
-        constructorDeclarations.add(PartFactory.constructorDec().modifiers(KoresModifier.PUBLIC).build());
-
+        MutableInstructions emptyConstructorSource = MutableInstructions.create();
         MutableInstructions constructorSource = MutableInstructions.create();
 
+        List<ExtendedProperty> defaultValueProperties = properties.stream()
+                .filter(property -> property.propertySpec.getDefaultValueSpec().isPresent())
+                .collect(Collectors.toList());
+
+        // Code of constructor which is not the defaults copy
+        int overhead = MethodSizeEstimator.constructor(preserveIdentity);
+
+        if (splitInitializers) {
+            // Fields have no initializers, default values are assigned by helpers invoked by both constructors
+            List<List<ExtendedProperty>> chunks = MethodSizeEstimator.split(defaultValueProperties,
+                    property -> KoresBuilderGenerator.getInitializerSize(property, metrics),
+                    metrics != null ? MethodSizeEstimator.metricsGuard() : 0, methodSizeBudget);
+
+            for (int i = 0; i < chunks.size(); i++) {
+                List<ExtendedProperty> chunk = chunks.get(i);
+
+                if (chunk.isEmpty())
+                    continue;
+
+                String name = "initDefaults$" + i;
+                MutableInstructions helperBody = MutableInstructions.create();
+
+                if (metrics != null) {
+                    helperBody.add(metrics.onDefaultValue(chunk.stream()
+                            .map(property -> property.propertySpec.getName())
+                            .collect(Collectors.toList())));
+                }
+
+                for (ExtendedProperty property : chunk) {
+                    helperBody.add(Factories.setThisFieldValue(property.propertySpec.getType(),
+                            property.propertySpec.getName(),
+                            KoresBuilderGenerator.getPropertyDefaultValue(property.propertySpec, property.defaultValue)));
+                }
+
+                helpers.add(MethodDeclaration.Builder.builder()
+                        .modifiers(KoresModifier.PRIVATE)
+                        .returnType(Types.VOID)
+                        .name(name)
+                        .body(helperBody)
+                        .build());
+
+                Instruction invocation = InvocationFactory.invoke(InvokeType.INVOKE_SPECIAL, currentType,
+                        Factories.accessThis(), name, Factories.voidTypeSpec(), Collections.emptyList());
+
+                emptyConstructorSource.add(invocation);
+                constructorSource.add(invocation);
+                overhead += MethodSizeEstimator.helperInvocation();
+            }
+        } else {
+            for (ExtendedProperty property : properties) {
+                overhead += KoresBuilderGenerator.getInitializerSize(property, metrics);
+
+                if (trackSet)
+                    overhead += MethodSizeEstimator.setFlag();
+            }
+
+            if (preserveIdentity)
+                overhead += 2 * MethodSizeEstimator.setFlag();
+
+            if (metrics != null && !defaultValueProperties.isEmpty()) {
+                // Default value providers are invoked by field initializers of both constructors
+                List<String> names = defaultValueProperties.stream()
+                        .map(property -> property.propertySpec.getName())
+                        .collect(Collectors.toList());
+
+                emptyConstructorSource.add(metrics.onDefaultValue(names));
+                constructorSource.add(metrics.onDefaultValue(names));
+                overhead += MethodSizeEstimator.metricsGuard();
+            }
+        }
+
+        constructorDeclarations.add(PartFactory.constructorDec()
+                .modifiers(KoresModifier.PUBLIC)
+                .body(emptyConstructorSource)
+                .build());
+
 
         MutableInstructions body = MutableInstructions.create();
 
         VariableAccess base = Factories.accessVariable(baseType, "defaults");
 
+        if (preserveIdentity)
+            constructorSource.add(Factories.setThisFieldValue(baseType, SOURCE_FIELD, base));
+
         constructorSource.add(Factories.ifStatement(Factories.checkNotNull(base), body));
 
+        List<List<ExtendedProperty>> chunks = MethodSizeEstimator.split(properties,
+                property -> MethodSizeEstimator.defaultsCopy(property.propertySpec)
+                        + (trackSet ? MethodSizeEstimator.setFlag() : 0), overhead, methodSizeBudget);
+
+        if (chunks.size() == 1) {
+            KoresBuilderGenerator.addDefaultsCopy(chunks.get(0), baseType, base, trackSet, body);
+        } else {
+            for (int i = 0; i < chunks.size(); i++) {
+                String name = "copyDefaults$" + i;
+                MutableInstructions helperBody = MutableInstructions.create();
+
+                KoresBuilderGenerator.addDefaultsCopy(chunks.get(i), baseType, base, trackSet, helperBody);
+
+                helpers.add(MethodDeclaration.Builder.builder()
+                        .modifiers(KoresModifier.PRIVATE)
+                        .returnType(Types.VOID)
+                        .name(name)
+                        .parameters(Factories.parameter(base.getType(), base.getName()))
+                        .body(helperBody)
+                        .build());
+
+                body.add(InvocationFactory.invoke(InvokeType.INVOKE_SPECIAL, currentType, Factories.accessThis(),
+                        name, Factories.voidTypeSpec(baseType), Collections.singletonList(base)));
+            }
+        }
+
+        constructorDeclarations.add(
+                PartFactory.constructorDec()
+                        .modifiers(KoresModifier.PUBLIC)
+                        .parameters(Factories.parameter(base.getType(), base.getName()))
+                        .body(constructorSource)
+                        .build()
+        );
+
+        return constructorDeclarations;
+    }
+
+    private static void addDefaultsCopy(List<ExtendedProperty> properties, KoresType baseType, VariableAccess base,
+                                        boolean trackSet, MutableInstructions body) {
         for (ExtendedProperty property : properties) {
 
             PropertySpec propertySpec = property.propertySpec;
@@ -218,20 +478,15 @@ public final class KoresBuilderGenerator {
             }
 
             body.add(Factories.setThisFieldValue(type, name, getterInvoke));
-        }
 
-        constructorDeclarations.add(
-                PartFactory.constructorDec()
-                        .modifiers(KoresModifier.PUBLIC)
-                        .parameters(Factories.parameter(base.getType(), base.getName()))
-                        .body(constructorSource)
-                        .build()
-        );
-
-        return constructorDeclarations;
+            if (trackSet)
+                body.add(Factories.setThisFieldValue(Types.BOOLEAN, name + SET_SUFFIX, Literals.TRUE));
+        }
     }
 
-    private static List<MethodDeclaration> getWithMethods(List<ExtendedProperty> properties, KoresType currentType) {
+    private static List<MethodDeclaration> getWithMethods(List<ExtendedProperty> properties, KoresType currentType,
+                                                          MetricsInstructions metrics, boolean preserveIdentity,
+                                                          boolean trackSet) {
         return properties.stream()
                 .map(property -> {
                     PropertySpec propertySpec = property.propertySpec;
@@ -241,9 +496,16 @@ public final class KoresBuilderGenerator {
                     MutableInstructions body = MutableInstructions.create();
 
                     addPropertyVerification(property.propertySpec, Factories.accessVariable(type, name), property.validator,
-                            body);
+                            metrics, body);
+
+                    if (preserveIdentity)
+                        body.add(KoresBuilderGenerator.getDirtyCheck(propertySpec.getType(), name));
 
                     body.add(Factories.setThisFieldValue(type, name, Factories.accessVariable(type, name)));
+
+                    if (trackSet)
+                        body.add(Factories.setThisFieldValue(Types.BOOLEAN, name + SET_SUFFIX, Literals.TRUE));
+
                     body.add(Factories.returnValue(currentType, Factories.accessThis()));
                     // Good type, not better type, I know
                     Type goodType;
@@ -301,7 +563,8 @@ public final class KoresBuilderGenerator {
     }
 
     private static List<MethodDeclaration> getDefMethod(GenericType implementationType,
-                                                        BuilderSpec builderSpec) {
+                                                        BuilderSpec builderSpec,
+                                                        InlineMethodRegistry inlineMethodRegistry) {
         List<MethodDeclaration> methodDeclarations = new ArrayList<>();
 
         Type builderBaseClass = builderSpec.getBuilderBaseClass();
@@ -341,7 +604,7 @@ public final class KoresBuilderGenerator {
             if (defaultMethodOpt.isPresent()) {
 
                 MethodRefSpec methodRefSpec = defaultMethodOpt.get();
-                Optional<InlineMethodInvoker> method = MethodResolver.resolve(() -> defaultMethodOpt);
+                Optional<InlineMethodInvoker> method = inlineMethodRegistry.resolve(methodRefSpec);
 
                 MethodDeclaration targetMethod = methodSpec.getTargetMethod();
 
@@ -396,25 +659,64 @@ public final class KoresBuilderGenerator {
     }
 
     private static List<MethodDeclaration> getBuildMethod(List<ExtendedProperty> properties, KoresType baseType,
-                                                          BuilderSpec builderSpec) {
+                                                          KoresType currentType, BuilderSpec builderSpec,
+                                                          int methodSizeBudget, MetricsInstructions metrics) {
 
         List<MethodDeclaration> methodDeclarations = new ArrayList<>();
         MutableInstructions source = MutableInstructions.create();
 
-        for (ExtendedProperty property : properties) {
-            FieldAccess fieldAccess = Factories.accessThisField(property.propertySpec.getType(), property.propertySpec.getName());
+        boolean builderArgument = builderSpec.hasFeature(BuilderFeature.BUILDER_ARGUMENT);
+        boolean preserveIdentity = builderSpec.hasFeature(BuilderFeature.PRESERVE_IDENTITY);
+
+        if (preserveIdentity)
+            source.add(KoresBuilderGenerator.getReturnSource(baseType));
 
-            addPropertyVerification(property.propertySpec, fieldAccess, property.validator, source);
+        List<List<ExtendedProperty>> chunks = MethodSizeEstimator.split(properties,
+                property -> MethodSizeEstimator.verification(property.propertySpec, property.validator != null)
+                        + (metrics != null ? MethodSizeEstimator.validationFailureHandler() : 0),
+                MethodSizeEstimator.factoryInvocation(builderArgument ? 1 : properties.size()), methodSizeBudget);
+
+        if (chunks.size() == 1) {
+            KoresBuilderGenerator.addFieldsVerification(chunks.get(0), metrics, source);
+        } else {
+            for (int i = 0; i < chunks.size(); i++) {
+                String name = "verify$" + i;
+                MutableInstructions helperBody = MutableInstructions.create();
+
+                KoresBuilderGenerator.addFieldsVerification(chunks.get(i), metrics, helperBody);
+
+                methodDeclarations.add(MethodDeclaration.Builder.builder()
+                        .modifiers(KoresModifier.PRIVATE)
+                        .returnType(Types.VOID)
+                        .name(name)
+                        .body(helperBody)
+                        .build());
+
+                source.add(InvocationFactory.invoke(InvokeType.INVOKE_SPECIAL, currentType, Factories.accessThis(),
+                        name, Factories.voidTypeSpec(), Collections.emptyList()));
+            }
         }
 
-        List<KoresType> argumentsTypes = properties.stream()
-                .map(extendedProperty -> extendedProperty.propertySpec.getType())
-                .collect(Collectors.toList());
+        List<KoresType> argumentsTypes;
+        List<Instruction> arguments;
 
-        List<Instruction> arguments = properties.stream()
-                .map(extendedProperty -> Factories.accessThisField(extendedProperty.propertySpec.getType(),
-                        extendedProperty.propertySpec.getName()))
-                .collect(Collectors.toList());
+        if (builderArgument) {
+            // Builder implements the base type, values are read by the factory through getters
+            argumentsTypes = Collections.singletonList(baseType);
+            arguments = Collections.singletonList(Factories.accessThis());
+        } else {
+            argumentsTypes = properties.stream()
+                    .map(extendedProperty -> extendedProperty.propertySpec.getType())
+                    .collect(Collectors.toList());
+
+            arguments = properties.stream()
+                    .map(extendedProperty -> Factories.accessThisField(extendedProperty.propertySpec.getType(),
+                            extendedProperty.propertySpec.getName()))
+                    .collect(Collectors.toList());
+        }
+
+        if (metrics != null)
+            source.add(metrics.onBuild());
 
         source.add(Factories.returnValue(builderSpec.getFactoryResultType(),
                 MethodInvocationUtil.createFactoryInvocation(builderSpec, argumentsTypes, arguments)));
@@ -426,11 +728,355 @@ public final class KoresBuilderGenerator {
                 .body(source)
                 .build());
 
+        if (builderSpec.hasFeature(BuilderFeature.TRUSTED_BUILD)) {
+            // Same as build() without verification of fields, values are trusted by the caller
+            MutableInstructions trustedSource = MutableInstructions.create();
+
+            if (preserveIdentity)
+                trustedSource.add(KoresBuilderGenerator.getReturnSource(baseType));
+
+            if (metrics != null)
+                trustedSource.add(metrics.onBuild());
+
+            trustedSource.add(Factories.returnValue(builderSpec.getFactoryResultType(),
+                    MethodInvocationUtil.createFactoryInvocation(builderSpec, argumentsTypes, arguments)));
+
+            methodDeclarations.add(MethodDeclaration.Builder.builder()
+                    .modifiers(KoresModifier.PUBLIC)
+                    .name("buildTrusted")
+                    .returnType(baseType)
+                    .body(trustedSource)
+                    .build());
+        }
+
         return methodDeclarations;
     }
 
+    /**
+     * Creates {@code if (this.name != name) this.$dirty = true}, reference values are compared with {@link
+     * Objects#equals(Object, Object)} and floating point values with {@link Float#compare(float, float)} and {@link
+     * Double#compare(double, double)}, so {@code -0.0} is a change of {@code 0.0} and {@code NaN} is not a change of
+     * {@code NaN}.
+     */
+    private static Instruction getDirtyCheck(KoresType type, String name) {
+        Instruction current = Factories.accessThisField(type, name);
+        Instruction value = Factories.accessVariable(type, name);
+
+        IfExpr changed;
+
+        if (type.is(Types.FLOAT) || type.is(Types.DOUBLE)) {
+            Class<?> boxType = type.is(Types.FLOAT) ? Float.class : Double.class;
+
+            changed = Factories.check(InvocationFactory.invokeStatic(boxType, "compare",
+                    Factories.typeSpec(Types.INT, type, type),
+                    Collections3.listOf(current, value)), Operators.NOT_EQUAL_TO, Literals.INT(0));
+        } else if (type.isPrimitive()) {
+            changed = Factories.check(current, Operators.NOT_EQUAL_TO, value);
+        } else {
+            changed = Factories.check(InvocationFactory.invokeStatic(Objects.class, "equals",
+                    Factories.typeSpec(Types.BOOLEAN, Object.class, Object.class),
+                    Collections3.listOf(current, value)), Operators.EQUAL_TO, Literals.FALSE);
+        }
+
+        return Factories.ifStatement(Factories.ifExprs(changed),
+                Instructions.fromPart(Factories.setThisFieldValue(Types.BOOLEAN, DIRTY_FIELD, Literals.TRUE)));
+    }
+
+    /**
+     * Creates {@code if (this.$source != null && !this.$dirty) return this.$source}.
+     *
+     * The defaults instance is returned before the verification of properties, as is: it is not null-checked nor
+     * validated, and may not be an instance created by the factory.
+     */
+    private static Instruction getReturnSource(KoresType baseType) {
+        Instruction source = Factories.accessThisField(baseType, SOURCE_FIELD);
+
+        return Factories.ifStatement(Factories.ifExprs(
+                Factories.check(source, Operators.NOT_EQUAL_TO, Literals.NULL),
+                Operators.AND,
+                Factories.check(Factories.accessThisField(Types.BOOLEAN, DIRTY_FIELD), Operators.EQUAL_TO, Literals.FALSE)),
+                Instructions.fromPart(Factories.returnValue(baseType, source)));
+    }
+
+    /**
+     * Creates {@code copy()} method, which duplicates builder state with {@link Object#clone()} (a shallow field copy)
+     * instead of invoking all getters as the defaults constructor does.
+     */
+    private static MethodDeclaration getCopyMethod(KoresType currentType) {
+        String exception = "e";
+
+        Instruction clone = InvocationFactory.invoke(InvokeType.INVOKE_SPECIAL, Types.OBJECT, Factories.accessSuper(),
+                "clone", Factories.typeSpec(Object.class), Collections.emptyList());
+
+        return MethodDeclaration.Builder.builder()
+                .modifiers(KoresModifier.PUBLIC)
+                .returnType(currentType)
+                .name("copy")
+                .body(Instructions.fromPart(Factories.tryStatement(
+                        Instructions.fromPart(Factories.returnValue(currentType,
+                                Factories.cast(Types.OBJECT, currentType, clone))),
+                        Collections.singletonList(Factories.catchStatement(CloneNotSupportedException.class,
+                                Factories.variable(CloneNotSupportedException.class, exception),
+                                // Unreachable, builder implements Cloneable
+                                Instructions.fromPart(Factories.throwException(
+                                        InvocationFactory.invokeConstructor(InternalError.class,
+                                                Factories.constructorTypeSpec(Throwable.class),
+                                                Collections.singletonList(Factories.accessVariable(
+                                                        CloneNotSupportedException.class, exception))))))),
+                        Instructions.empty())))
+                .build();
+    }
+
+    private static void addFieldsVerification(List<ExtendedProperty> properties, MetricsInstructions metrics,
+                                              MutableInstructions body) {
+        for (ExtendedProperty property : properties) {
+            FieldAccess fieldAccess = Factories.accessThisField(property.propertySpec.getType(), property.propertySpec.getName());
+
+            addPropertyVerification(property.propertySpec, fieldAccess, property.validator, metrics, body);
+        }
+    }
+
+    private static List<MethodDeclaration> getCombineMethod(List<ExtendedProperty> properties, KoresType currentType,
+                                                            boolean preserveIdentity, int methodSizeBudget) {
+
+        List<MethodDeclaration> methodDeclarations = new ArrayList<>();
+        MutableInstructions body = MutableInstructions.create();
+
+        VariableAccess other = Factories.accessVariable(currentType, "other");
+
+        List<List<ExtendedProperty>> chunks = MethodSizeEstimator.split(properties,
+                property -> MethodSizeEstimator.combine(!property.propertySpec.getType().isPrimitive()
+                        && KoresBuilderGenerator.getMergeCollectionType(property.propertySpec.getType()) != null),
+                MethodSizeEstimator.combineOverhead(preserveIdentity), methodSizeBudget);
+
+        if (chunks.size() == 1) {
+            KoresBuilderGenerator.addCombine(chunks.get(0), currentType, other, body);
+        } else {
+            for (int i = 0; i < chunks.size(); i++) {
+                String name = "combine$" + i;
+                MutableInstructions helperBody = MutableInstructions.create();
+
+                KoresBuilderGenerator.addCombine(chunks.get(i), currentType, other, helperBody);
+
+                methodDeclarations.add(MethodDeclaration.Builder.builder()
+                        .modifiers(KoresModifier.PRIVATE)
+                        .returnType(Types.VOID)
+                        .name(name)
+                        .parameters(Factories.parameter(currentType, other.getName()))
+                        .body(helperBody)
+                        .build());
+
+                body.add(InvocationFactory.invoke(InvokeType.INVOKE_SPECIAL, currentType, Factories.accessThis(),
+                        name, Factories.voidTypeSpec(currentType), Collections.singletonList(other)));
+            }
+        }
+
+        if (preserveIdentity)
+            body.add(Factories.setThisFieldValue(Types.BOOLEAN, DIRTY_FIELD, Literals.TRUE));
+
+        body.add(Factories.returnValue(currentType, Factories.accessThis()));
+
+        methodDeclarations.add(MethodDeclaration.Builder.builder()
+                .modifiers(KoresModifier.PUBLIC)
+                .returnType(currentType)
+                .name("combine")
+                .parameters(Factories.parameter(currentType, other.getName()))
+                .body(body)
+                .build());
+
+        return methodDeclarations;
+    }
+
+    private static void addCombine(List<ExtendedProperty> properties, KoresType currentType, VariableAccess other,
+                                   MutableInstructions body) {
+        for (ExtendedProperty property : properties) {
+            PropertySpec propertySpec = property.propertySpec;
+            String name = propertySpec.getName();
+            String setName = name + SET_SUFFIX;
+            KoresType type = propertySpec.getType();
+
+            Instruction otherValue = Factories.accessField(currentType, other, type, name);
+
+            MutableInstructions setBody = MutableInstructions.create();
+
+            Class<?> collectionType = type.isPrimitive() ? null : KoresBuilderGenerator.getMergeCollectionType(type);
+
+            if (collectionType != null) {
+                KoresType mergedType = KoresBuilderGenerator.getMergeType(collectionType, type);
+                VariableAccess merged = Factories.accessVariable(mergedType, "merged");
+                Instruction thisValue = Factories.accessThisField(type, name);
+
+                MutableInstructions mergeBody = MutableInstructions.create();
+
+                mergeBody.add(Factories.variable(mergedType, merged.getName(),
+                        InvocationFactory.invokeConstructor(mergedType, Factories.constructorTypeSpec(),
+                                Collections.emptyList())));
+
+                mergeBody.add(Factories.ifStatement(Factories.checkNotNull(thisValue),
+                        Instructions.fromPart(KoresBuilderGenerator.addAll(collectionType, merged, thisValue))));
+
+                mergeBody.add(Factories.ifStatement(Factories.checkNotNull(otherValue),
+                        Instructions.fromPart(KoresBuilderGenerator.addAll(collectionType, merged, otherValue))));
+
+                mergeBody.add(Factories.setThisFieldValue(type, name, merged));
+
+                // Concatenate when set in both, otherwise take the value of 'other'
+                setBody.add(Factories.ifStatement(
+                        Factories.ifExprs(Factories.check(Factories.accessThisField(Types.BOOLEAN, setName),
+                                Operators.EQUAL_TO, Literals.TRUE)),
+                        mergeBody,
+                        Instructions.fromPart(Factories.setThisFieldValue(type, name, otherValue))));
+            } else {
+                // Last-wins
+                setBody.add(Factories.setThisFieldValue(type, name, otherValue));
+            }
+
+            setBody.add(Factories.setThisFieldValue(Types.BOOLEAN, setName, Literals.TRUE));
+
+            // Properties which were not set in 'other' are kept, this makes a new builder the identity of combine.
+            body.add(Factories.ifStatement(
+                    Factories.ifExprs(Factories.check(Factories.accessField(currentType, other, Types.BOOLEAN, setName),
+                            Operators.EQUAL_TO, Literals.TRUE)),
+                    setBody));
+        }
+    }
+
+    private static List<MethodDeclaration> getCollectorMethod(KoresType currentType, KoresType baseType,
+                                                              List<TypeDeclaration> innerTypes) {
+
+        VariableAccess builder = Factories.accessVariable(currentType, "builder");
+        VariableAccess other = Factories.accessVariable(currentType, "other");
+
+        Instruction combine = InvocationFactory.invokeVirtual(currentType, builder, "combine",
+                Factories.typeSpec(currentType, currentType), Collections.singletonList(other));
+
+        // Functions are implemented by an inner class instead of lambdas to keep generated code simple for all backends.
+        ClassDeclaration combiner = ClassDeclaration.Builder.builder()
+                .outerType(currentType)
+                .modifiers(KoresModifier.PUBLIC, KoresModifier.STATIC, KoresModifier.FINAL)
+                .specifiedName("Combiner")
+                .superClass(Types.OBJECT)
+                .implementations(
+                        Generic.type(Supplier.class).of(currentType),
+                        Generic.type(BiConsumer.class).of(currentType, currentType),
+                        Generic.type(BinaryOperator.class).of(currentType),
+                        Generic.type(Function.class).of(currentType, baseType))
+                .methods(
+                        MethodDeclaration.Builder.builder()
+                                .modifiers(KoresModifier.PUBLIC)
+                                .returnType(currentType)
+                                .name("get")
+                                .body(Instructions.fromPart(Factories.returnValue(currentType,
+                                        InvocationFactory.invokeConstructor(currentType, Factories.constructorTypeSpec(),
+                                                Collections.emptyList()))))
+                                .build(),
+                        MethodDeclaration.Builder.builder()
+                                .modifiers(KoresModifier.PUBLIC)
+                                .returnType(Types.VOID)
+                                .name("accept")
+                                .parameters(Factories.parameter(currentType, builder.getName()),
+                                        Factories.parameter(currentType, other.getName()))
+                                .body(Instructions.fromPart(combine))
+                                .build(),
+                        MethodDeclaration.Builder.builder()
+                                .modifiers(KoresModifier.PUBLIC)
+                                .returnType(currentType)
+                                .name("apply")
+                                .parameters(Factories.parameter(currentType, builder.getName()),
+                                        Factories.parameter(currentType, other.getName()))
+                                .body(Instructions.fromPart(Factories.returnValue(currentType, combine)))
+                                .build(),
+                        MethodDeclaration.Builder.builder()
+                                .modifiers(KoresModifier.PUBLIC)
+                                .returnType(baseType)
+                                .name("apply")
+                                .parameters(Factories.parameter(currentType, builder.getName()))
+                                .body(Instructions.fromPart(Factories.returnValue(baseType,
+                                        InvocationFactory.invokeVirtual(currentType, builder, "build",
+                                                Factories.typeSpec(baseType), Collections.emptyList()))))
+                                .build()
+                )
+                .build();
+
+        innerTypes.add(combiner);
+
+        VariableAccess combinerAccess = Factories.accessVariable(combiner, "combiner");
+
+        KoresType collectorType = Generic.type(Collector.class).of(currentType, currentType, baseType);
+
+        MutableInstructions body = MutableInstructions.create();
+
+        body.add(Factories.variable(combiner, combinerAccess.getName(),
+                InvocationFactory.invokeConstructor(combiner, Factories.constructorTypeSpec(), Collections.emptyList())));
+
+        body.add(Factories.returnValue(collectorType, InvocationFactory.invokeStatic(Collector.class, "of",
+                Factories.typeSpec(Collector.class, Supplier.class, BiConsumer.class, BinaryOperator.class,
+                        Function.class, Collector.Characteristics[].class),
+                Collections3.listOf(combinerAccess, combinerAccess, combinerAccess, combinerAccess,
+                        Factories.createArray(Collector.Characteristics[].class,
+                                Collections.singletonList(Literals.INT(0)), Collections.emptyList())))));
+
+        return Collections.singletonList(MethodDeclaration.Builder.builder()
+                .modifiers(KoresModifier.PUBLIC, KoresModifier.STATIC)
+                .returnType(collectorType)
+                .name("collector")
+                .body(body)
+                .build());
+    }
+
+    /**
+     * Gets the collection type used to concatenate values of property of type {@code type} in {@code combine}.
+     *
+     * @param type Property type.
+     * @return Collection type used to concatenate values, or null if property values are not concatenated.
+     */
+    private static Class<?> getMergeCollectionType(KoresType type) {
+        String name = KoresTypes.getConcreteType(type).getCanonicalName();
+
+        if (name.equals("java.util.Set"))
+            return LinkedHashSet.class;
+
+        if (name.equals("java.util.List") || name.equals("java.util.Collection"))
+            return ArrayList.class;
+
+        return null;
+    }
+
+    /**
+     * Gets the parameterized {@code collectionType} which holds the elements of property of type {@code type}, so the
+     * generated {@code combine} does not use raw types. Wildcard elements are held by their upper bound ({@code ?} and
+     * {@code ? super T} by {@link Object}), which is assignable to the property type.
+     *
+     * @param collectionType Collection type returned by {@link #getMergeCollectionType(KoresType)}.
+     * @param type           Property type.
+     * @return Parameterized collection type, or raw {@code collectionType} if {@code type} is raw.
+     */
+    private static KoresType getMergeType(Class<?> collectionType, KoresType type) {
+        if (!(type instanceof GenericType) || !((GenericType) type).isType()
+                || ((GenericType) type).getBounds().length != 1)
+            return KoresTypes.getKoresType(collectionType);
+
+        KoresType element = ((GenericType) type).getBounds()[0].getType();
+
+        if (element instanceof GenericType && ((GenericType) element).isWildcard()) {
+            GenericType.Bound[] bounds = ((GenericType) element).getBounds();
+
+            element = bounds.length == 1 && !(bounds[0] instanceof GenericType.Super) ? bounds[0].getType()
+                                                                                      : Types.OBJECT;
+        }
+
+        return Generic.type(collectionType).of(element);
+    }
+
+    private static Instruction addAll(Class<?> collectionType, Instruction collection, Instruction values) {
+        return InvocationFactory.invokeVirtual(collectionType, collection, "addAll",
+                Factories.typeSpec(Types.BOOLEAN, Collection.class), Collections.singletonList(values));
+    }
+
     private static void addPropertyVerification(PropertySpec property, Instruction codePart, InlineMethodInvoker invoker,
-                                                MutableInstructions mutableInstructions) {
+                                                MetricsInstructions metrics, MutableInstructions body) {
+
+        MutableInstructions mutableInstructions = metrics != null ? MutableInstructions.create() : body;
 
         if (!property.isNullable() && !property.getType().isPrimitive()) {
 
@@ -460,6 +1106,9 @@ public final class KoresBuilderGenerator {
                                 property));
             }
         }
+
+        if (metrics != null && !mutableInstructions.isEmpty())
+            body.add(metrics.onValidationFailure(property.getName(), mutableInstructions));
     }
 
     private static Instruction getPropertyDefaultValue(PropertySpec property, InlineMethodInvoker invoker) {
@@ -513,31 +1162,117 @@ public final class KoresBuilderGenerator {
         }
     }
 
+    /**
+     * Bytecode builder generator. Each thread reuses a configured {@link BytecodeGenerator} for all builders generated
+     * by the same {@link Bytecode} instance, so instances should be reused when generating many builders (see {@link
+     * BytecodeBatch}).
+     */
     public static class Bytecode implements BuilderGenerator<List<BytecodeClass>> {
 
-        @Override
-        public List<BytecodeClass> generate(BuilderSpec builderSpec, Consumer<List<MethodTypeSpec>> verifier) {
+        private final boolean generateBridgeMethods;
+        private final VisitLineType visitLines;
+        private final InlineMethodRegistry inlineMethodRegistry;
+        private final int methodSizeBudget;
+        private final ThreadLocal<BytecodeGenerator> generators = ThreadLocal.withInitial(this::createGenerator);
+
+        public Bytecode() {
+            this(false);
+        }
+
+        /**
+         * @param generateBridgeMethods Whether bridge methods should be generated, required when the generated class is
+         *                              not compiled by javac (javac generates bridge methods of source files).
+         */
+        public Bytecode(boolean generateBridgeMethods) {
+            this(generateBridgeMethods, VisitLineType.GEN_LINE_INSTRUCTION);
+        }
+
+        /**
+         * @param generateBridgeMethods Whether bridge methods should be generated, required when the generated class is
+         *                              not compiled by javac (javac generates bridge methods of source files).
+         * @param visitLines            Line number emission, {@link VisitLineType#DISABLED} generates smaller classes.
+         */
+        public Bytecode(boolean generateBridgeMethods, VisitLineType visitLines) {
+            this(generateBridgeMethods, visitLines, new InlineMethodRegistry());
+        }
+
+        /**
+         * @param generateBridgeMethods Whether bridge methods should be generated, required when the generated class is
+         *                              not compiled by javac (javac generates bridge methods of source files).
+         * @param visitLines            Line number emission, {@link VisitLineType#DISABLED} generates smaller classes.
+         * @param inlineMethodRegistry  Registry of resolved inline methods.
+         */
+        public Bytecode(boolean generateBridgeMethods, VisitLineType visitLines,
+                        InlineMethodRegistry inlineMethodRegistry) {
+            this(generateBridgeMethods, visitLines, inlineMethodRegistry, DEFAULT_METHOD_SIZE_BUDGET);
+        }
 
-            TypeDeclaration part = KoresBuilderGenerator.generate(builderSpec, verifier);
+        /**
+         * @param generateBridgeMethods Whether bridge methods should be generated, required when the generated class is
+         *                              not compiled by javac (javac generates bridge methods of source files).
+         * @param visitLines            Line number emission, {@link VisitLineType#DISABLED} generates smaller classes.
+         * @param inlineMethodRegistry  Registry of resolved inline methods.
+         * @param methodSizeBudget      Estimated bytecode size limit of {@code build()} and defaults constructor.
+         */
+        public Bytecode(boolean generateBridgeMethods, VisitLineType visitLines,
+                        InlineMethodRegistry inlineMethodRegistry, int methodSizeBudget) {
+            this.generateBridgeMethods = generateBridgeMethods;
+            this.visitLines = Objects.requireNonNull(visitLines);
+            this.inlineMethodRegistry = Objects.requireNonNull(inlineMethodRegistry);
+            this.methodSizeBudget = methodSizeBudget;
+        }
 
+        private BytecodeGenerator createGenerator() {
             BytecodeGenerator bytecodeGenerator = new BytecodeGenerator();
 
-            bytecodeGenerator.getOptions().set(BytecodeOptions.VISIT_LINES, VisitLineType.GEN_LINE_INSTRUCTION);
+            bytecodeGenerator.getOptions().set(BytecodeOptions.VISIT_LINES, this.visitLines);
+
+            if (this.generateBridgeMethods)
+                bytecodeGenerator.getOptions().set(BytecodeOptions.GENERATE_BRIDGE_METHODS, Boolean.TRUE);
+
+            return bytecodeGenerator;
+        }
+
+        @Override
+        public List<BytecodeClass> generate(BuilderSpec builderSpec, Consumer<List<MethodTypeSpec>> verifier) {
 
-            // Should we enable this? Compilation slowdown? hmmm, it is not good
-            // Wait, CodeAPI does not support Javax Model elements, then it will have no effect at the moment
-            // bytecodeGenerator.getOptions().set(BytecodeOptions.GENERATE_BRIDGE_METHODS, Boolean.TRUE);
+            TypeDeclaration part = KoresBuilderGenerator.generate(builderSpec, verifier, this.inlineMethodRegistry,
+                    this.methodSizeBudget);
 
-            return bytecodeGenerator.process(part);
+            return this.generators.get().process(part);
         }
     }
 
     public static class Source implements BuilderGenerator<Pair<TypeDeclaration, String>> {
 
+        private final InlineMethodRegistry inlineMethodRegistry;
+        private final int methodSizeBudget;
+
+        public Source() {
+            this(new InlineMethodRegistry());
+        }
+
+        /**
+         * @param inlineMethodRegistry Registry of resolved inline methods.
+         */
+        public Source(InlineMethodRegistry inlineMethodRegistry) {
+            this(inlineMethodRegistry, DEFAULT_METHOD_SIZE_BUDGET);
+        }
+
+        /**
+         * @param inlineMethodRegistry Registry of resolved inline methods.
+         * @param methodSizeBudget     Estimated bytecode size limit of {@code build()} and defaults constructor.
+         */
+        public Source(InlineMethodRegistry inlineMethodRegistry, int methodSizeBudget) {
+            this.inlineMethodRegistry = Objects.requireNonNull(inlineMethodRegistry);
+            this.methodSizeBudget = methodSizeBudget;
+        }
+
         @Override
         public Pair<TypeDeclaration, String> generate(BuilderSpec builderSpec, Consumer<List<MethodTypeSpec>> verifier) {
 
-            TypeDeclaration part = KoresBuilderGenerator.generate(builderSpec, verifier);
+            TypeDeclaration part = KoresBuilderGenerator.generate(builderSpec, verifier, this.inlineMethodRegistry,
+                    this.methodSizeBudget);
 
             PlainSourceGenerator sourceGenerator = new PlainSourceGenerator();
 
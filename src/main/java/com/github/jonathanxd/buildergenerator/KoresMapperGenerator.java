@@ -0,0 +1,137 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator;
+
+import com.github.jonathanxd.buildergenerator.spec.MapperSpec;
+import com.github.jonathanxd.buildergenerator.spec.PropertySpec;
+import com.github.jonathanxd.iutils.object.Pair;
+import com.github.jonathanxd.kores.Instruction;
+import com.github.jonathanxd.kores.MutableInstructions;
+import com.github.jonathanxd.kores.Types;
+import com.github.jonathanxd.kores.base.ClassDeclaration;
+import com.github.jonathanxd.kores.base.InvokeType;
+import com.github.jonathanxd.kores.base.KoresModifier;
+import com.github.jonathanxd.kores.base.MethodDeclaration;
+import com.github.jonathanxd.kores.base.TypeDeclaration;
+import com.github.jonathanxd.kores.base.TypeSpec;
+import com.github.jonathanxd.kores.base.VariableAccess;
+import com.github.jonathanxd.kores.factory.Factories;
+import com.github.jonathanxd.kores.factory.InvocationFactory;
+import com.github.jonathanxd.kores.factory.PartFactory;
+import com.github.jonathanxd.kores.literal.Literals;
+import com.github.jonathanxd.kores.source.process.PlainSourceGenerator;
+import com.github.jonathanxd.kores.type.Generic;
+import com.github.jonathanxd.kores.type.KoresType;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import kotlin.text.StringsKt;
+
+/**
+ * Uses {@code CodeAPI} to generate mapper classes. Mappers have a single static {@code map} method
+ * which copies all mapped properties from a source instance into a target {@code Builder} without
+ * reflection.
+ *
+ * @see com.github.jonathanxd.buildergenerator.annotation.GenMapper
+ */
+public final class KoresMapperGenerator {
+
+    private KoresMapperGenerator() {
+        throw new IllegalStateException();
+    }
+
+    static TypeDeclaration generate(MapperSpec mapperSpec) {
+
+        KoresType fromClass = mapperSpec.getFromClass();
+        KoresType builderClass = mapperSpec.getToBuilderClass();
+
+        VariableAccess from = Factories.accessVariable(fromClass, "from");
+        VariableAccess builder = Factories.accessVariable(builderClass, "builder");
+
+        MutableInstructions body = MutableInstructions.create();
+
+        for (PropertySpec property : mapperSpec.getProperties()) {
+            KoresType type = property.getType();
+
+            Instruction getterInvoke = InvocationFactory.invoke(InvokeType.get(fromClass), fromClass, from,
+                    "get" + StringsKt.capitalize(property.getDefaultsPropertyName()),
+                    new TypeSpec(property.isOptional() ? Generic.type(Optional.class).of(type) : type,
+                            Collections.emptyList()),
+                    Collections.emptyList());
+
+            if (property.isOptional()) {
+                getterInvoke = Factories.cast(Types.OBJECT, type,
+                        InvocationFactory.invokeVirtual(Optional.class, getterInvoke, "orElse",
+                                Factories.typeSpec(Object.class, Object.class), Collections.singletonList(Literals.NULL)));
+            }
+
+            body.add(InvocationFactory.invoke(InvokeType.get(builderClass), builderClass, builder,
+                    "with" + StringsKt.capitalize(property.getName()),
+                    new TypeSpec(builderClass, Collections.singletonList(property.getBuilderSetterType())),
+                    Collections.singletonList(getterInvoke)));
+        }
+
+        body.add(Factories.returnValue(builderClass, builder));
+
+        return ClassDeclaration.Builder.builder()
+                .modifiers(KoresModifier.PUBLIC, KoresModifier.FINAL)
+                .qualifiedName(mapperSpec.getMapperQualifiedName())
+                .superClass(Types.OBJECT)
+                .constructors(PartFactory.constructorDec().modifiers(KoresModifier.PRIVATE).build())
+                .methods(MethodDeclaration.Builder.builder()
+                        .modifiers(KoresModifier.PUBLIC, KoresModifier.STATIC)
+                        .returnType(builderClass)
+                        .name("map")
+                        .parameters(Factories.parameter(fromClass, from.getName()),
+                                Factories.parameter(builderClass, builder.getName()))
+                        .body(body)
+                        .build())
+                .build();
+    }
+
+    public static class Source {
+
+        /**
+         * Generates the mapper class.
+         *
+         * @param mapperSpec Mapper specification.
+         * @return Pair of generated mapper class and the source code.
+         */
+        public Pair<TypeDeclaration, String> generate(MapperSpec mapperSpec) {
+
+            TypeDeclaration part = KoresMapperGenerator.generate(mapperSpec);
+
+            PlainSourceGenerator sourceGenerator = new PlainSourceGenerator();
+
+            return Pair.of(part, sourceGenerator.process(part));
+        }
+
+    }
+
+}
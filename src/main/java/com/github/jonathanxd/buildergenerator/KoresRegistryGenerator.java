@@ -0,0 +1,156 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator;
+
+import com.github.jonathanxd.buildergenerator.registry.BuilderRegistry;
+import com.github.jonathanxd.buildergenerator.spec.RegistrySpec;
+import com.github.jonathanxd.iutils.object.Pair;
+import com.github.jonathanxd.kores.Instruction;
+import com.github.jonathanxd.kores.Instructions;
+import com.github.jonathanxd.kores.Types;
+import com.github.jonathanxd.kores.base.Case;
+import com.github.jonathanxd.kores.base.ClassDeclaration;
+import com.github.jonathanxd.kores.base.KoresModifier;
+import com.github.jonathanxd.kores.base.MethodDeclaration;
+import com.github.jonathanxd.kores.base.TypeDeclaration;
+import com.github.jonathanxd.kores.base.VariableAccess;
+import com.github.jonathanxd.kores.factory.Factories;
+import com.github.jonathanxd.kores.factory.InvocationFactory;
+import com.github.jonathanxd.kores.factory.PartFactory;
+import com.github.jonathanxd.kores.helper.ConcatHelper;
+import com.github.jonathanxd.kores.literal.Literals;
+import com.github.jonathanxd.kores.source.process.PlainSourceGenerator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Uses {@code CodeAPI} to generate {@link BuilderRegistry} implementations. Builders are created
+ * through a {@code switch} over builder ids, without reflection.
+ */
+public final class KoresRegistryGenerator {
+
+    private KoresRegistryGenerator() {
+        throw new IllegalStateException();
+    }
+
+    static TypeDeclaration generate(RegistrySpec registrySpec) {
+
+        List<RegistrySpec.Entry> entries = registrySpec.getEntries();
+
+        VariableAccess id = Factories.accessVariable(Types.INT, "id");
+        VariableAccess defaults = Factories.accessVariable(Types.OBJECT, "defaults");
+
+        List<Instruction> baseTypes = new ArrayList<>();
+
+        for (RegistrySpec.Entry entry : entries) {
+            baseTypes.add(Literals.CLASS(entry.getBaseClass()));
+        }
+
+        MethodDeclaration getBaseTypes = MethodDeclaration.Builder.builder()
+                .modifiers(KoresModifier.PUBLIC)
+                .returnType(Class[].class)
+                .name("getBaseTypes")
+                .body(Instructions.fromPart(Factories.returnValue(Class[].class,
+                        Factories.createArray(Class[].class,
+                                Collections.singletonList(Literals.INT(entries.size())), baseTypes))))
+                .build();
+
+        MethodDeclaration createBuilder = MethodDeclaration.Builder.builder()
+                .modifiers(KoresModifier.PUBLIC)
+                .returnType(Types.OBJECT)
+                .name("createBuilder")
+                .parameters(Factories.parameter(Types.INT, id.getName()))
+                .body(KoresRegistryGenerator.createSwitch(entries, id, entry ->
+                        InvocationFactory.invokeConstructor(entry.getBuilderClass(), Factories.constructorTypeSpec(),
+                                Collections.emptyList())))
+                .build();
+
+        MethodDeclaration createBuilderWithDefaults = MethodDeclaration.Builder.builder()
+                .modifiers(KoresModifier.PUBLIC)
+                .returnType(Types.OBJECT)
+                .name("createBuilder")
+                .parameters(Factories.parameter(Types.INT, id.getName()),
+                        Factories.parameter(Types.OBJECT, defaults.getName()))
+                .body(KoresRegistryGenerator.createSwitch(entries, id, entry ->
+                        InvocationFactory.invokeConstructor(entry.getBuilderClass(),
+                                Factories.constructorTypeSpec(entry.getBaseClass()),
+                                Collections.singletonList(Factories.cast(Types.OBJECT, entry.getBaseClass(), defaults)))))
+                .build();
+
+        return ClassDeclaration.Builder.builder()
+                .modifiers(KoresModifier.PUBLIC, KoresModifier.FINAL)
+                .qualifiedName(registrySpec.getRegistryQualifiedName())
+                .superClass(Types.OBJECT)
+                .implementations(BuilderRegistry.class)
+                .constructors(PartFactory.constructorDec().modifiers(KoresModifier.PUBLIC).build())
+                .methods(getBaseTypes, createBuilder, createBuilderWithDefaults)
+                .build();
+    }
+
+    private static Instructions createSwitch(List<RegistrySpec.Entry> entries, VariableAccess id,
+                                             Function<RegistrySpec.Entry, Instruction> creator) {
+        List<Case> cases = new ArrayList<>();
+
+        for (int i = 0; i < entries.size(); i++) {
+            cases.add(Factories.caseStatement(Literals.INT(i),
+                    Instructions.fromPart(Factories.returnValue(Types.OBJECT, creator.apply(entries.get(i))))));
+        }
+
+        cases.add(Factories.defaultCase(Instructions.fromPart(Factories.throwException(
+                InvocationFactory.invokeConstructor(IllegalArgumentException.class,
+                        Factories.constructorTypeSpec(String.class),
+                        Collections.singletonList(ConcatHelper.builder("Invalid builder id: ")
+                                .concat(id)
+                                .build()))))));
+
+        return Instructions.fromPart(Factories.switchInt(id, cases));
+    }
+
+    public static class Source {
+
+        /**
+         * Generates the registry class.
+         *
+         * @param registrySpec Registry specification.
+         * @return Pair of generated registry class and the source code.
+         */
+        public Pair<TypeDeclaration, String> generate(RegistrySpec registrySpec) {
+
+            TypeDeclaration part = KoresRegistryGenerator.generate(registrySpec);
+
+            PlainSourceGenerator sourceGenerator = new PlainSourceGenerator();
+
+            return Pair.of(part, sourceGenerator.process(part));
+        }
+
+    }
+
+}
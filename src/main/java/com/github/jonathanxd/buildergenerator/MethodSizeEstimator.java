@@ -0,0 +1,297 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator;
+
+import com.github.jonathanxd.buildergenerator.spec.PropertySpec;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Estimates the bytecode size of generated builder method parts, used to split {@code build()} and the defaults
+ * constructor into helper methods when they exceed the method size budget (HotSpot does not JIT-compile methods larger
+ * than 8000 bytes, see {@code -XX:-DontCompileHugeMethods}).
+ *
+ * Estimates are upper bounds of the code emitted by the generators, inline methods are estimated with a fixed size.
+ */
+final class MethodSizeEstimator {
+
+    // aload_0, getfield
+    private static final int FIELD_ACCESS = 4;
+    // ldc_w
+    private static final int CONSTANT = 3;
+    // invokestatic, invokevirtual or invokespecial
+    private static final int INVOKE = 3;
+    // invokeinterface
+    private static final int INVOKE_INTERFACE = 5;
+    // Size assumed for instructions produced by inline methods
+    private static final int INLINE = 48;
+
+    private MethodSizeEstimator() {
+        throw new IllegalStateException();
+    }
+
+    /**
+     * Estimates the size of the exception handler that reports validation failures to {@code BuilderMetrics}.
+     *
+     * @return Estimated size in bytes.
+     */
+    static int validationFailureHandler() {
+        // astore, getstatic, ifeq, getstatic, ldc_w, ldc_w, aload, invokeinterface, aload, athrow
+        return 1 + 3 + 3 + 3 + CONSTANT + CONSTANT + 1 + INVOKE_INTERFACE + 1 + 1;
+    }
+
+    /**
+     * Estimates the size of null-check and validation of {@code property} value.
+     *
+     * @param property        Property.
+     * @param inlineValidator Whether the validator is an inline method.
+     * @return Estimated size in bytes.
+     */
+    static int verification(PropertySpec property, boolean inlineValidator) {
+        int size = 0;
+
+        if (!property.isNullable() && !property.getType().isPrimitive()) {
+            // Objects.requireNonNull(value, message), pop
+            size += FIELD_ACCESS + CONSTANT + INVOKE + 1;
+        }
+
+        if (property.getValidatorSpec().isPresent()) {
+            if (inlineValidator) {
+                size += INLINE;
+            } else {
+                // validator(value, name, type), pop
+                size += FIELD_ACCESS + CONSTANT + CONSTANT + INVOKE + 1;
+
+                if (property.isOptional())
+                    size += INVOKE;
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * Estimates the size of copy of {@code property} value from defaults instance.
+     *
+     * @param property Property.
+     * @return Estimated size in bytes.
+     */
+    static int defaultsCopy(PropertySpec property) {
+        // aload_0, aload_1, getter invocation, putfield
+        int size = 1 + 1 + INVOKE_INTERFACE + 3;
+
+        if (property.isOptional()) {
+            // aconst_null, orElse, checkcast
+            size += 1 + INVOKE + 3;
+        }
+
+        return size;
+    }
+
+    /**
+     * Estimates the size of the field initializer of {@code property}, which is its default value or the zero value of
+     * its type. Field initializers are emitted in all constructors.
+     *
+     * @param property      Property.
+     * @param inlineDefault Whether the default value provider is an inline method.
+     * @return Estimated size in bytes.
+     */
+    static int fieldInitializer(PropertySpec property, boolean inlineDefault) {
+        // aload_0, value, putfield
+        int size = 1 + 3;
+
+        if (property.getDefaultValueSpec().isPresent()) {
+            if (inlineDefault) {
+                size += INLINE;
+            } else {
+                // provider(name, type), checkcast
+                size += CONSTANT + CONSTANT + INVOKE + 3;
+            }
+        } else {
+            // Zero constant (ldc2_w is the largest)
+            size += CONSTANT;
+        }
+
+        return size;
+    }
+
+    /**
+     * Estimates the size of the report of a default value provider invocation to {@code BuilderMetrics}, without the
+     * {@link #metricsGuard() guard}.
+     *
+     * @return Estimated size in bytes.
+     */
+    static int defaultValueReport() {
+        // getstatic, ldc_w, ldc_w, invokeinterface
+        return 3 + CONSTANT + CONSTANT + INVOKE_INTERFACE;
+    }
+
+    /**
+     * Estimates the size of the guard of {@code BuilderMetrics} reports.
+     *
+     * @return Estimated size in bytes.
+     */
+    static int metricsGuard() {
+        // getstatic, ifeq
+        return 3 + 3;
+    }
+
+    /**
+     * Estimates the size of the defaults constructor code which is not related to properties.
+     *
+     * @param preserveIdentity Whether the defaults instance is stored in the builder.
+     * @return Estimated size in bytes.
+     */
+    static int constructor(boolean preserveIdentity) {
+        // aload_0, invokespecial Object.<init>, aload_1, ifnull, return
+        int size = 1 + INVOKE + 1 + 3 + 1;
+
+        if (preserveIdentity) {
+            // aload_0, aload_1, putfield
+            size += 1 + 1 + 3;
+        }
+
+        return size;
+    }
+
+    /**
+     * Estimates the size of assignment of a property set flag.
+     *
+     * @return Estimated size in bytes.
+     */
+    static int setFlag() {
+        // aload_0, iconst_1, putfield
+        return 1 + 1 + 3;
+    }
+
+    /**
+     * Estimates the size of the merge of a property value of another builder in {@code combine}.
+     *
+     * @param concat Whether values are concatenated collections.
+     * @return Estimated size in bytes.
+     */
+    static int combine(boolean concat) {
+        // aload_1, getfield, ifeq, set flag
+        int size = 1 + 3 + 3 + MethodSizeEstimator.setFlag();
+        // aload_0, aload_1, getfield, putfield
+        int copy = 1 + 1 + 3 + 3;
+
+        if (concat) {
+            // this flag check, new, dup, invokespecial, astore, two null-checked addAll, putfield, goto, copy
+            size += FIELD_ACCESS + 3 + 3 + 1 + INVOKE + 1 + 2 * (FIELD_ACCESS + 3 + 1 + FIELD_ACCESS + INVOKE + 1)
+                    + 1 + 1 + 3 + 3 + copy;
+        } else {
+            size += copy;
+        }
+
+        return size;
+    }
+
+    /**
+     * Estimates the size of {@code combine} code which is not related to properties.
+     *
+     * @param preserveIdentity Whether {@code combine} marks the builder as changed.
+     * @return Estimated size in bytes.
+     */
+    static int combineOverhead(boolean preserveIdentity) {
+        // aload_0, areturn
+        return 1 + 1 + (preserveIdentity ? MethodSizeEstimator.setFlag() : 0);
+    }
+
+    /**
+     * Estimates the size of factory invocation with {@code arguments} field values.
+     *
+     * @param arguments Number of arguments.
+     * @return Estimated size in bytes.
+     */
+    static int factoryInvocation(int arguments) {
+        // new, dup, arguments, invocation, areturn
+        return 3 + 1 + arguments * FIELD_ACCESS + INVOKE + 1;
+    }
+
+    /**
+     * Estimates the size of a helper method invocation, the per-chunk overhead of methods split by {@link #split(List,
+     * ToIntFunction, int, int)}.
+     *
+     * @return Estimated size in bytes.
+     */
+    static int helperInvocation() {
+        // aload_0, aload_1, invokespecial
+        return 1 + 1 + INVOKE;
+    }
+
+    /**
+     * Splits {@code values} into chunks which estimated size does not exceed {@code budget}. If the size of all values
+     * plus {@code overhead} does not exceed {@code budget}, a single chunk is returned. Otherwise each chunk is moved to
+     * a helper method, which code is the chunk and a {@code return}, and the split method keeps {@code overhead} plus a
+     * {@link #helperInvocation() helper invocation} per chunk.
+     *
+     * @param values   Values to split.
+     * @param sizer    Size estimator.
+     * @param overhead Size of code that is always present in the method.
+     * @param budget   Method size budget.
+     * @param <T>      Value type.
+     * @return Chunks of {@code values}.
+     */
+    static <T> List<List<T>> split(List<T> values, ToIntFunction<T> sizer, int overhead, int budget) {
+        int total = overhead;
+
+        for (T value : values) {
+            total += sizer.applyAsInt(value);
+        }
+
+        if (total <= budget)
+            return Collections.singletonList(values);
+
+        List<List<T>> chunks = new ArrayList<>();
+        List<T> current = new ArrayList<>();
+        int size = 0;
+
+        for (T value : values) {
+            int valueSize = sizer.applyAsInt(value);
+
+            // return of helper
+            if (!current.isEmpty() && size + valueSize + 1 > budget) {
+                chunks.add(current);
+                current = new ArrayList<>();
+                size = 0;
+            }
+
+            current.add(value);
+            size += valueSize;
+        }
+
+        if (!current.isEmpty())
+            chunks.add(current);
+
+        return chunks;
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator;
+
+import com.github.jonathanxd.buildergenerator.metrics.BuilderMetrics;
+import com.github.jonathanxd.buildergenerator.metrics.Metrics;
+import com.github.jonathanxd.iutils.collection.Collections3;
+import com.github.jonathanxd.kores.Instruction;
+import com.github.jonathanxd.kores.Instructions;
+import com.github.jonathanxd.kores.Types;
+import com.github.jonathanxd.kores.base.FieldDeclaration;
+import com.github.jonathanxd.kores.base.InvokeType;
+import com.github.jonathanxd.kores.base.KoresModifier;
+import com.github.jonathanxd.kores.base.TypeSpec;
+import com.github.jonathanxd.kores.factory.Factories;
+import com.github.jonathanxd.kores.factory.InvocationFactory;
+import com.github.jonathanxd.kores.literal.Literals;
+import com.github.jonathanxd.kores.operator.Operators;
+import com.github.jonathanxd.kores.type.KoresType;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Instructions of {@link com.github.jonathanxd.buildergenerator.spec.BuilderFeature#METRICS metrics} instrumentation.
+ *
+ * Calls to {@link BuilderMetrics} are guarded by a {@code static final boolean} field initialized from {@link
+ * Metrics#isEnabled()}, the JIT folds the guard and removes the calls when metrics are disabled.
+ */
+final class MetricsInstructions {
+
+    static final String ENABLED_FIELD = "$metricsEnabled";
+    static final String METRICS_FIELD = "$metrics";
+
+    private final KoresType builderType;
+    private final String typeName;
+
+    /**
+     * @param builderType Generated builder type.
+     * @param typeName    Qualified name of base type, reported to {@link BuilderMetrics}.
+     */
+    MetricsInstructions(KoresType builderType, String typeName) {
+        this.builderType = builderType;
+        this.typeName = typeName;
+    }
+
+    /**
+     * Declares the static final fields read by instrumentation.
+     *
+     * @return Static final fields read by instrumentation.
+     */
+    List<FieldDeclaration> getFields() {
+        return Collections3.listOf(
+                FieldDeclaration.Builder.builder()
+                        .modifiers(KoresModifier.PRIVATE, KoresModifier.STATIC, KoresModifier.FINAL)
+                        .type(Types.BOOLEAN)
+                        .name(ENABLED_FIELD)
+                        .value(InvocationFactory.invokeStatic(Metrics.class, "isEnabled",
+                                Factories.typeSpec(Types.BOOLEAN), Collections.emptyList()))
+                        .build(),
+                FieldDeclaration.Builder.builder()
+                        .modifiers(KoresModifier.PRIVATE, KoresModifier.STATIC, KoresModifier.FINAL)
+                        .type(BuilderMetrics.class)
+                        .name(METRICS_FIELD)
+                        .value(InvocationFactory.invokeStatic(Metrics.class, "get",
+                                Factories.typeSpec(BuilderMetrics.class), Collections.emptyList()))
+                        .build()
+        );
+    }
+
+    /**
+     * Creates {@code if ($metricsEnabled) $metrics.onBuild(type)}.
+     */
+    Instruction onBuild() {
+        return this.guard(this.invoke("onBuild", Factories.voidTypeSpec(String.class),
+                Collections.singletonList(Literals.STRING(this.typeName))));
+    }
+
+    /**
+     * Creates {@code if ($metricsEnabled) $metrics.onDefaultValue(type, property)} for each property in {@code
+     * properties}.
+     */
+    Instruction onDefaultValue(List<String> properties) {
+        Instruction[] calls = new Instruction[properties.size()];
+
+        for (int i = 0; i < calls.length; i++) {
+            calls[i] = this.invoke("onDefaultValue", Factories.voidTypeSpec(String.class, String.class),
+                    Collections3.listOf(Literals.STRING(this.typeName), Literals.STRING(properties.get(i))));
+        }
+
+        return this.guard(calls);
+    }
+
+    /**
+     * Wraps {@code verification} of {@code property} in a try-catch that reports the validation failure and rethrows
+     * the exception. Exception handlers have no cost if no exception is thrown.
+     */
+    Instruction onValidationFailure(String property, Instructions verification) {
+        String exception = "$exception";
+
+        return Factories.tryStatement(verification,
+                Collections.singletonList(Factories.catchStatement(RuntimeException.class,
+                        Factories.variable(RuntimeException.class, exception),
+                        Instructions.fromVarArgs(
+                                this.guard(this.invoke("onValidationFailure",
+                                        Factories.voidTypeSpec(String.class, String.class, RuntimeException.class),
+                                        Collections3.listOf(Literals.STRING(this.typeName), Literals.STRING(property),
+                                                Factories.accessVariable(RuntimeException.class, exception)))),
+                                Factories.throwException(Factories.accessVariable(RuntimeException.class, exception))
+                        ))),
+                Instructions.empty());
+    }
+
+    private Instruction guard(Instruction... body) {
+        return Factories.ifStatement(
+                Factories.ifExprs(Factories.check(
+                        Factories.accessStaticField(this.builderType, Types.BOOLEAN, ENABLED_FIELD),
+                        Operators.EQUAL_TO, Literals.TRUE)),
+                Instructions.fromVarArgs(body));
+    }
+
+    private Instruction invoke(String name, TypeSpec spec, List<Instruction> arguments) {
+        return InvocationFactory.invoke(InvokeType.INVOKE_INTERFACE, BuilderMetrics.class,
+                Factories.accessStaticField(this.builderType, BuilderMetrics.class, METRICS_FIELD),
+                name, spec, arguments);
+    }
+}
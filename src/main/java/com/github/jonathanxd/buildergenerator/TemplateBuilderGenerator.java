@@ -0,0 +1,458 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator;
+
+import com.github.jonathanxd.buildergenerator.spec.BuilderFeature;
+import com.github.jonathanxd.buildergenerator.spec.BuilderSpec;
+import com.github.jonathanxd.buildergenerator.spec.MethodRefSpec;
+import com.github.jonathanxd.buildergenerator.spec.PropertySpec;
+import com.github.jonathanxd.buildergenerator.util.InlineMethodRegistry;
+import com.github.jonathanxd.buildergenerator.util.SourceTypeUtil;
+import com.github.jonathanxd.kores.Types;
+import com.github.jonathanxd.kores.base.TypeSpec;
+import com.github.jonathanxd.kores.common.MethodTypeSpec;
+import com.github.jonathanxd.kores.type.Generic;
+import com.github.jonathanxd.kores.type.ImplicitKoresType;
+import com.github.jonathanxd.kores.type.KoresType;
+import com.github.jonathanxd.kores.type.PlainKoresType;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import kotlin.text.StringsKt;
+
+/**
+ * Source builder generator that renders builders from precompiled templates, without constructing the {@code Kores}
+ * AST. Generated builders have the same members and behavior as builders generated by {@link
+ * KoresBuilderGenerator.Source}.
+ *
+ * Builders that require {@code Kores} instructions ({@link com.github.jonathanxd.buildergenerator.annotation.Inline
+ * inline methods}, {@link com.github.jonathanxd.buildergenerator.annotation.DefaultImpl} methods, {@link
+ * BuilderFeature#COMBINE}, {@link BuilderFeature#METRICS} or {@link BuilderFeature#PRESERVE_IDENTITY}) are generated
+ * by {@link KoresBuilderGenerator.Source}.
+ */
+public final class TemplateBuilderGenerator implements BuilderGenerator<String> {
+
+    private static final Template PACKAGE = Template.compile("package {0};\n\n");
+    private static final Template CLASS = Template.compile("public final class {0} implements {1} {\n");
+    private static final Template FIELD = Template.compile("\n    private {0} {1} = {2};\n");
+    private static final Template FIELD_NO_INITIALIZER = Template.compile("\n    private {0} {1};\n");
+    private static final Template CONSTRUCTORS = Template.compile(
+            "\n    public {0}() {\n{3}    }\n"
+                    + "\n    public {0}({1} defaults) {\n{3}        if (defaults != null) {\n{2}        }\n    }\n");
+    private static final Template INIT_DEFAULT = Template.compile("        this.{0} = {1};\n");
+    private static final Template COPY = Template.compile("{0}this.{1} = defaults.get{2}(){3};\n");
+    private static final Template WITH = Template.compile(
+            "\n    public {0} with{1}({2} {3}) {\n{4}        this.{3} = {3};\n        return this;\n    }\n");
+    private static final Template GETTER = Template.compile("\n    public {0} get{1}() {\n        return {2};\n    }\n");
+    private static final Template BUILD = Template.compile(
+            "\n    public {0} build() {\n{1}        return {2}({3});\n    }\n");
+    private static final Template BUILD_TRUSTED = Template.compile(
+            "\n    public {0} buildTrusted() {\n        return {1}({2});\n    }\n");
+    private static final Template COPY_METHOD = Template.compile(
+            "\n    public {0} copy() {\n        try {\n            return ({0}) super.clone();\n"
+                    + "        } catch (java.lang.CloneNotSupportedException e) {\n"
+                    + "            throw new java.lang.InternalError(e);\n        }\n    }\n");
+    private static final Template HELPER = Template.compile("\n    private void {0}({1}) {\n{2}    }\n");
+    private static final Template INVOKE_HELPER = Template.compile("{0}this.{1}({2});\n");
+    private static final Template REQUIRE_NON_NULL = Template.compile(
+            "        java.util.Objects.requireNonNull({0}, \"The property '{1}' cannot be null.\");\n");
+    private static final Template INVOKE_VALIDATOR = Template.compile("        {0}.{1}({2}, \"{3}\", {4}.class);\n");
+    private static final Template INVOKE_DEFAULT_VALUE = Template.compile("{0}.{1}(\"{2}\", {3}.class)");
+
+    private final InlineMethodRegistry inlineMethodRegistry;
+    private final int methodSizeBudget;
+    private final KoresBuilderGenerator.Source fallback;
+
+    public TemplateBuilderGenerator() {
+        this(new InlineMethodRegistry());
+    }
+
+    /**
+     * @param inlineMethodRegistry Registry of resolved inline methods.
+     */
+    public TemplateBuilderGenerator(InlineMethodRegistry inlineMethodRegistry) {
+        this(inlineMethodRegistry, KoresBuilderGenerator.DEFAULT_METHOD_SIZE_BUDGET);
+    }
+
+    /**
+     * @param inlineMethodRegistry Registry of resolved inline methods.
+     * @param methodSizeBudget     Estimated bytecode size limit of {@code build()} and defaults constructor.
+     */
+    public TemplateBuilderGenerator(InlineMethodRegistry inlineMethodRegistry, int methodSizeBudget) {
+        this.inlineMethodRegistry = Objects.requireNonNull(inlineMethodRegistry);
+        this.methodSizeBudget = methodSizeBudget;
+        this.fallback = new KoresBuilderGenerator.Source(inlineMethodRegistry, methodSizeBudget);
+    }
+
+    @Override
+    public String generate(BuilderSpec builderSpec, Consumer<List<MethodTypeSpec>> verifier) {
+        if (!this.isSupported(builderSpec))
+            return this.fallback.generate(builderSpec, verifier).getSecond();
+
+        String builderName = builderSpec.getBuilderQualifiedName();
+        int lastDot = builderName.lastIndexOf('.');
+        String packageName = lastDot == -1 ? "" : builderName.substring(0, lastDot);
+        String simpleName = builderName.substring(lastDot + 1);
+        KoresType builderType = new PlainKoresType(builderName, false);
+        String baseClass = SourceTypeUtil.toSourceString(builderSpec.getBaseClass());
+        List<PropertySpec> properties = builderSpec.getProperties();
+        List<MethodTypeSpec> methods = new ArrayList<>();
+
+        StringBuilder out = new StringBuilder(1024 + properties.size() * 512);
+
+        if (!packageName.isEmpty())
+            PACKAGE.render(out, packageName);
+
+        boolean builderArgument = builderSpec.hasFeature(BuilderFeature.BUILDER_ARGUMENT);
+
+        CLASS.render(out, simpleName, SourceTypeUtil.toErasureSourceString(builderSpec.getBuilderBaseClass())
+                + "<" + baseClass + ", " + builderName + ">" + (builderArgument ? ", " + baseClass : "")
+                + (builderSpec.hasFeature(BuilderFeature.COPY) ? ", java.lang.Cloneable" : ""));
+
+        StringBuilder helpers = new StringBuilder();
+        StringBuilder copies = new StringBuilder();
+        StringBuilder initializers = new StringBuilder();
+
+        // Code of defaults constructor which is not the defaults copy
+        int overhead = MethodSizeEstimator.constructor(false);
+        int initializersSize = 0;
+        int copySize = 0;
+
+        for (PropertySpec property : properties) {
+            initializersSize += MethodSizeEstimator.fieldInitializer(property, false);
+            copySize += MethodSizeEstimator.defaultsCopy(property);
+        }
+
+        // Field initializers are emitted in both constructors, wide builders initialize fields in helper methods
+        boolean splitInitializers = overhead + initializersSize + copySize > this.methodSizeBudget;
+
+        if (splitInitializers) {
+            List<PropertySpec> defaultValueProperties = new ArrayList<>();
+
+            for (PropertySpec property : properties) {
+                FIELD_NO_INITIALIZER.render(out, SourceTypeUtil.toSourceString(property.getType()), property.getName());
+
+                if (property.getDefaultValueSpec().isPresent())
+                    defaultValueProperties.add(property);
+            }
+
+            List<List<PropertySpec>> initChunks = MethodSizeEstimator.split(defaultValueProperties,
+                    property -> MethodSizeEstimator.fieldInitializer(property, false), 0, this.methodSizeBudget);
+
+            for (int i = 0; i < initChunks.size(); i++) {
+                if (initChunks.get(i).isEmpty())
+                    continue;
+
+                StringBuilder helperBody = new StringBuilder();
+
+                for (PropertySpec property : initChunks.get(i)) {
+                    INIT_DEFAULT.render(helperBody, property.getName(), this.getDefaultValue(property));
+                }
+
+                HELPER.render(helpers, "initDefaults$" + i, "", helperBody.toString());
+                INVOKE_HELPER.render(initializers, "        ", "initDefaults$" + i, "");
+                overhead += MethodSizeEstimator.helperInvocation();
+            }
+        } else {
+            for (PropertySpec property : properties) {
+                FIELD.render(out, SourceTypeUtil.toSourceString(property.getType()), property.getName(),
+                        this.getDefaultValue(property));
+            }
+
+            overhead += initializersSize;
+        }
+
+        List<List<PropertySpec>> copyChunks = MethodSizeEstimator.split(properties,
+                MethodSizeEstimator::defaultsCopy, overhead, this.methodSizeBudget);
+
+        if (copyChunks.size() == 1) {
+            TemplateBuilderGenerator.renderDefaultsCopy(copies, "            ", copyChunks.get(0));
+        } else {
+            for (int i = 0; i < copyChunks.size(); i++) {
+                StringBuilder helperBody = new StringBuilder();
+
+                TemplateBuilderGenerator.renderDefaultsCopy(helperBody, "        ", copyChunks.get(i));
+                HELPER.render(helpers, "copyDefaults$" + i, baseClass + " defaults", helperBody.toString());
+                INVOKE_HELPER.render(copies, "            ", "copyDefaults$" + i, "defaults");
+            }
+        }
+
+        CONSTRUCTORS.render(out, simpleName, baseClass, copies.toString(), initializers.toString());
+
+        for (PropertySpec property : properties) {
+            String name = property.getName();
+            Type setterType = TemplateBuilderGenerator.getSetterType(property);
+            StringBuilder verification = new StringBuilder();
+
+            TemplateBuilderGenerator.renderVerification(verification, property, name);
+
+            WITH.render(out, builderName, StringsKt.capitalize(name), SourceTypeUtil.toSourceString(setterType),
+                    name, verification.toString());
+
+            methods.add(new MethodTypeSpec(builderType, "with" + StringsKt.capitalize(name),
+                    new TypeSpec(builderType, Collections.singletonList(setterType))));
+        }
+
+        for (PropertySpec property : properties) {
+            String name = property.getName();
+            Type getterType = property.isOptional()
+                              ? Generic.type(Optional.class).of(TemplateBuilderGenerator.getSetterType(property))
+                              : TemplateBuilderGenerator.getSetterType(property);
+
+            GETTER.render(out, SourceTypeUtil.toSourceString(getterType), StringsKt.capitalize(name),
+                    property.isOptional() ? "java.util.Optional.ofNullable(this." + name + ")" : "this." + name);
+
+            methods.add(new MethodTypeSpec(builderType, "get" + StringsKt.capitalize(name),
+                    new TypeSpec(getterType, Collections.emptyList())));
+        }
+
+        StringBuilder verification = new StringBuilder();
+        StringBuilder arguments = new StringBuilder();
+
+        List<List<PropertySpec>> verificationChunks = MethodSizeEstimator.split(properties,
+                property -> MethodSizeEstimator.verification(property, false),
+                MethodSizeEstimator.factoryInvocation(builderArgument ? 1 : properties.size()), this.methodSizeBudget);
+
+        if (verificationChunks.size() == 1) {
+            TemplateBuilderGenerator.renderFieldsVerification(verification, verificationChunks.get(0));
+        } else {
+            for (int i = 0; i < verificationChunks.size(); i++) {
+                StringBuilder helperBody = new StringBuilder();
+
+                TemplateBuilderGenerator.renderFieldsVerification(helperBody, verificationChunks.get(i));
+                HELPER.render(helpers, "verify$" + i, "", helperBody.toString());
+                INVOKE_HELPER.render(verification, "        ", "verify$" + i, "");
+            }
+        }
+
+        if (builderArgument) {
+            arguments.append("this");
+        } else {
+            for (PropertySpec property : properties) {
+                if (arguments.length() > 0)
+                    arguments.append(", ");
+
+                arguments.append("this.").append(property.getName());
+            }
+        }
+
+        String factoryClass = SourceTypeUtil.toSourceString(builderSpec.getFactoryClass());
+
+        String factory = builderSpec.getFactoryMethodName().map(s -> factoryClass + "." + s).orElse("new " + factoryClass);
+
+        BUILD.render(out, baseClass, verification.toString(), factory, arguments.toString());
+
+        methods.add(new MethodTypeSpec(builderType, "build",
+                new TypeSpec(builderSpec.getBaseClass(), Collections.emptyList())));
+
+        if (builderSpec.hasFeature(BuilderFeature.TRUSTED_BUILD)) {
+            BUILD_TRUSTED.render(out, baseClass, factory, arguments.toString());
+
+            methods.add(new MethodTypeSpec(builderType, "buildTrusted",
+                    new TypeSpec(builderSpec.getBaseClass(), Collections.emptyList())));
+        }
+
+        if (builderSpec.hasFeature(BuilderFeature.COPY)) {
+            COPY_METHOD.render(out, builderName);
+
+            methods.add(new MethodTypeSpec(builderType, "copy", new TypeSpec(builderType, Collections.emptyList())));
+        }
+
+        out.append(helpers);
+        out.append("}\n");
+
+        verifier.accept(methods);
+
+        return out.toString();
+    }
+
+    /**
+     * Returns true if {@code builderSpec} can be rendered from templates.
+     *
+     * @param builderSpec Builder specification.
+     * @return True if {@code builderSpec} can be rendered from templates.
+     */
+    private boolean isSupported(BuilderSpec builderSpec) {
+        if (builderSpec.hasFeature(BuilderFeature.COMBINE) || builderSpec.hasFeature(BuilderFeature.METRICS)
+                || builderSpec.hasFeature(BuilderFeature.PRESERVE_IDENTITY) || !builderSpec.getMethodSpecs().isEmpty())
+            return false;
+
+        for (PropertySpec property : builderSpec.getProperties()) {
+            if (this.inlineMethodRegistry.resolveValidator(property).isPresent()
+                    || this.inlineMethodRegistry.resolveDefaultMethod(property).isPresent())
+                return false;
+        }
+
+        return true;
+    }
+
+    private String getDefaultValue(PropertySpec property) {
+        Optional<MethodRefSpec> defaultValueSpec = property.getDefaultValueSpec();
+        KoresType type = property.getType();
+
+        if (defaultValueSpec.isPresent()) {
+            MethodTypeSpec spec = defaultValueSpec.get().getMethodTypeSpec();
+
+            return INVOKE_DEFAULT_VALUE.render(new StringBuilder(),
+                    SourceTypeUtil.toErasureSourceString(spec.getLocalization()), spec.getMethodName(),
+                    property.getName(), SourceTypeUtil.toErasureSourceString(type)).toString();
+        }
+
+        if (!type.isPrimitive())
+            return "null";
+
+        if (type.is(Types.BOOLEAN))
+            return "false";
+        if (type.is(Types.BYTE))
+            return "(byte) 0";
+        if (type.is(Types.SHORT))
+            return "(short) 0";
+        if (type.is(Types.CHAR))
+            return "(char) 0";
+        if (type.is(Types.INT))
+            return "0";
+        if (type.is(Types.FLOAT))
+            return "0.0F";
+        if (type.is(Types.DOUBLE))
+            return "0.0D";
+        if (type.is(Types.LONG))
+            return "0L";
+
+        throw new IllegalArgumentException("Illegal property type: '" + type + "'!");
+    }
+
+    private static void renderDefaultsCopy(StringBuilder out, String indent, List<PropertySpec> properties) {
+        for (PropertySpec property : properties) {
+            COPY.render(out, indent, property.getName(), StringsKt.capitalize(property.getDefaultsPropertyName()),
+                    property.isOptional() ? ".orElse(null)" : "");
+        }
+    }
+
+    private static void renderFieldsVerification(StringBuilder out, List<PropertySpec> properties) {
+        for (PropertySpec property : properties) {
+            TemplateBuilderGenerator.renderVerification(out, property, "this." + property.getName());
+        }
+    }
+
+    private static void renderVerification(StringBuilder out, PropertySpec property, String value) {
+        if (!property.isNullable() && !property.getType().isPrimitive()) {
+            REQUIRE_NON_NULL.render(out, value, property.getName());
+        } else if (property.isOptional()) {
+            value = "java.util.Optional.ofNullable(" + value + ")";
+        }
+
+        Optional<MethodRefSpec> validatorSpec = property.getValidatorSpec();
+
+        if (validatorSpec.isPresent()) {
+            MethodTypeSpec spec = validatorSpec.get().getMethodTypeSpec();
+
+            INVOKE_VALIDATOR.render(out, SourceTypeUtil.toErasureSourceString(spec.getLocalization()),
+                    spec.getMethodName(), value, property.getName(),
+                    SourceTypeUtil.toErasureSourceString(property.getType()));
+        }
+    }
+
+    private static Type getSetterType(PropertySpec property) {
+        return !ImplicitKoresType.is(property.getType(), property.getBuilderSetterType())
+               ? property.getBuilderSetterType()
+               : property.getType();
+    }
+
+    /**
+     * Text template with positional {@code {n}} placeholders, parsed once.
+     */
+    static final class Template {
+        private final String[] texts;
+        private final int[] arguments;
+
+        private Template(String[] texts, int[] arguments) {
+            this.texts = texts;
+            this.arguments = arguments;
+        }
+
+        static Template compile(String template) {
+            List<String> texts = new ArrayList<>();
+            List<Integer> arguments = new ArrayList<>();
+            int start = 0;
+            int open;
+
+            while ((open = template.indexOf('{', start)) != -1) {
+                int close = template.indexOf('}', open);
+
+                if (close == -1 || close == open + 1 || !TemplateBuilderGenerator.isDigits(template, open + 1, close)) {
+                    // Not a placeholder, such as a code block.
+                    int end = open + 1;
+                    texts.add(template.substring(start, end));
+                    arguments.add(-1);
+                    start = end;
+                    continue;
+                }
+
+                texts.add(template.substring(start, open));
+                arguments.add(Integer.parseInt(template.substring(open + 1, close)));
+                start = close + 1;
+            }
+
+            texts.add(template.substring(start));
+
+            int[] args = new int[arguments.size()];
+
+            for (int i = 0; i < args.length; i++) {
+                args[i] = arguments.get(i);
+            }
+
+            return new Template(texts.toArray(new String[0]), args);
+        }
+
+        StringBuilder render(StringBuilder out, String... args) {
+            for (int i = 0; i < this.arguments.length; i++) {
+                out.append(this.texts[i]);
+
+                if (this.arguments[i] != -1)
+                    out.append(args[this.arguments[i]]);
+            }
+
+            return out.append(this.texts[this.texts.length - 1]);
+        }
+    }
+
+    private static boolean isDigits(String s, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isDigit(s.charAt(i)))
+                return false;
+        }
+
+        return true;
+    }
+}
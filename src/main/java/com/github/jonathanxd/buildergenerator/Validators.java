@@ -67,7 +67,7 @@ public final class Validators {
      * @param input        Input value.
      * @param propertyInfo Property info.
      */
-    @Inline
+    @Inline(pure = true)
     public static Instruction positiveInt(VariableBase propertyInfo, Instruction input) {
 
         Concat message = ConcatHelper.builder("The input integer '")
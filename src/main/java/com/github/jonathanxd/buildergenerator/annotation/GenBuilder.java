@@ -70,4 +70,89 @@ public @interface GenBuilder {
      */
     String qualifiedName() default "";
 
+    /**
+     * Whether the builder should provide a {@code combine(Builder other)} method and a {@code
+     * collector()} factory.
+     *
+     * {@code combine} merges the state of {@code other} into the builder. Only properties which
+     * were set in {@code other} (by {@code with} methods, the defaults constructor or a previous
+     * {@code combine}) are merged: {@link java.util.Set}, {@link java.util.List} and {@link
+     * java.util.Collection} properties set in both builders are concatenated, other properties are
+     * replaced by the value of {@code other}. Properties not set in {@code other} are kept, so a new
+     * builder is the identity of {@code combine}. The {@code collector()} factory returns a {@link java.util.stream.Collector} which
+     * accumulates builders through {@code combine} and builds the result at the end, so builders
+     * can be aggregated by parallel streams without shared mutable state.
+     *
+     * @return Whether the builder should provide {@code combine} and {@code collector}.
+     * @since 1.1.0
+     */
+    boolean combinable() default false;
+
+    /**
+     * Whether the builder itself should be passed as the only argument of the factory, instead of one argument per
+     * property.
+     *
+     * The factory must have a single parameter of the base class, which MUST be an interface, the generated builder
+     * implements the base class and properties are read from the base class getters (instead of factory parameters).
+     * This allows factories of base classes with more properties than the JVM parameter limit (255 slots), and avoids
+     * copying all property values through the stack in {@code build()}.
+     *
+     * The builder is mutable, the factory should copy the values it needs.
+     *
+     * @return Whether the builder should be passed as the only factory argument.
+     * @since 1.1.0
+     */
+    boolean builderArgument() default false;
+
+    /**
+     * Whether the generated builder should report builds, validation failures and default value provider invocations
+     * to {@link com.github.jonathanxd.buildergenerator.metrics.BuilderMetrics} service.
+     *
+     * Reports are guarded by {@code static final} fields initialized once, when no service is registered the JIT
+     * removes the reports. Builders generated with metrics depend on {@code BuilderGenerator} at runtime.
+     *
+     * @return Whether the generated builder should report to {@link com.github.jonathanxd.buildergenerator.metrics.BuilderMetrics}.
+     * @since 1.1.0
+     */
+    boolean metrics() default false;
+
+    /**
+     * Whether the generated builder should provide a {@code buildTrusted()} method, which builds the instance without
+     * null-checks and {@link Validator validators} of {@code build()}.
+     *
+     * {@code buildTrusted()} is intended for values that were already validated, such as values copied from another
+     * instance through the defaults constructor. Setter methods ({@code with} methods) still verify values.
+     *
+     * @return Whether the generated builder should provide a {@code buildTrusted()} method.
+     * @since 1.1.0
+     */
+    boolean trustedBuild() default false;
+
+    /**
+     * Whether the generated builder should provide a {@code copy()} method, which returns a new builder with the same
+     * state. The state is duplicated with {@link Object#clone()}, a single field copy, instead of invoking all getters
+     * as the defaults constructor does. This allows keeping pre-populated prototype builders and forking them.
+     *
+     * The copy is shallow, mutable property values are shared between copies.
+     *
+     * @return Whether the generated builder should provide a {@code copy()} method.
+     * @since 1.1.0
+     */
+    boolean copyable() default false;
+
+    /**
+     * Whether the generated builder should keep the instance passed to the defaults constructor and return it from
+     * {@code build()} if no property was changed. Setter methods ({@code with} methods) mark the builder as changed only
+     * if the new value is not equal to the current value, so no-op updates do not allocate a new instance.
+     *
+     * The instance returned by {@code build()} may be the defaults instance itself (which may not be an instance created
+     * by the factory), base class instances should be immutable. The defaults instance is returned as is, its property
+     * values are not null-checked nor {@link Validator validated}. Floating point values are compared with {@link
+     * Double#compare(double, double)} semantics, so {@code -0.0} is a change of {@code 0.0}.
+     *
+     * @return Whether the generated builder should return the defaults instance if no property was changed.
+     * @since 1.1.0
+     */
+    boolean preserveIdentity() default false;
+
 }
@@ -0,0 +1,81 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates a mapper between two base classes.
+ *
+ * The mapper copies every property of {@link #from()} to the {@code Builder} of {@link #to()}
+ * using straight-line getter to {@code with} method calls. Properties are matched by name and
+ * type, properties of {@link #to()} without a corresponding getter in {@link #from()} are not
+ * mapped, and properties with the same name but incompatible types fail the compilation.
+ * Required properties of {@link #to()} (not primitive, not nullable and without default value)
+ * without a corresponding getter in {@link #from()} also fail the compilation.
+ *
+ * The generated mapper does not require runtime dependency on {@code BuilderGenerator}.
+ *
+ * @since 1.1.0
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface GenMapper {
+
+    /**
+     * Source base class, properties are read from getter methods of this class.
+     *
+     * @return Source base class.
+     */
+    Class<?> from();
+
+    /**
+     * Target base class.
+     *
+     * The target class MUST have an inner-class interface 'Builder', properties are written
+     * through {@code with} methods of this inner-class.
+     *
+     * @return Target base class.
+     */
+    Class<?> to();
+
+    /**
+     * Qualified name of the mapper.
+     *
+     * If this property is not defined, {@link com.github.jonathanxd.buildergenerator.apt.AnnotationProcessor}
+     * will create the mapper in the sub-package 'mapper' of the annotated type package, named
+     * {@code FromToToMapper}.
+     *
+     * @return Qualified name of the mapper.
+     */
+    String qualifiedName() default "";
+
+}
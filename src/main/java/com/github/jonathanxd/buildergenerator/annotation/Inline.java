@@ -59,4 +59,14 @@ import java.lang.annotation.Target;
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.METHOD)
 public @interface Inline {
+
+    /**
+     * Whether the method is pure, a pure method returns equal instructions for equal arguments and has no side effects.
+     *
+     * Instructions produced by pure methods are reused by the generator instead of invoking the method again for each
+     * property with same name and type.
+     *
+     * @return Whether the method is pure.
+     */
+    boolean pure() default false;
 }
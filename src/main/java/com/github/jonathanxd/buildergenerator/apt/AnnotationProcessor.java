@@ -27,24 +27,36 @@
  */
 package com.github.jonathanxd.buildergenerator.apt;
 
+import com.github.jonathanxd.buildergenerator.BuilderGenerator;
 import com.github.jonathanxd.buildergenerator.KoresBuilderGenerator;
+import com.github.jonathanxd.buildergenerator.KoresMapperGenerator;
+import com.github.jonathanxd.buildergenerator.KoresRegistryGenerator;
+import com.github.jonathanxd.buildergenerator.TemplateBuilderGenerator;
 import com.github.jonathanxd.buildergenerator.annotation.DefaultImpl;
 import com.github.jonathanxd.buildergenerator.annotation.DefaultUtil;
 import com.github.jonathanxd.buildergenerator.annotation.GenBuilder;
+import com.github.jonathanxd.buildergenerator.annotation.GenMapper;
 import com.github.jonathanxd.buildergenerator.annotation.Inline;
 import com.github.jonathanxd.buildergenerator.annotation.PropertyInfo;
+import com.github.jonathanxd.buildergenerator.registry.BuilderRegistry;
+import com.github.jonathanxd.buildergenerator.spec.BuilderFeature;
 import com.github.jonathanxd.buildergenerator.spec.BuilderSpec;
+import com.github.jonathanxd.buildergenerator.spec.MapperSpec;
 import com.github.jonathanxd.buildergenerator.spec.MethodRefSpec;
 import com.github.jonathanxd.buildergenerator.spec.MethodSpec;
 import com.github.jonathanxd.buildergenerator.spec.PropertySpec;
+import com.github.jonathanxd.buildergenerator.spec.RegistrySpec;
 import com.github.jonathanxd.buildergenerator.unification.UnifiedDefaultImpl;
 import com.github.jonathanxd.buildergenerator.unification.UnifiedGenBuilder;
+import com.github.jonathanxd.buildergenerator.unification.UnifiedGenMapper;
 import com.github.jonathanxd.buildergenerator.unification.UnifiedMethodRef;
 import com.github.jonathanxd.buildergenerator.unification.UnifiedPropertyInfo;
-import com.github.jonathanxd.buildergenerator.unification.UnifiedValidator;
 import com.github.jonathanxd.buildergenerator.util.AnnotatedConstructUtil;
+import com.github.jonathanxd.buildergenerator.util.ClassFileUtil;
 import com.github.jonathanxd.buildergenerator.util.ExecutableElementsUtil;
 import com.github.jonathanxd.buildergenerator.util.FilerUtil;
+import com.github.jonathanxd.buildergenerator.util.InlineMethodRegistry;
+import com.github.jonathanxd.buildergenerator.util.SpecFingerprint;
 import com.github.jonathanxd.buildergenerator.util.TypeElementUtil;
 import com.github.jonathanxd.iutils.collection.Collections3;
 import com.github.jonathanxd.iutils.object.Lazy;
@@ -53,20 +65,29 @@ import com.github.jonathanxd.kores.base.KoresModifier;
 import com.github.jonathanxd.kores.base.KoresParameter;
 import com.github.jonathanxd.kores.base.MethodDeclaration;
 import com.github.jonathanxd.kores.base.TypeDeclaration;
+import com.github.jonathanxd.kores.bytecode.BytecodeClass;
+import com.github.jonathanxd.kores.bytecode.VisitLineType;
 import com.github.jonathanxd.kores.extra.AnnotationsKt;
 import com.github.jonathanxd.kores.factory.Factories;
 import com.github.jonathanxd.kores.type.GenericType;
 import com.github.jonathanxd.kores.type.ImplicitKoresType;
 import com.github.jonathanxd.kores.type.KoresType;
 import com.github.jonathanxd.kores.type.ModelKoresTypesKt;
+import com.github.jonathanxd.kores.type.PlainKoresType;
 import com.github.jonathanxd.kores.util.Identity;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintStream;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Consumer;
@@ -74,6 +95,7 @@ import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
 import javax.annotation.processing.FilerException;
 import javax.annotation.processing.Messager;
 import javax.annotation.processing.ProcessingEnvironment;
@@ -89,18 +111,22 @@ import javax.lang.model.element.VariableElement;
 import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
 import javax.tools.Diagnostic;
 import javax.tools.FileObject;
 import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
 
 import kotlin.text.StringsKt;
 
 public class AnnotationProcessor extends AbstractProcessor {
 
     private static final Type BUILDER_GEN_ANNOTATION_CLASS = GenBuilder.class;
+    private static final Type MAPPER_GEN_ANNOTATION_CLASS = GenMapper.class;
     private static final Type PROPERTY_INFO_ANNOTATION_CLASS = PropertyInfo.class;
     private static final Type INLINE_ANNOTATION_CLASS = Inline.class;
     private static final Type DEFAULT_IMPL_ANNOTATION_CLASS = DefaultImpl.class;
+    private static final String FINGERPRINT_EXTENSION = ".fingerprint";
     private static final Pattern FQ_REGEX = Pattern.compile(
             "([\\p{L}_$][\\p{L}\\p{N}_$]*\\.)*[\\p{L}_$][\\p{L}\\p{N}_$]*");
 
@@ -113,6 +139,26 @@ public class AnnotationProcessor extends AbstractProcessor {
     private ProcessingEnvironment processingEnvironment;
     private Messager messager;
     private Lazy<Elements> elements = Lazy.lazy(() -> this.processingEnvironment.getElementUtils());
+    private Options options;
+    // Round state, cleared at the end of each round so elements of the round are not retained by the processor
+    private final MethodRefCache methodRefCache = new MethodRefCache();
+    // Builder interface -> classified methods, a Builder interface may be shared by many GenBuilder targets
+    private final Map<TypeElement, BuilderMethods> builderMethodsCache = new HashMap<>();
+    // Qualified names of builders generated in the round
+    private final Set<String> processedTypes = new HashSet<>();
+    private final InlineMethodRegistry inlineMethodRegistry = new InlineMethodRegistry();
+    private BuilderGenerator<String> sourceGenerator;
+    private KoresBuilderGenerator.Bytecode bytecodeGenerator;
+    private final List<RegistrySpec.Entry> registryEntries = new ArrayList<>();
+    private boolean registryGenerated = false;
+    // Number of registry entries present when the registry was generated
+    private int registeredEntries = 0;
+    // Null if inlining report is disabled
+    private InliningReport inliningReport;
+    // Qualified names of top-level types compiled by this compilation
+    private final Set<String> sourceTypes = new HashSet<>();
+    // Binary names of Builder interfaces which metadata was already exported
+    private final Set<String> exportedMetadata = new HashSet<>();
     private Lazy<AnnotatedConstructUtil> annotatedConstructUtil = Lazy.lazy(() -> new AnnotatedConstructUtil(this.elements.get()));
 
     @Override
@@ -121,108 +167,56 @@ public class AnnotationProcessor extends AbstractProcessor {
         this.messager = new BuilderGeneratorMessager(this.processingEnvironment.getMessager());
         //this.elements = processingEnv.getElementUtils();
         //this.annotatedConstructUtil = new AnnotatedConstructUtil(this.elements);
-        Options.load(this.processingEnvironment.getOptions());
-    }
-
-    @Override
-    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
-
-        for (Element element : roundEnv.getElementsAnnotatedWith(DefaultImpl.class)) {
-            try {
-                if (element.getKind() == ElementKind.METHOD) {
-                    ExecutableElement executableElement = (ExecutableElement) element;
+        this.options = Options.load(this.processingEnvironment.getOptions(), this.getMessager());
 
-                    UnifiedDefaultImpl annotation = annotatedConstructUtil.get()
-                            .getUnifiedAnnotation(executableElement, UnifiedDefaultImpl.class)
-                            /*AnnotatedConstructUtil
-                            .getUnifiedAnnotation(executableElement, DEFAULT_IMPL_ANNOTATION_CLASS,
-                                    UnifiedDefaultImpl.class, this.elements.get())*/
-                            .orElseThrow(() -> new IllegalStateException(
-                                    "Cannot find @DefaultImpl annotation"));
-
-                    if (!MethodRefValidator.validate(executableElement, annotation.value(),
-                            this.getMessager(), this.processingEnvironment.getElementUtils(),
-                            MethodRefValidator.VType.DEFAULT_IMPL)) {
-                        return false;
-                    }
-
-
-                }
-            } catch (Throwable t) {
-                this.getMessager().printMessage(Diagnostic.Kind.ERROR,
-                        "An error occurred '" + t.toString() + "'", element);
-                t.printStackTrace(new MessagerPrint(this.getMessager()));
-                return false;
-            }
-        }
+        int methodSizeBudget = this.options.getMethodSizeBudget();
 
-        for (Element element : roundEnv.getElementsAnnotatedWith(PropertyInfo.class)) {
-            try {
-                if (element.getKind() == ElementKind.METHOD) {
-                    ExecutableElement executableElement = (ExecutableElement) element;
+        if (this.options.isInliningReport())
+            this.inliningReport = new InliningReport(this.options.getMaxInlineSize(), this.options.getFreqInlineSize());
 
-                    Optional<UnifiedDefaultImpl> defaultImplAnnotation =
-                            this.annotatedConstructUtil.get().getUnifiedAnnotation(executableElement, UnifiedDefaultImpl.class);
+        this.bytecodeGenerator = new KoresBuilderGenerator.Bytecode(true, VisitLineType.GEN_LINE_INSTRUCTION,
+                this.inlineMethodRegistry, methodSizeBudget);
 
-                    if (defaultImplAnnotation.isPresent()) {
-                        this.getMessager().printMessage(Diagnostic.Kind.ERROR,
-                                "Methods annotated with @DefaultImpl are not eligible to be a property, remove @PropertyInfo or @DefaultImpl annotation.",
-                                executableElement);
-                        return false;
-                    }
+        if (this.options.getBackend().equals("template")) {
+            this.sourceGenerator = new TemplateBuilderGenerator(this.inlineMethodRegistry, methodSizeBudget);
+        } else {
+            if (!this.options.getBackend().equals("kores"))
+                this.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                        "Unknown backend '" + this.options.getBackend() + "', using 'kores' backend.");
 
-                    List<? extends VariableElement> parameters = executableElement.getParameters();
+            KoresBuilderGenerator.Source source = new KoresBuilderGenerator.Source(this.inlineMethodRegistry,
+                    methodSizeBudget);
 
-                    if (parameters.size() != 1) {
-                        this.getMessager().printMessage(Diagnostic.Kind.ERROR,
-                                "Builder property method MUST have only one argument.",
-                                executableElement);
-                        return false;
-                    }
-
-                    UnifiedPropertyInfo unifiedPropertyInfo =
-                            this.annotatedConstructUtil.get()
-                                    .getUnifiedAnnotation(executableElement, UnifiedPropertyInfo.class)
-                                    .orElseThrow(() -> new IllegalStateException("Cannot find @PropertyInfo annotation"));
-
-                    UnifiedMethodRef defaultValue = unifiedPropertyInfo.defaultValue();
-
-                    if (!DefaultUtil.isDefaultMethodRef(defaultValue)) {
-
-                        if (!MethodRefValidator.validate(executableElement, defaultValue,
-                                this.getMessager(), this.processingEnvironment.getElementUtils(),
-                                MethodRefValidator.VType.DEFAULT_VALUE)) {
-                            return false;
-                        }
-                    }
-
-                    UnifiedValidator unifiedValidator = unifiedPropertyInfo.validator();
-
-                    if (!DefaultUtil.isDefaultValidator(unifiedValidator)) {
+            this.sourceGenerator = (spec, verifier) -> source.generate(spec, verifier).getSecond();
+        }
+    }
 
-                        UnifiedMethodRef methodRef = unifiedValidator.value();
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        try {
+            return this.processRound(roundEnv);
+        } finally {
+            this.methodRefCache.clear();
+            this.builderMethodsCache.clear();
+            this.processedTypes.clear();
+        }
+    }
 
-                        if (!DefaultUtil.isDefaultMethodRef(methodRef)) {
-                            if (!MethodRefValidator.validate(executableElement, methodRef,
-                                    this.getMessager(),
-                                    this.processingEnvironment.getElementUtils(),
-                                    MethodRefValidator.VType.VALIDATOR)) {
-                                return false;
-                            }
-                        }
+    /**
+     * Returns true if no state of the last round is retained.
+     *
+     * @return True if no state of the last round is retained.
+     */
+    boolean isRoundStateCleared() {
+        return this.methodRefCache.isEmpty() && this.builderMethodsCache.isEmpty() && this.processedTypes.isEmpty();
+    }
 
-                    }
-                }
-            } catch (Throwable t) {
-                this.getMessager().printMessage(Diagnostic.Kind.ERROR,
-                        "An error occurred '" + t.toString() + "'", element);
-                t.printStackTrace(new MessagerPrint(this.getMessager()));
-                return false;
-            }
+    private boolean processRound(RoundEnvironment roundEnv) {
+        for (Element rootElement : roundEnv.getRootElements()) {
+            if (rootElement instanceof TypeElement)
+                this.sourceTypes.add(((TypeElement) rootElement).getQualifiedName().toString());
         }
 
-        List<String> processedTypes = new ArrayList<>();
-
         List<Pair<Element, Element>> genBuilderElements = new ArrayList<>();
 
         for (Element element : roundEnv.getElementsAnnotatedWith(GenBuilder.class)) {
@@ -288,6 +282,7 @@ public class AnnotationProcessor extends AbstractProcessor {
                     KoresType factoryResultType;
                     KoresType baseType = null;
                     String factoryMethodName = null;
+                    Set<BuilderFeature> features = EnumSet.noneOf(BuilderFeature.class);
 
                     if (isConstructor) {
                         factoryResultType = factoryClass;
@@ -345,6 +340,24 @@ public class AnnotationProcessor extends AbstractProcessor {
                             builderQualifiedName = factoryResultType.getPackageName() + ".builder." + baseType.getSimpleName() + "Builder";
                         }
 
+                        if (genBuilder.combinable())
+                            features.add(BuilderFeature.COMBINE);
+
+                        if (genBuilder.builderArgument())
+                            features.add(BuilderFeature.BUILDER_ARGUMENT);
+
+                        if (genBuilder.metrics())
+                            features.add(BuilderFeature.METRICS);
+
+                        if (genBuilder.trustedBuild())
+                            features.add(BuilderFeature.TRUSTED_BUILD);
+
+                        if (genBuilder.copyable())
+                            features.add(BuilderFeature.COPY);
+
+                        if (genBuilder.preserveIdentity())
+                            features.add(BuilderFeature.PRESERVE_IDENTITY);
+
                     }
 
                     if (baseType == null) {
@@ -355,60 +368,93 @@ public class AnnotationProcessor extends AbstractProcessor {
 
                     List<? extends VariableElement> parameters = executableElement.getParameters();
 
-                    List<Pair<String, KoresType>> propertyOrder = new ArrayList<>();
-
-                    for (VariableElement parameter : parameters) {
-                        propertyOrder.add(Pair.of(parameter.getSimpleName().toString(),
-                                ModelKoresTypesKt.getKoresType(parameter.asType(), this.elements.get())));
-                    }
-
-
                     TypeElement baseTypeElement = processingEnvironment.getElementUtils().getTypeElement(
                             baseType.getCanonicalName());
 
-                    TypeElement builder = null;
+                    List<ExecutableElement> executables = this.getGetters(baseTypeElement);
 
-                    List<ExecutableElement> executables = new ArrayList<>();
-
-                    this.consumeMethods(baseTypeElement, e -> {
-                        String name = e.getSimpleName().toString();
-                        if (executables.stream().noneMatch(
-                                elem -> elem.getSimpleName().toString().equals(name)))
-                            executables.add(e);
-                    });
+                    List<Pair<String, KoresType>> propertyOrder = new ArrayList<>();
 
-                    for (Element enclosedElement : baseTypeElement.getEnclosedElements()) {
+                    if (features.contains(BuilderFeature.BUILDER_ARGUMENT)) {
+                        if (baseTypeElement.getKind() != ElementKind.INTERFACE
+                                || parameters.size() != 1
+                                || !TypeElementUtil.toKoresType(parameters.get(0).asType(), this.elements.get())
+                                .getCanonicalName().equals(baseType.getCanonicalName())) {
+                            this.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                                    "Factory of builder with 'builderArgument' must have a single parameter of base type '"
+                                            + baseType + "' and the base type must be an interface.",
+                                    annotatedElement);
+                            return false;
+                        }
 
-                        if (enclosedElement instanceof TypeElement) {
-                            TypeElement innerClass = (TypeElement) enclosedElement;
+                        // The builder only implements 'get' getters of the base type
+                        // Sub-types are visited first, so default overrides are known before the abstract declarations
+                        Set<String> implemented = new HashSet<>();
+                        Set<String> unsupported = new LinkedHashSet<>();
+
+                        this.consumeMethods(baseTypeElement, method -> {
+                            String name = method.getSimpleName().toString();
+                            String signature = name + "(" + method.getParameters().stream()
+                                    .map(parameter -> parameter.asType().toString())
+                                    .collect(Collectors.joining(", ")) + ")";
+
+                            if (!method.getModifiers().contains(Modifier.ABSTRACT)) {
+                                implemented.add(signature);
+                            } else if (!implemented.contains(signature)
+                                    && !(name.startsWith("get") && name.length() > 3 && method.getParameters().isEmpty())
+                                    && !AnnotationProcessor.isObjectMethod(method)) {
+                                unsupported.add(signature);
+                            }
+                        });
 
-                            if (innerClass.getSimpleName().contentEquals("Builder")) {
+                        if (!unsupported.isEmpty()) {
+                            this.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                                    "Base type '" + baseType + "' of builder with 'builderArgument' has abstract methods "
+                                            + "which are not 'get' getters and cannot be implemented by the builder: "
+                                            + String.join(", ", unsupported) + ".",
+                                    annotatedElement);
+                            return false;
+                        }
 
-                                if (innerClass.getKind() != ElementKind.INTERFACE) {
-                                    this.getMessager().printMessage(Diagnostic.Kind.ERROR,
-                                            "Invalid 'Builder' in base type '" + baseType + "': The 'Builder' must be an interface.",
-                                            innerClass);
-                                    return false;
-                                }
+                        // Properties are the base type getters, implemented by the builder
+                        for (ExecutableElement getter : executables) {
+                            String getterName = getter.getSimpleName().toString();
 
-                                builder = innerClass;
+                            if (getterName.startsWith("get") && getterName.length() > 3
+                                    && getter.getParameters().isEmpty()
+                                    && !getter.isDefault()
+                                    && !getter.getModifiers().contains(Modifier.STATIC)) {
+                                propertyOrder.add(Pair.of(StringsKt.decapitalize(getterName.substring(3)),
+                                        ModelKoresTypesKt.getKoresType(getter.getReturnType(), this.elements.get())));
                             }
-
+                        }
+                    } else {
+                        for (VariableElement parameter : parameters) {
+                            propertyOrder.add(Pair.of(parameter.getSimpleName().toString(),
+                                    ModelKoresTypesKt.getKoresType(parameter.asType(), this.elements.get())));
                         }
                     }
 
-                    if (builder == null) {
-                        this.getMessager().printMessage(Diagnostic.Kind.ERROR,
-                                "Cannot find Builder class in base type '" + baseType + "'.",
-                                baseTypeElement);
+                    TypeElement builder = this.getBuilderElement(baseTypeElement, baseType);
+
+                    if (builder == null)
                         return false;
-                    }
 
                     KoresType builderType = TypeElementUtil.toKoresType(builder, this.elements.get());
 
-                    List<MethodSpec> methodSpecs = new ArrayList<>();
-                    List<ExecutableElement> builderMethods = new ArrayList<>();
+                    BuilderMethods classified = this.builderMethodsCache.get(builder);
+
+                    if (classified == null) {
+                        classified = this.classifyBuilderMethods(builder);
 
+                        if (classified == null)
+                            return false;
+
+                        this.builderMethodsCache.put(builder, classified);
+                    }
+
+                    List<MethodSpec> methodSpecs = classified.methodSpecs;
+                    List<ExecutableElement> builderMethods = classified.builderMethods;
 
                     List<PropertySpec> propertySpecs = new ArrayList<>();
 
@@ -436,47 +482,6 @@ public class AnnotationProcessor extends AbstractProcessor {
 
                     }
 
-                    this.consumeMethods(builder, methodToConsume -> {
-                        Optional<UnifiedDefaultImpl> unifiedDefaultImplOpt =
-                                this.annotatedConstructUtil.get().getUnifiedAnnotation(methodToConsume, UnifiedDefaultImpl.class);
-
-                        if (methodToConsume.isDefault() || unifiedDefaultImplOpt.isPresent()) {
-
-                            if (!methodToConsume.isDefault()) {
-                                UnifiedDefaultImpl unifiedDefault = unifiedDefaultImplOpt.get();
-
-                                List<KoresParameter> collect = methodToConsume
-                                        .getParameters()
-                                        .stream()
-                                        .map(o -> Factories.parameter(
-                                                TypeElementUtil.fromGenericMirror(o.asType(), this.elements.get()),
-                                                o.getSimpleName().toString()))
-                                        .collect(Collectors.toList());
-
-                                KoresType rtype = TypeElementUtil.fromGenericMirror(methodToConsume.getReturnType(),
-                                        this.elements.get());
-
-                                MethodDeclaration targetMethod = MethodDeclaration.Builder.builder()
-                                        .modifiers(KoresModifier.PUBLIC)
-                                        .name(methodToConsume.getSimpleName().toString())
-                                        .returnType(rtype)
-                                        .parameters(collect)
-                                        .build();
-
-                                MethodRefSpec methodRefSpec = MethodRefValidator.get(
-                                        methodToConsume, unifiedDefault.value(),
-                                        this.processingEnvironment.getElementUtils(),
-                                        MethodRefValidator.VType.DEFAULT_IMPL);
-
-                                methodSpecs.add(new MethodSpec(targetMethod, methodRefSpec));
-
-                            }
-                        } else {
-                            builderMethods.add(methodToConsume);
-                        }
-
-                    });
-
                     for (Pair<String, KoresType> prop : propertyOrder) {
                         String s = prop.getFirst();
                         KoresType propertyType = prop.getSecond();
@@ -535,7 +540,7 @@ public class AnnotationProcessor extends AbstractProcessor {
 
                         boolean isValid = params.size() == 1;
 
-                        if (!Options.isDisableStrictSetterCheck()) {
+                        if (!this.options.isDisableStrictSetterCheck()) {
                             if (!Identity.nonStrictEq(parameterType, type)
                                     || (boundTypeName == null && !Identity.nonStrictEq(returnType,
                                     builderType))
@@ -566,13 +571,38 @@ public class AnnotationProcessor extends AbstractProcessor {
                         } else {
 
 
+                            String signature = BuilderMetadata.signature(withMethod,
+                                    this.processingEnvironment.getTypeUtils());
+                            BuilderMetadata metadata = classified.metadata;
                             Optional<UnifiedPropertyInfo> unifiedPropertyInfoOpt =
                                     this.annotatedConstructUtil.get().getUnifiedAnnotation(withMethod, UnifiedPropertyInfo.class);
+                            AnnotationMirror propertyInfoMirror = unifiedPropertyInfoOpt
+                                    .map(AnnotationProcessor::getMirror)
+                                    .orElse(null);
+                            BuilderMetadata.Property property;
+
+                            if (metadata.isImported() && metadata.hasProperty(signature)
+                                    && metadata.matches(signature, propertyInfoMirror)) {
+                                property = metadata.getProperty(signature);
+                            } else if (unifiedPropertyInfoOpt.isPresent()) {
+                                property = this.resolveProperty(withMethod, unifiedPropertyInfoOpt.get());
+
+                                if (property == null)
+                                    return false;
 
-                            if (unifiedPropertyInfoOpt.isPresent()) {
+                                if (!metadata.isImported())
+                                    metadata.putProperty(signature, propertyInfoMirror, property);
+                            } else {
+                                property = null;
 
-                                PropertySpec from = this.from(s, type, withMethod,
-                                        unifiedPropertyInfoOpt.get(), isNullable, isOptional);
+                                if (!metadata.isImported())
+                                    metadata.putProperty(signature, null, null);
+                            }
+
+                            PropertySpec from = property == null ? null
+                                                                 : this.from(s, type, withMethod, property, isNullable, isOptional);
+
+                            if (from != null) {
 
                                 String name = from.getDefaultsPropertyName();
 
@@ -584,9 +614,7 @@ public class AnnotationProcessor extends AbstractProcessor {
                                     if (!propertyGetter.isPresent()) {
                                         this.getMessager().printMessage(Diagnostic.Kind.ERROR,
                                                 "Specified property name '" + name + "' cannot be found!.",
-                                                withMethod,
-                                                (AnnotationMirror) AnnotationsKt.getHandlerOfAnnotation(
-                                                        unifiedPropertyInfoOpt.get()).getOriginal());
+                                                withMethod, propertyInfoMirror);
                                         return false;
                                     }
                                 }
@@ -609,63 +637,137 @@ public class AnnotationProcessor extends AbstractProcessor {
 
                     BuilderSpec builderSpec = new BuilderSpec(builderQualifiedName, factoryClass,
                             factoryResultType, factoryMethodName, baseType, bdType, propertySpecs,
-                            methodSpecs);
+                            methodSpecs, features);
 
 
                     if (!roundEnv.processingOver()) {
 
-                        KoresBuilderGenerator.Source builderGenerator = new KoresBuilderGenerator.Source();
+                        Filer filer = this.processingEnvironment.getFiler();
+                        String qualifiedName = builderSpec.getBuilderQualifiedName();
+
+                        if (this.processedTypes.contains(qualifiedName)) {
+                            this.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                                    "Already processed!", annotatedElement);
+                            continue;
+                        }
+
+                        int lastDot = qualifiedName.lastIndexOf('.');
+                        String packageName = lastDot == -1 ? "" : qualifiedName.substring(0, lastDot);
+                        String simpleName = qualifiedName.substring(lastDot + 1);
+                        // Backend and method size budget are part of fingerprint, they change the generated source
+                        String fingerprint = SpecFingerprint.of(builderSpec) + ":" + this.options.getBackend()
+                                + ":" + this.options.getMethodSizeBudget();
+
+                        List<BytecodeClass> bytecodeClasses = null;
+                        String source = null;
+                        long lastModified = 0L;
+
+                        if (this.options.isEmitBytecode()) {
+                            bytecodeClasses = this.bytecodeGenerator.generate(builderSpec,
+                                    methodTypeSpecs -> {
+                                    });
+                        } else {
+                            // Reuses previous output if the spec did not change since last generation
+                            Optional<String> previousFingerprint = FilerUtil.read(filer, StandardLocation.SOURCE_OUTPUT,
+                                    packageName, simpleName + FINGERPRINT_EXTENSION);
+
+                            if (previousFingerprint.filter(fingerprint::equals).isPresent()) {
+                                Optional<FileObject> previous = FilerUtil.get(filer, packageName, simpleName + ".java");
 
-                        Pair<TypeDeclaration, String> pair = builderGenerator.generate(builderSpec,
-                                methodTypeSpecs -> {
-                                });
+                                source = previous.flatMap(FilerUtil::read).orElse(null);
 
-                        TypeDeclaration declaration = pair.getFirst();
+                                if (source != null)
+                                    lastModified = previous.get().getLastModified();
+                            }
+
+                            if (source == null) {
+                                source = this.sourceGenerator.generate(builderSpec,
+                                        methodTypeSpecs -> {
+                                        });
+                            }
+                        }
 
-                        Optional<FileObject> fileObject = FilerUtil.get(
-                                this.processingEnvironment.getFiler(), declaration.getPackageName(),
-                                declaration.getSimpleName());
+                        if (this.inliningReport != null) {
+                            // Sizes are measured from bytecode backend output, a dry run if sources are generated
+                            List<BytecodeClass> measured = bytecodeClasses != null
+                                    ? bytecodeClasses
+                                    : this.bytecodeGenerator.generate(builderSpec, methodTypeSpecs -> {
+                                    });
+
+                            for (BytecodeClass bytecodeClass : measured) {
+                                this.inliningReport.add(bytecodeClass.getBytecode(), this.getMessager(),
+                                        annotatedElement);
+                            }
+                        }
+
+                        Optional<FileObject> fileObject = FilerUtil.get(filer, packageName, simpleName + ".java");
 
                         fileObject.ifPresent(FileObject::delete);
 
-                        String qualifiedName = declaration.getQualifiedName();
+                        try {
+                            Element[] origin;
 
-                        if (processedTypes.contains(qualifiedName)) {
-                            this.getMessager().printMessage(Diagnostic.Kind.WARNING,
-                                    "Already processed!", annotatedElement);
-                        } else {
+                            if (element == annotatedElement) {
+                                origin = new Element[]{element};
+                            } else {
+                                origin = new Element[]{annotatedElement, element};
+                            }
 
-                            try {
-                                Element[] origin;
+                            if (bytecodeClasses != null) {
+                                // Class files created by Filer are entered by javac in the next round,
+                                // references to the builder in user code are resolved from them.
+                                for (BytecodeClass bytecodeClass : bytecodeClasses) {
+                                    byte[] bytecode = bytecodeClass.getBytecode();
 
-                                if (element == annotatedElement) {
-                                    origin = new Element[]{element};
-                                } else {
-                                    origin = new Element[]{annotatedElement, element};
-                                }
+                                    JavaFileObject classFile = processingEnvironment.getFiler().createClassFile(
+                                            ClassFileUtil.getBinaryName(bytecode), origin);
+
+                                    OutputStream outputStream = classFile.openOutputStream();
+
+                                    outputStream.write(bytecode);
 
+                                    outputStream.flush();
+                                    outputStream.close();
+                                }
+                            } else {
                                 JavaFileObject classFile = processingEnvironment.getFiler().createSourceFile(
                                         qualifiedName, origin);
 
                                 OutputStream outputStream = classFile.openOutputStream();
 
-                                outputStream.write(pair.getSecond().getBytes("UTF-8"));
+                                outputStream.write(source.getBytes("UTF-8"));
 
                                 outputStream.flush();
                                 outputStream.close();
 
-                                processedTypes.add(qualifiedName);
-                            } catch (FilerException e) {
-                                this.getMessager().printMessage(Diagnostic.Kind.ERROR,
-                                        "Failed to create source file of Builder class '" + qualifiedName + "' (file already exists?): " + e.getMessage(),
-                                        annotatedElement);
-                                throw new RuntimeException(e);
-                            } catch (IOException e) {
-                                this.getMessager().printMessage(Diagnostic.Kind.ERROR,
-                                        "Failed to create source file of Builder class '" + qualifiedName + "': " + e.getMessage(),
-                                        annotatedElement);
-                                throw new RuntimeException(e);
+                                // Same content as previous output, keep timestamp to not invalidate up-to-date checks
+                                if (lastModified != 0L)
+                                    FilerUtil.setLastModified(classFile, lastModified);
+
+                                FileObject fingerprintFile = filer.createResource(StandardLocation.SOURCE_OUTPUT,
+                                        packageName, simpleName + FINGERPRINT_EXTENSION, origin);
+
+                                try (OutputStream fingerprintStream = fingerprintFile.openOutputStream()) {
+                                    fingerprintStream.write(fingerprint.getBytes("UTF-8"));
+                                }
                             }
+
+                            if (!this.exportMetadata(builder))
+                                return false;
+
+                            this.processedTypes.add(qualifiedName);
+                            this.registryEntries.add(new RegistrySpec.Entry(baseType,
+                                    new PlainKoresType(qualifiedName, false)));
+                        } catch (FilerException e) {
+                            this.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                                    "Failed to create source file of Builder class '" + qualifiedName + "' (file already exists?): " + e.getMessage(),
+                                    annotatedElement);
+                            throw new RuntimeException(e);
+                        } catch (IOException e) {
+                            this.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                                    "Failed to create source file of Builder class '" + qualifiedName + "': " + e.getMessage(),
+                                    annotatedElement);
+                            throw new RuntimeException(e);
                         }
 
                     }
@@ -678,38 +780,667 @@ public class AnnotationProcessor extends AbstractProcessor {
             }
         }
 
+        // Builder interfaces compiled without GenBuilder targets (e.g. in an API module) are exported too
+        for (TypeElement builder : this.getAnnotatedBuilders(roundEnv)) {
+            try {
+                if (!this.exportMetadata(builder))
+                    return false;
+            } catch (IOException e) {
+                this.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Failed to write metadata of Builder interface '" + builder.getQualifiedName() + "': "
+                                + e.getMessage(), builder);
+                return false;
+            }
+        }
+
+        for (Element element : roundEnv.getElementsAnnotatedWith(GenMapper.class)) {
+            try {
+                if (!roundEnv.processingOver() && !this.processMapper(element)) {
+                    return false;
+                }
+            } catch (Throwable t) {
+                this.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "An error occurred '" + t.toString() + "'", element);
+                t.printStackTrace(new MessagerPrint(this.getMessager()));
+                return false;
+            }
+        }
+
+        if (roundEnv.processingOver() && this.inliningReport != null && !this.inliningReport.isEmpty()) {
+            try {
+                FileObject report = this.processingEnvironment.getFiler().createResource(StandardLocation.CLASS_OUTPUT,
+                        "", InliningReport.LOCATION);
+
+                try (OutputStream outputStream = report.openOutputStream()) {
+                    this.inliningReport.write(outputStream);
+                }
+            } catch (IOException e) {
+                this.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Failed to write inlining report: " + e.getMessage());
+            }
+        }
+
+        if (this.options.getRegistry() != null && !roundEnv.processingOver() && !genBuilderElements.isEmpty()) {
+            // Registry is generated at the end of the round which generated the builders, source files created
+            // in the last round are not compiled by all javac versions (and javac warns about them).
+            if (this.registryGenerated) {
+                if (this.registryEntries.size() > this.registeredEntries) {
+                    this.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                            "Builders generated after Builder registry '" + this.options.getRegistry()
+                                    + "' are not registered: " + this.registryEntries.subList(this.registeredEntries,
+                                    this.registryEntries.size()).stream()
+                                    .map(entry -> entry.getBuilderClass().getCanonicalName())
+                                    .collect(Collectors.joining(", ")) + ".");
+                    this.registeredEntries = this.registryEntries.size();
+                }
+            } else if (!this.registryEntries.isEmpty()) {
+                this.registryGenerated = true;
+                this.registeredEntries = this.registryEntries.size();
+
+                try {
+                    this.generateRegistry(this.options.getRegistry());
+                } catch (Throwable t) {
+                    this.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                            "An error occurred '" + t.toString() + "'");
+                    t.printStackTrace(new MessagerPrint(this.getMessager()));
+                    return false;
+                }
+            }
+        }
+
         return false;
     }
 
-    private PropertySpec from(String name, KoresType type, ExecutableElement annotated,
-                              UnifiedPropertyInfo unifiedPropertyInfo, boolean isNullable_,
-                              boolean isOptional) {
+    /**
+     * Generates the {@link BuilderRegistry} of all generated builders and registers it as service.
+     *
+     * @param registryQualifiedName Qualified name of the registry.
+     */
+    private void generateRegistry(String registryQualifiedName) {
+        if (!FQ_REGEX.matcher(registryQualifiedName).matches()) {
+            this.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Invalid registry name '" + registryQualifiedName + "', the class name MUST match the java class naming rules (Java Language Specification, Section 3.8. Identifiers).");
+            return;
+        }
+
+        RegistrySpec registrySpec = new RegistrySpec(registryQualifiedName, new ArrayList<>(this.registryEntries));
+
+        Pair<TypeDeclaration, String> pair = new KoresRegistryGenerator.Source().generate(registrySpec);
+
+        try {
+            JavaFileObject classFile = this.processingEnvironment.getFiler().createSourceFile(registryQualifiedName);
+
+            try (OutputStream outputStream = classFile.openOutputStream()) {
+                outputStream.write(pair.getSecond().getBytes("UTF-8"));
+            }
+
+            FileObject service = this.processingEnvironment.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                    "META-INF/services/" + BuilderRegistry.class.getName());
+
+            try (OutputStream outputStream = service.openOutputStream()) {
+                outputStream.write((registryQualifiedName + "\n").getBytes("UTF-8"));
+            }
+        } catch (IOException e) {
+            this.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to create Builder registry '" + registryQualifiedName + "': " + e.getMessage());
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Generates the mapper declared by {@link GenMapper} annotation present in {@code element}.
+     *
+     * @param element Annotated element.
+     * @return True if success, false if generation failed.
+     */
+    private boolean processMapper(Element element) {
+        UnifiedGenMapper genMapper = this.annotatedConstructUtil.get()
+                .getUnifiedAnnotation(element, UnifiedGenMapper.class)
+                .orElseThrow(() -> new IllegalStateException("Cannot find @GenMapper annotation"));
+
+        AnnotationMirror annotationMirror =
+                (AnnotationMirror) AnnotationsKt.getHandlerOfAnnotation(genMapper).getOriginal();
+
+        KoresType fromType = genMapper.from();
+        KoresType toType = genMapper.to();
+
+        TypeElement fromTypeElement = this.elements.get().getTypeElement(fromType.getCanonicalName());
+        TypeElement toTypeElement = this.elements.get().getTypeElement(toType.getCanonicalName());
 
+        if (fromTypeElement == null || toTypeElement == null) {
+            this.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Cannot find type '" + (fromTypeElement == null ? fromType : toType) + "'.",
+                    element, annotationMirror);
+            return false;
+        }
+
+        String mapperQualifiedName;
+
+        if (!genMapper.qualifiedName().isEmpty()) {
+            mapperQualifiedName = genMapper.qualifiedName();
+
+            if (!FQ_REGEX.matcher(mapperQualifiedName).matches()) {
+                this.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Invalid class name '" + mapperQualifiedName + "', the class name MUST match the java class naming rules (Java Language Specification, Section 3.8. Identifiers).",
+                        element, annotationMirror);
+                return false;
+            }
+        } else {
+            String packageName = this.elements.get().getPackageOf(element).getQualifiedName().toString();
+
+            mapperQualifiedName = (packageName.isEmpty() ? "" : packageName + ".") + "mapper."
+                    + fromType.getSimpleName() + "To" + toType.getSimpleName() + "Mapper";
+        }
+
+        TypeElement builder = this.getBuilderElement(toTypeElement, toType);
+
+        if (builder == null)
+            return false;
+
+        KoresType builderType = TypeElementUtil.toKoresType(builder, this.elements.get());
+
+        List<ExecutableElement> getters = this.getGetters(fromTypeElement);
+        List<String> names = new ArrayList<>();
+        List<ExecutableElement> withMethods = new ArrayList<>();
 
-        boolean isNullable = isNullable_ || unifiedPropertyInfo.isNullable();
+        this.consumeMethods(builder, method -> {
+            String name = method.getSimpleName().toString();
 
-        String defaultsPropertyName = DefaultUtil.stringOptional(
-                unifiedPropertyInfo.defaultsPropertyName()).orElse(name);
+            if (name.length() > 4 && name.startsWith("with") && method.getParameters().size() == 1) {
+                String propertyName = StringsKt.decapitalize(name.substring(4));
 
-        MethodRefSpec defaultValue = DefaultUtil.methodRefOptional(
-                unifiedPropertyInfo.defaultValue())
-                .map(annotation -> MethodRefValidator.get(annotated, annotation,
-                        this.processingEnvironment.getElementUtils(),
-                        MethodRefValidator.VType.DEFAULT_VALUE))
-                .orElse(null);
+                if (!names.contains(propertyName))
+                    names.add(propertyName);
+
+                withMethods.add(method);
+            }
+        });
+
+        List<PropertySpec> propertySpecs = new ArrayList<>();
+
+        for (String name : names) {
+            String capitalized = StringsKt.capitalize(name);
+            Optional<ExecutableElement> getterOpt = ExecutableElementsUtil.get(getters, "get" + capitalized);
+
+            if (!getterOpt.isPresent()) {
+                // Required properties which are not mapped would only fail in build()
+                if (this.isRequiredProperty(withMethods, "with" + capitalized)) {
+                    this.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                            "Property '" + name + "' of '" + toType.getCanonicalName()
+                                    + "' is required (not nullable and without default value) but '"
+                                    + fromType.getCanonicalName() + "' has no 'get" + capitalized + "' method.",
+                            element, annotationMirror);
+                    return false;
+                }
+
+                continue;
+            }
+
+            ExecutableElement getter = getterOpt.get();
+            KoresType getterType = TypeElementUtil.toKoresType(getter.getReturnType(), this.elements.get());
+            KoresType type = getterType;
+            boolean isOptional = false;
+
+            if (getterType instanceof GenericType
+                    && getterType.getCanonicalName().equals("java.util.Optional")
+                    && ((GenericType) getterType).getBounds().length > 0) {
+                type = ((GenericType) getterType).getBounds()[0].getType();
+                isOptional = true;
+            }
 
+            PropertySpec propertySpec = null;
 
-        MethodRefSpec validator = DefaultUtil.methodRefOptional(
-                unifiedPropertyInfo.validator().value())
-                .map(annotation -> MethodRefValidator.get(annotated, annotation,
-                        this.processingEnvironment.getElementUtils(),
-                        MethodRefValidator.VType.VALIDATOR))
-                .orElse(null);
+            for (ExecutableElement withMethod : withMethods) {
+                if (!withMethod.getSimpleName().contentEquals("with" + capitalized))
+                    continue;
+
+                KoresType parameterType = TypeElementUtil.toKoresType(
+                        withMethod.getParameters().get(0).asType(), this.elements.get());
+
+                if (Identity.nonStrictEq(parameterType, getterType)) {
+                    propertySpec = new PropertySpec(name, name, getterType, parameterType,
+                            true, false, null, null);
+                } else if (isOptional && Identity.nonStrictEq(parameterType, type)) {
+                    propertySpec = new PropertySpec(name, name, type, parameterType,
+                            true, true, null, null);
+                }
+
+                if (propertySpec != null)
+                    break;
+            }
+
+            if (propertySpec == null) {
+                this.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Property '" + name + "' of type '" + getterType + "' in '" + fromType
+                                + "' is not compatible with any 'with" + capitalized + "' method of '" + builderType + "'.",
+                        element, annotationMirror);
+                return false;
+            }
+
+            propertySpecs.add(propertySpec);
+        }
+
+        MapperSpec mapperSpec = new MapperSpec(mapperQualifiedName, fromType, toType, builderType, propertySpecs);
+
+        Pair<TypeDeclaration, String> pair = new KoresMapperGenerator.Source().generate(mapperSpec);
+
+        String qualifiedName = pair.getFirst().getQualifiedName();
+
+        try {
+            JavaFileObject classFile = this.processingEnvironment.getFiler().createSourceFile(qualifiedName, element);
+
+            try (OutputStream outputStream = classFile.openOutputStream()) {
+                outputStream.write(pair.getSecond().getBytes("UTF-8"));
+            }
+        } catch (IOException e) {
+            this.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to create source file of Mapper class '" + qualifiedName + "': " + e.getMessage(),
+                    element);
+            throw new RuntimeException(e);
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns true if the property set by {@code withName} methods of {@code withMethods} is required: the property is
+     * not primitive, not nullable and has no default value. {@link DefaultImpl} methods are not properties.
+     *
+     * @param withMethods Setter methods of builder.
+     * @param withName    Name of property setter method.
+     * @return True if the property is required.
+     */
+    private boolean isRequiredProperty(List<ExecutableElement> withMethods, String withName) {
+        boolean required = false;
+
+        for (ExecutableElement withMethod : withMethods) {
+            if (!withMethod.getSimpleName().contentEquals(withName)
+                    || withMethod.isDefault()
+                    || this.annotatedConstructUtil.get().getUnifiedAnnotation(withMethod, UnifiedDefaultImpl.class).isPresent())
+                continue;
+
+            if (withMethod.getParameters().get(0).asType().getKind().isPrimitive())
+                return false;
+
+            Optional<UnifiedPropertyInfo> propertyInfo =
+                    this.annotatedConstructUtil.get().getUnifiedAnnotation(withMethod, UnifiedPropertyInfo.class);
+
+            if (propertyInfo.isPresent() && (propertyInfo.get().isNullable()
+                    || DefaultUtil.methodRefOptional(propertyInfo.get().defaultValue()).isPresent()))
+                return false;
+
+            required = true;
+        }
+
+        return required;
+    }
+
+    /**
+     * Gets all getter candidates of {@code typeElement} (including inherited), only the first method of each name is
+     * included.
+     *
+     * @param typeElement Type element.
+     * @return Getter candidates of {@code typeElement}.
+     */
+    private List<ExecutableElement> getGetters(TypeElement typeElement) {
+        List<ExecutableElement> executables = new ArrayList<>();
+
+        this.consumeMethods(typeElement, e -> {
+            String name = e.getSimpleName().toString();
+            if (executables.stream().noneMatch(
+                    elem -> elem.getSimpleName().toString().equals(name)))
+                executables.add(e);
+        });
+
+        return executables;
+    }
+
+    /**
+     * Returns true if {@code method} is a redeclaration of a public {@link Object} method, which is implemented by all
+     * classes.
+     */
+    private static boolean isObjectMethod(ExecutableElement method) {
+        String name = method.getSimpleName().toString();
+        int parameters = method.getParameters().size();
+
+        return (name.equals("equals") && parameters == 1)
+                || ((name.equals("hashCode") || name.equals("toString")) && parameters == 0);
+    }
+
+    /**
+     * Gets the {@code Builder} inner interface of {@code baseTypeElement}. Errors are reported to the messager.
+     *
+     * @param baseTypeElement Base type element.
+     * @param baseType        Base type.
+     * @return {@code Builder} inner interface, or null if it cannot be found or is not valid.
+     */
+    private TypeElement getBuilderElement(TypeElement baseTypeElement, KoresType baseType) {
+        TypeElement builder = null;
+
+        for (Element enclosedElement : baseTypeElement.getEnclosedElements()) {
+
+            if (enclosedElement instanceof TypeElement) {
+                TypeElement innerClass = (TypeElement) enclosedElement;
+
+                if (innerClass.getSimpleName().contentEquals("Builder")) {
+
+                    if (innerClass.getKind() != ElementKind.INTERFACE) {
+                        this.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                                "Invalid 'Builder' in base type '" + baseType + "': The 'Builder' must be an interface.",
+                                innerClass);
+                        return null;
+                    }
+
+                    builder = innerClass;
+                }
+
+            }
+        }
+
+        if (builder == null) {
+            this.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Cannot find Builder class in base type '" + baseType + "'.",
+                    baseTypeElement);
+        }
+
+        return builder;
+    }
+
+    private PropertySpec from(String name, KoresType type, ExecutableElement annotated,
+                              BuilderMetadata.Property property, boolean isNullable_,
+                              boolean isOptional) {
+
+
+        boolean isNullable = isNullable_ || property.isNullable();
+
+        String defaultsPropertyName = property.getDefaultsPropertyName() != null
+                                      ? property.getDefaultsPropertyName() : name;
 
         return new PropertySpec(name, defaultsPropertyName, type,
                 ModelKoresTypesKt.getKoresType(annotated.getParameters().get(0).asType(), this.elements.get()),
-                isNullable, isOptional, defaultValue, validator);
+                isNullable, isOptional, property.getDefaultValue(), property.getValidator());
+
+    }
+
+    /**
+     * Resolves the method references of {@link PropertyInfo} of {@code annotated}.
+     *
+     * @param annotated           Property method.
+     * @param unifiedPropertyInfo {@link PropertyInfo} of {@code annotated}.
+     * @return Resolved property, or null if a method reference is invalid (errors are reported to the messager).
+     */
+    private BuilderMetadata.Property resolveProperty(ExecutableElement annotated,
+                                                     UnifiedPropertyInfo unifiedPropertyInfo) {
+        Optional<UnifiedMethodRef> defaultValueRef = DefaultUtil.methodRefOptional(unifiedPropertyInfo.defaultValue());
+        MethodRefSpec defaultValue = null;
+
+        if (defaultValueRef.isPresent()) {
+            defaultValue = this.methodRefCache.getOrReport(annotated, defaultValueRef.get(), this.getMessager(),
+                    this.options, this.processingEnvironment.getElementUtils(), MethodRefValidator.VType.DEFAULT_VALUE);
+
+            if (defaultValue == null)
+                return null;
+        }
+
+        Optional<UnifiedMethodRef> validatorRef = DefaultUtil.methodRefOptional(unifiedPropertyInfo.validator().value());
+        MethodRefSpec validator = null;
 
+        if (validatorRef.isPresent()) {
+            validator = this.methodRefCache.getOrReport(annotated, validatorRef.get(), this.getMessager(),
+                    this.options, this.processingEnvironment.getElementUtils(), MethodRefValidator.VType.VALIDATOR);
+
+            if (validator == null)
+                return null;
+        }
+
+        return new BuilderMetadata.Property(
+                DefaultUtil.stringOptional(unifiedPropertyInfo.defaultsPropertyName()).orElse(null),
+                unifiedPropertyInfo.isNullable(), defaultValue, validator);
+    }
+
+    /**
+     * Classifies methods of {@code builder} into property methods and {@link DefaultImpl} methods, the method referenced
+     * by each {@link DefaultImpl} is validated once. Methods present in the {@link BuilderMetadata} exported by the
+     * compilation of {@code builder} are not resolved again if their annotation did not change.
+     *
+     * @param builder Builder interface.
+     * @return Classified methods, or null if validation failed (errors are reported to the messager).
+     */
+    private BuilderMethods classifyBuilderMethods(TypeElement builder) {
+        BuilderMetadata imported = this.importMetadata(builder);
+        BuilderMethods classified = new BuilderMethods(imported != null ? imported : new BuilderMetadata(false));
+        Types types = this.processingEnvironment.getTypeUtils();
+        boolean[] failed = {false};
+
+        this.consumeMethods(builder, methodToConsume -> {
+            if (failed[0])
+                return;
+
+            String signature = BuilderMetadata.signature(methodToConsume, types);
+
+            Optional<UnifiedDefaultImpl> unifiedDefaultImplOpt =
+                    this.annotatedConstructUtil.get().getUnifiedAnnotation(methodToConsume, UnifiedDefaultImpl.class);
+
+            if (imported != null && !methodToConsume.isDefault() && unifiedDefaultImplOpt.isPresent()) {
+                MethodRefSpec methodRefSpec = imported.getDefaultImpl(signature);
+
+                // The annotation in class path may differ from the annotation the metadata was resolved from
+                if (methodRefSpec != null
+                        && imported.matches(signature, AnnotationProcessor.getMirror(unifiedDefaultImplOpt.get()))) {
+                    classified.methodSpecs.add(new MethodSpec(this.toTargetMethod(methodToConsume), methodRefSpec));
+                    return;
+                }
+            }
+
+            if (methodToConsume.isDefault() || unifiedDefaultImplOpt.isPresent()) {
+
+                if (!methodToConsume.isDefault()) {
+                    if (this.annotatedConstructUtil.get()
+                            .getUnifiedAnnotation(methodToConsume, UnifiedPropertyInfo.class).isPresent()) {
+                        this.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                                "Methods annotated with @DefaultImpl are not eligible to be a property, remove @PropertyInfo or @DefaultImpl annotation.",
+                                methodToConsume);
+                        failed[0] = true;
+                        return;
+                    }
+
+                    UnifiedDefaultImpl unifiedDefault = unifiedDefaultImplOpt.get();
+
+                    MethodRefSpec methodRefSpec = this.methodRefCache.getOrReport(
+                            methodToConsume, unifiedDefault.value(), this.getMessager(), this.options,
+                            this.processingEnvironment.getElementUtils(),
+                            MethodRefValidator.VType.DEFAULT_IMPL);
+
+                    if (methodRefSpec == null) {
+                        failed[0] = true;
+                        return;
+                    }
+
+                    classified.methodSpecs.add(new MethodSpec(this.toTargetMethod(methodToConsume), methodRefSpec));
+
+                    if (imported == null)
+                        classified.metadata.putDefaultImpl(signature, AnnotationProcessor.getMirror(unifiedDefault),
+                                methodRefSpec);
+
+                }
+            } else {
+                classified.builderMethods.add(methodToConsume);
+            }
+
+        });
+
+        return failed[0] ? null : classified;
+    }
+
+    /**
+     * Creates the declaration of the {@link DefaultImpl} method to implement.
+     *
+     * @param method Method annotated with {@link DefaultImpl}.
+     * @return Declaration of method to implement.
+     */
+    private MethodDeclaration toTargetMethod(ExecutableElement method) {
+        List<KoresParameter> collect = method
+                .getParameters()
+                .stream()
+                .map(o -> Factories.parameter(
+                        TypeElementUtil.fromGenericMirror(o.asType(), this.elements.get()),
+                        o.getSimpleName().toString()))
+                .collect(Collectors.toList());
+
+        KoresType rtype = TypeElementUtil.fromGenericMirror(method.getReturnType(),
+                this.elements.get());
+
+        return MethodDeclaration.Builder.builder()
+                .modifiers(KoresModifier.PUBLIC)
+                .name(method.getSimpleName().toString())
+                .returnType(rtype)
+                .parameters(collect)
+                .build();
+    }
+
+    /**
+     * Reads the {@link BuilderMetadata} of {@code builder} from class path.
+     *
+     * @param builder Builder interface.
+     * @return Metadata of {@code builder}, or null if {@code builder} is compiled by this compilation or there is no
+     * metadata of {@code builder} in class path.
+     * @see ResolvedMetadataCache
+     */
+    private BuilderMetadata importMetadata(TypeElement builder) {
+        // Metadata in class path may be outdated if the Builder interface is being compiled
+        if (this.isSourceType(builder))
+            return null;
+
+        return ResolvedMetadataCache.get(this.elements.get()).get(
+                this.elements.get().getBinaryName(builder).toString(), this::resolveMetadata);
+    }
+
+    /**
+     * Reads and resolves the {@link BuilderMetadata} of {@code Builder} interface of {@code name} from class path.
+     *
+     * @param name Binary name of {@code Builder} interface.
+     * @return Metadata of {@code Builder} interface, or null if there is no valid metadata in class path.
+     */
+    private BuilderMetadata resolveMetadata(String name) {
+        try {
+            FileObject resource = this.processingEnvironment.getFiler().getResource(StandardLocation.CLASS_PATH, "",
+                    BuilderMetadata.DIRECTORY + name + BuilderMetadata.EXTENSION);
+
+            if (this.options.isSharedMetadataCache()) {
+                BuilderMetadata.Decoded decoded = MetadataCache.get(resource);
+
+                return decoded == null ? null : BuilderMetadata.resolve(decoded, this.elements.get(),
+                        this.processingEnvironment.getTypeUtils());
+            }
+
+            try (InputStream inputStream = resource.openInputStream()) {
+                return BuilderMetadata.read(inputStream, this.elements.get(), this.processingEnvironment.getTypeUtils());
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Exports the {@link BuilderMetadata} of {@code builder} to class output, once per compilation. Only metadata of
+     * {@code Builder} interfaces compiled by this compilation is exported.
+     *
+     * @param builder Builder interface.
+     * @return False if a method reference of {@code builder} is invalid (errors are reported to the messager).
+     * @throws IOException If metadata file cannot be written.
+     */
+    private boolean exportMetadata(TypeElement builder) throws IOException {
+        String name = this.elements.get().getBinaryName(builder).toString();
+
+        if (!this.options.isExportMetadata() || !this.isSourceType(builder) || this.exportedMetadata.contains(name))
+            return true;
+
+        BuilderMethods classified = this.builderMethodsCache.get(builder);
+
+        if (classified == null) {
+            classified = this.classifyBuilderMethods(builder);
+
+            if (classified == null)
+                return false;
+
+            this.builderMethodsCache.put(builder, classified);
+        }
+
+        Types types = this.processingEnvironment.getTypeUtils();
+
+        for (ExecutableElement method : classified.builderMethods) {
+            String signature = BuilderMetadata.signature(method, types);
+
+            if (classified.metadata.hasProperty(signature))
+                continue;
+
+            Optional<UnifiedPropertyInfo> unifiedPropertyInfoOpt =
+                    this.annotatedConstructUtil.get().getUnifiedAnnotation(method, UnifiedPropertyInfo.class);
+
+            if (unifiedPropertyInfoOpt.isPresent()) {
+                BuilderMetadata.Property property = this.resolveProperty(method, unifiedPropertyInfoOpt.get());
+
+                if (property == null)
+                    return false;
+
+                classified.metadata.putProperty(signature, AnnotationProcessor.getMirror(unifiedPropertyInfoOpt.get()),
+                        property);
+            } else {
+                classified.metadata.putProperty(signature, null, null);
+            }
+        }
+
+        FileObject metadataFile = this.processingEnvironment.getFiler().createResource(StandardLocation.CLASS_OUTPUT,
+                "", BuilderMetadata.DIRECTORY + name + BuilderMetadata.EXTENSION, builder);
+
+        try (OutputStream metadataStream = metadataFile.openOutputStream()) {
+            classified.metadata.write(metadataStream);
+        }
+
+        this.exportedMetadata.add(name);
+        return true;
+    }
+
+    /**
+     * Gets the {@code Builder} interfaces declaring {@link PropertyInfo} or {@link DefaultImpl} methods in
+     * {@code roundEnv}.
+     *
+     * @param roundEnv Round environment.
+     * @return Annotated {@code Builder} interfaces.
+     */
+    private Set<TypeElement> getAnnotatedBuilders(RoundEnvironment roundEnv) {
+        Set<TypeElement> builders = new LinkedHashSet<>();
+        Set<Element> annotated = new LinkedHashSet<>(roundEnv.getElementsAnnotatedWith(PropertyInfo.class));
+
+        annotated.addAll(roundEnv.getElementsAnnotatedWith(DefaultImpl.class));
+
+        for (Element element : annotated) {
+            Element enclosing = element.getEnclosingElement();
+
+            if (element.getKind() == ElementKind.METHOD && enclosing.getKind() == ElementKind.INTERFACE)
+                builders.add((TypeElement) enclosing);
+        }
+
+        return builders;
+    }
+
+    /**
+     * Returns true if top-level type of {@code typeElement} is compiled by this compilation.
+     *
+     * @param typeElement Type element.
+     * @return True if top-level type of {@code typeElement} is compiled by this compilation.
+     */
+    private boolean isSourceType(TypeElement typeElement) {
+        Element topLevel = typeElement;
+
+        while (topLevel.getEnclosingElement().getKind() != ElementKind.PACKAGE)
+            topLevel = topLevel.getEnclosingElement();
+
+        return this.sourceTypes.contains(((TypeElement) topLevel).getQualifiedName().toString());
+    }
+
+    private static AnnotationMirror getMirror(Object unifiedAnnotation) {
+        return (AnnotationMirror) AnnotationsKt.getHandlerOfAnnotation(unifiedAnnotation).getOriginal();
     }
 
     void consumeMethods(TypeElement typeElement, Consumer<ExecutableElement> consumer) {
@@ -765,7 +1496,7 @@ public class AnnotationProcessor extends AbstractProcessor {
 
     @Override
     public Set<String> getSupportedAnnotationTypes() {
-        return Collections3.setOf(BUILDER_GEN_ANNOTATION_CLASS, INLINE_ANNOTATION_CLASS,
+        return Collections3.setOf(BUILDER_GEN_ANNOTATION_CLASS, MAPPER_GEN_ANNOTATION_CLASS, INLINE_ANNOTATION_CLASS,
                 PROPERTY_INFO_ANNOTATION_CLASS,
                 DEFAULT_IMPL_ANNOTATION_CLASS)
                 .stream()
@@ -807,4 +1538,14 @@ public class AnnotationProcessor extends AbstractProcessor {
             }
         }
     }
-}
\ No newline at end of file
+
+    private static final class BuilderMethods {
+        final List<MethodSpec> methodSpecs = new ArrayList<>();
+        final List<ExecutableElement> builderMethods = new ArrayList<>();
+        final BuilderMetadata metadata;
+
+        BuilderMethods(BuilderMetadata metadata) {
+            this.metadata = metadata;
+        }
+    }
+}
@@ -0,0 +1,518 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator.apt;
+
+import com.github.jonathanxd.buildergenerator.spec.MethodRefSpec;
+import com.github.jonathanxd.buildergenerator.util.SourceTypeUtil;
+import com.github.jonathanxd.buildergenerator.util.TypeResolver;
+import com.github.jonathanxd.kores.base.TypeSpec;
+import com.github.jonathanxd.kores.common.MethodTypeSpec;
+import com.github.jonathanxd.kores.util.GenericTypeUtil;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+/**
+ * Resolved data of a {@code Builder} interface, exported to {@code META-INF/buildergenerator/<binary name>.bgmeta} in
+ * class output. Compilations that have the {@code Builder} interface in the class path reads the metadata instead of
+ * resolving {@link com.github.jonathanxd.buildergenerator.annotation.PropertyInfo} and {@link
+ * com.github.jonathanxd.buildergenerator.annotation.DefaultImpl} method references again.
+ *
+ * Methods are identified by {@link #signature(ExecutableElement, Types) name and erased parameter types}, each method
+ * records the {@link #describe(AnnotationMirror) description} of its annotation. Methods not present in the metadata, or
+ * whose annotation in class path does not match the description, are resolved normally.
+ */
+final class BuilderMetadata {
+
+    static final String DIRECTORY = "META-INF/buildergenerator/";
+    static final String EXTENSION = ".bgmeta";
+
+    private static final int MAGIC = 0x42474D44;
+    private static final int VERSION = 2;
+
+    private static final byte PROPERTY = 0;
+    private static final byte PROPERTY_INFO = 1;
+    private static final byte DEFAULT_IMPL = 2;
+
+    private final boolean imported;
+    private final Map<String, MethodRefSpec> defaultImpls = new LinkedHashMap<>();
+    private final Map<String, Property> properties = new LinkedHashMap<>();
+    private final Map<String, String> annotations = new HashMap<>();
+
+    BuilderMetadata(boolean imported) {
+        this.imported = imported;
+    }
+
+    /**
+     * Returns true if this metadata was read from class path.
+     *
+     * @return True if this metadata was read from class path.
+     */
+    boolean isImported() {
+        return this.imported;
+    }
+
+    MethodRefSpec getDefaultImpl(String signature) {
+        return this.defaultImpls.get(signature);
+    }
+
+    void putDefaultImpl(String signature, AnnotationMirror annotation, MethodRefSpec methodRefSpec) {
+        this.defaultImpls.put(signature, methodRefSpec);
+        this.annotations.put(signature, BuilderMetadata.describe(annotation));
+    }
+
+    /**
+     * Returns true if {@code annotation} of method of {@code signature} is the same annotation the metadata was
+     * resolved from.
+     *
+     * @param signature  Method signature.
+     * @param annotation Annotation present on the method, or null if the method is not annotated.
+     * @return True if {@code annotation} matches the annotation the metadata was resolved from.
+     */
+    boolean matches(String signature, AnnotationMirror annotation) {
+        String description = this.annotations.get(signature);
+
+        return description != null && description.equals(BuilderMetadata.describe(annotation));
+    }
+
+    /**
+     * Returns true if property method of {@code signature} is known, {@link #getProperty(String)} may still return
+     * null if the property method is not annotated with {@link com.github.jonathanxd.buildergenerator.annotation.PropertyInfo}.
+     *
+     * @param signature Method signature.
+     * @return True if property method of {@code signature} is known.
+     */
+    boolean hasProperty(String signature) {
+        return this.properties.containsKey(signature);
+    }
+
+    Property getProperty(String signature) {
+        return this.properties.get(signature);
+    }
+
+    void putProperty(String signature, AnnotationMirror annotation, Property property) {
+        if (!this.properties.containsKey(signature)) {
+            this.properties.put(signature, property);
+            this.annotations.put(signature, BuilderMetadata.describe(annotation));
+        }
+    }
+
+    /**
+     * Signature of {@code method}, the simple name followed by erased parameter types.
+     *
+     * @param method Method.
+     * @param types  Type utils.
+     * @return Signature of {@code method}.
+     */
+    static String signature(ExecutableElement method, Types types) {
+        StringBuilder sb = new StringBuilder(method.getSimpleName()).append('(');
+
+        for (VariableElement parameter : method.getParameters()) {
+            sb.append(types.erasure(parameter.asType())).append(';');
+        }
+
+        return sb.append(')').toString();
+    }
+
+    /**
+     * Describes {@code annotation} by its type and element values, sorted by name. Default values are not included, a
+     * change of default value in the annotation type is a change of the buildergenerator version, which is also
+     * recorded in the metadata {@link #VERSION}.
+     *
+     * @param annotation Annotation, or null to describe absence of annotation.
+     * @return Description of {@code annotation}, or an empty string if {@code annotation} is null.
+     */
+    static String describe(AnnotationMirror annotation) {
+        if (annotation == null)
+            return "";
+
+        Map<String, String> values = new TreeMap<>();
+
+        annotation.getElementValues().forEach((element, value) ->
+                values.put(element.getSimpleName().toString(), value.toString()));
+
+        return annotation.getAnnotationType() + "(" + values + ")";
+    }
+
+    void write(OutputStream outputStream) throws IOException {
+        DataOutputStream out = new DataOutputStream(outputStream);
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(this.defaultImpls.size() + this.properties.size());
+
+        for (Map.Entry<String, MethodRefSpec> entry : this.defaultImpls.entrySet()) {
+            out.writeByte(DEFAULT_IMPL);
+            out.writeUTF(entry.getKey());
+            out.writeUTF(this.annotations.get(entry.getKey()));
+            BuilderMetadata.writeMethodRef(out, entry.getValue());
+        }
+
+        for (Map.Entry<String, Property> entry : this.properties.entrySet()) {
+            Property property = entry.getValue();
+
+            if (property == null) {
+                out.writeByte(PROPERTY);
+                out.writeUTF(entry.getKey());
+                out.writeUTF(this.annotations.get(entry.getKey()));
+            } else {
+                out.writeByte(PROPERTY_INFO);
+                out.writeUTF(entry.getKey());
+                out.writeUTF(this.annotations.get(entry.getKey()));
+                out.writeUTF(property.defaultsPropertyName == null ? "" : property.defaultsPropertyName);
+                out.writeBoolean(property.isNullable);
+                BuilderMetadata.writeMethodRef(out, property.defaultValue);
+                BuilderMetadata.writeMethodRef(out, property.validator);
+            }
+        }
+
+        out.flush();
+    }
+
+    /**
+     * Reads metadata from {@code inputStream}.
+     *
+     * @param inputStream Input stream.
+     * @param elements    Element utils to resolve types.
+     * @param types       Type utils to check referenced methods.
+     * @return Read metadata, or null if the metadata was written by a different version.
+     * @throws IOException If metadata cannot be read.
+     */
+    static BuilderMetadata read(InputStream inputStream, Elements elements, Types types) throws IOException {
+        Decoded decoded = BuilderMetadata.decode(inputStream);
+
+        return decoded == null ? null : BuilderMetadata.resolve(decoded, elements, types);
+    }
+
+    /**
+     * Decodes metadata from {@code inputStream} without resolving types, decoded metadata does not depend on the
+     * compilation and may be shared between compilations.
+     *
+     * @param inputStream Input stream.
+     * @return Decoded metadata, or null if the metadata was written by a different version.
+     * @throws IOException If metadata cannot be read.
+     */
+    static Decoded decode(InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(inputStream);
+
+        if (in.readInt() != MAGIC || in.readInt() != VERSION)
+            return null;
+
+        int count = in.readInt();
+        List<Decoded.Method> methods = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            byte kind = in.readByte();
+            String signature = in.readUTF();
+            String annotation = in.readUTF();
+
+            if (kind == DEFAULT_IMPL) {
+                methods.add(new Decoded.Method(kind, signature, annotation, null, false,
+                        BuilderMetadata.decodeMethodRef(in), null));
+            } else if (kind == PROPERTY) {
+                methods.add(new Decoded.Method(kind, signature, annotation, null, false, null, null));
+            } else if (kind == PROPERTY_INFO) {
+                String defaultsPropertyName = in.readUTF();
+                boolean isNullable = in.readBoolean();
+                String[] defaultValue = BuilderMetadata.decodeMethodRef(in);
+                String[] validator = BuilderMetadata.decodeMethodRef(in);
+
+                methods.add(new Decoded.Method(kind, signature, annotation,
+                        defaultsPropertyName.isEmpty() ? null : defaultsPropertyName,
+                        isNullable, defaultValue, validator));
+            } else {
+                throw new IOException("Invalid method kind '" + kind + "'.");
+            }
+        }
+
+        return new Decoded(methods);
+    }
+
+    /**
+     * Resolves types of {@code decoded} metadata.
+     *
+     * @param decoded  Decoded metadata.
+     * @param elements Element utils to resolve types.
+     * @param types    Type utils to check referenced methods.
+     * @return Resolved metadata.
+     * @throws IllegalArgumentException If a referenced method does not exist anymore.
+     */
+    static BuilderMetadata resolve(Decoded decoded, Elements elements, Types types) {
+        BuilderMetadata metadata = new BuilderMetadata(true);
+        TypeResolver resolver = new TypeResolver(elements);
+
+        for (Decoded.Method method : decoded.methods) {
+            if (method.kind == DEFAULT_IMPL) {
+                metadata.defaultImpls.put(method.signature,
+                        BuilderMetadata.resolveMethodRef(method.first, resolver, elements, types));
+            } else if (method.kind == PROPERTY) {
+                metadata.properties.put(method.signature, null);
+            } else {
+                metadata.properties.put(method.signature, new Property(method.defaultsPropertyName,
+                        method.isNullable,
+                        BuilderMetadata.resolveMethodRef(method.first, resolver, elements, types),
+                        BuilderMetadata.resolveMethodRef(method.second, resolver, elements, types)));
+            }
+
+            metadata.annotations.put(method.signature, method.annotation);
+        }
+
+        return metadata;
+    }
+
+    private static void writeMethodRef(DataOutputStream out, MethodRefSpec methodRefSpec) throws IOException {
+        out.writeBoolean(methodRefSpec != null);
+
+        if (methodRefSpec == null)
+            return;
+
+        MethodTypeSpec spec = methodRefSpec.getMethodTypeSpec();
+        List<Type> parameterTypes = spec.getTypeSpec().getParameterTypes();
+
+        out.writeBoolean(methodRefSpec.isThis());
+        out.writeBoolean(methodRefSpec.isInline());
+        out.writeUTF(SourceTypeUtil.toSourceString(spec.getLocalization()));
+        out.writeUTF(spec.getMethodName());
+        out.writeUTF(SourceTypeUtil.toSourceString(spec.getTypeSpec().getReturnType()));
+        out.writeInt(parameterTypes.size());
+
+        for (Type parameterType : parameterTypes) {
+            out.writeUTF(SourceTypeUtil.toSourceString(parameterType));
+        }
+    }
+
+    /**
+     * Decodes a method reference written by {@link #writeMethodRef(DataOutputStream, MethodRefSpec)}.
+     *
+     * @return {@code [isThis, isInline, localization, name, return type, parameter types...]}, or null if there is no
+     * method reference.
+     */
+    private static String[] decodeMethodRef(DataInputStream in) throws IOException {
+        if (!in.readBoolean())
+            return null;
+
+        boolean isThis = in.readBoolean();
+        boolean isInline = in.readBoolean();
+        String localization = in.readUTF();
+        String name = in.readUTF();
+        String returnType = in.readUTF();
+        int parameterCount = in.readInt();
+        String[] methodRef = new String[5 + parameterCount];
+
+        methodRef[0] = String.valueOf(isThis);
+        methodRef[1] = String.valueOf(isInline);
+        methodRef[2] = localization;
+        methodRef[3] = name;
+        methodRef[4] = returnType;
+
+        for (int i = 0; i < parameterCount; i++) {
+            methodRef[5 + i] = in.readUTF();
+        }
+
+        return methodRef;
+    }
+
+    /**
+     * Resolves a method reference decoded by {@link #decodeMethodRef(DataInputStream)}.
+     *
+     * Imported method references are not checked by {@link MethodRefValidator}, so the referenced method is checked to
+     * still exist (with same name, erased parameter types and erased return type), metadata of outdated jars is not
+     * used.
+     *
+     * @throws IllegalArgumentException If the referenced method does not exist.
+     */
+    private static MethodRefSpec resolveMethodRef(String[] methodRef, TypeResolver resolver, Elements elements,
+                                                  Types types) {
+        if (methodRef == null)
+            return null;
+
+        if (!Boolean.parseBoolean(methodRef[0]))
+            BuilderMetadata.checkMethodExists(methodRef, elements, types);
+
+        List<Type> parameterTypes = new ArrayList<>(methodRef.length - 5);
+
+        for (int i = 5; i < methodRef.length; i++) {
+            parameterTypes.add(GenericTypeUtil.fromSourceString(methodRef[i], resolver));
+        }
+
+        return new MethodRefSpec(Boolean.parseBoolean(methodRef[0]), Boolean.parseBoolean(methodRef[1]),
+                new MethodTypeSpec(GenericTypeUtil.fromSourceString(methodRef[2], resolver), methodRef[3],
+                        new TypeSpec(GenericTypeUtil.fromSourceString(methodRef[4], resolver), parameterTypes)));
+    }
+
+    private static void checkMethodExists(String[] methodRef, Elements elements, Types types) {
+        String localization = methodRef[2];
+        TypeElement type = elements.getTypeElement(BuilderMetadata.erasure(localization));
+
+        if (type == null)
+            throw new IllegalArgumentException("Cannot find type '" + localization + "'.");
+
+        int parameterCount = methodRef.length - 5;
+
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+            if (method.getSimpleName().contentEquals(methodRef[3])
+                    && method.getParameters().size() == parameterCount
+                    && BuilderMetadata.isSameErasure(methodRef[4], method.getReturnType(), types)
+                    && BuilderMetadata.isSameParameters(methodRef, method, types))
+                return;
+        }
+
+        throw new IllegalArgumentException("Cannot find method '" + methodRef[3] + "' in '" + localization + "'.");
+    }
+
+    private static boolean isSameParameters(String[] methodRef, ExecutableElement method, Types types) {
+        List<? extends VariableElement> parameters = method.getParameters();
+
+        for (int i = 0; i < parameters.size(); i++) {
+            if (!BuilderMetadata.isSameErasure(methodRef[5 + i], parameters.get(i).asType(), types))
+                return false;
+        }
+
+        return true;
+    }
+
+    private static boolean isSameErasure(String sourceType, TypeMirror type, Types types) {
+        // Variable arity parameters are printed as 'T...' by some compilers
+        return BuilderMetadata.erasure(sourceType).replace("...", "[]")
+                .equals(types.erasure(type).toString().replace("...", "[]"));
+    }
+
+    /**
+     * Removes generic arguments of {@code sourceType}, type variables are not erased to their bounds, so a method that
+     * uses type variables never matches and is resolved normally.
+     */
+    private static String erasure(String sourceType) {
+        StringBuilder sb = new StringBuilder(sourceType.length());
+        int depth = 0;
+
+        for (int i = 0; i < sourceType.length(); i++) {
+            char c = sourceType.charAt(i);
+
+            if (c == '<')
+                depth++;
+            else if (c == '>')
+                depth--;
+            else if (depth == 0)
+                sb.append(c);
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Resolved data of a {@link com.github.jonathanxd.buildergenerator.annotation.PropertyInfo} annotated property
+     * method.
+     */
+    static final class Property {
+        private final String defaultsPropertyName;
+        private final boolean isNullable;
+        private final MethodRefSpec defaultValue;
+        private final MethodRefSpec validator;
+
+        Property(String defaultsPropertyName, boolean isNullable, MethodRefSpec defaultValue, MethodRefSpec validator) {
+            this.defaultsPropertyName = defaultsPropertyName;
+            this.isNullable = isNullable;
+            this.defaultValue = defaultValue;
+            this.validator = validator;
+        }
+
+        /**
+         * Gets the defaults property name, or null if the name is the property name.
+         *
+         * @return Defaults property name, or null if the name is the property name.
+         */
+        String getDefaultsPropertyName() {
+            return this.defaultsPropertyName;
+        }
+
+        boolean isNullable() {
+            return this.isNullable;
+        }
+
+        MethodRefSpec getDefaultValue() {
+            return this.defaultValue;
+        }
+
+        MethodRefSpec getValidator() {
+            return this.validator;
+        }
+    }
+
+    /**
+     * Metadata decoded without resolving types.
+     */
+    static final class Decoded {
+        private final List<Method> methods;
+
+        Decoded(List<Method> methods) {
+            this.methods = methods;
+        }
+
+        private static final class Method {
+            private final byte kind;
+            private final String signature;
+            private final String annotation;
+            private final String defaultsPropertyName;
+            private final boolean isNullable;
+            // DefaultImpl method reference or PropertyInfo default value method reference
+            private final String[] first;
+            // PropertyInfo validator method reference
+            private final String[] second;
+
+            Method(byte kind, String signature, String annotation, String defaultsPropertyName, boolean isNullable,
+                   String[] first, String[] second) {
+                this.kind = kind;
+                this.signature = signature;
+                this.annotation = annotation;
+                this.defaultsPropertyName = defaultsPropertyName;
+                this.isNullable = isNullable;
+                this.first = first;
+                this.second = second;
+            }
+        }
+    }
+}
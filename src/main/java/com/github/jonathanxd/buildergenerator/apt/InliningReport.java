@@ -0,0 +1,140 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator.apt;
+
+import com.github.jonathanxd.buildergenerator.util.ClassFileUtil;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.processing.Messager;
+import javax.lang.model.element.Element;
+import javax.tools.Diagnostic;
+
+/**
+ * Bytecode size report of generated builder methods, compared against HotSpot inlining thresholds.
+ *
+ * HotSpot always inlines methods up to {@code -XX:MaxInlineSize} bytes of bytecode and inlines hot methods up to
+ * {@code -XX:FreqInlineSize} bytes. Generated methods above {@code FreqInlineSize} are reported as warnings and methods
+ * above {@code MaxInlineSize} as notes. The report is written as JSON to {@link #LOCATION} in class output.
+ */
+final class InliningReport {
+
+    static final String LOCATION = "META-INF/buildergenerator/inlining-report.json";
+    static final int DEFAULT_MAX_INLINE_SIZE = 35;
+    static final int DEFAULT_FREQ_INLINE_SIZE = 325;
+
+    private final int maxInlineSize;
+    private final int freqInlineSize;
+    private final List<Entry> entries = new ArrayList<>();
+
+    InliningReport(int maxInlineSize, int freqInlineSize) {
+        this.maxInlineSize = maxInlineSize;
+        this.freqInlineSize = freqInlineSize;
+    }
+
+    boolean isEmpty() {
+        return this.entries.isEmpty();
+    }
+
+    /**
+     * Adds all methods of generated class {@code bytecode} to the report.
+     *
+     * @param bytecode Generated class bytes.
+     * @param messager Messager to report methods above thresholds.
+     * @param element  Element which originated the generated class.
+     */
+    void add(byte[] bytecode, Messager messager, Element element) {
+        String className = ClassFileUtil.getBinaryName(bytecode);
+
+        for (Map.Entry<String, Integer> method : ClassFileUtil.getCodeLengths(bytecode).entrySet()) {
+            String name = method.getKey();
+            int size = method.getValue();
+
+            // Class initializer runs once
+            if (name.startsWith("<clinit>"))
+                continue;
+
+            this.entries.add(new Entry(className, name, size));
+
+            if (size > this.freqInlineSize) {
+                messager.printMessage(Diagnostic.Kind.WARNING, "Generated method '" + className + "." + name
+                        + "' has " + size + " bytes of bytecode, above FreqInlineSize (" + this.freqInlineSize
+                        + "), it will not be inlined even when hot.", element);
+            } else if (size > this.maxInlineSize) {
+                messager.printMessage(Diagnostic.Kind.NOTE, "Generated method '" + className + "." + name
+                        + "' has " + size + " bytes of bytecode, above MaxInlineSize (" + this.maxInlineSize
+                        + "), it is only inlined when hot.", element);
+            }
+        }
+    }
+
+    void write(OutputStream outputStream) throws IOException {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("{\n");
+        sb.append("  \"maxInlineSize\": ").append(this.maxInlineSize).append(",\n");
+        sb.append("  \"freqInlineSize\": ").append(this.freqInlineSize).append(",\n");
+        sb.append("  \"methods\": [");
+
+        for (int i = 0; i < this.entries.size(); i++) {
+            Entry entry = this.entries.get(i);
+
+            if (i != 0)
+                sb.append(',');
+
+            // Binary names and method descriptors does not contain characters which requires escaping
+            sb.append("\n    {\"class\": \"").append(entry.className)
+                    .append("\", \"method\": \"").append(entry.method)
+                    .append("\", \"size\": ").append(entry.size)
+                    .append(", \"exceedsMaxInlineSize\": ").append(entry.size > this.maxInlineSize)
+                    .append(", \"exceedsFreqInlineSize\": ").append(entry.size > this.freqInlineSize)
+                    .append('}');
+        }
+
+        sb.append("\n  ]\n}\n");
+
+        outputStream.write(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static final class Entry {
+        private final String className;
+        private final String method;
+        private final int size;
+
+        Entry(String className, String method, int size) {
+            this.className = className;
+            this.method = method;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator.apt;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.SoftReference;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.tools.FileObject;
+
+/**
+ * JVM-wide cache of {@link BuilderMetadata.Decoded decoded metadata} of class path entries, shared by all compilations
+ * of a long-lived JVM (such as the Gradle daemon).
+ *
+ * Entries are keyed by the metadata location and invalidated when the size or the last modified time of the class
+ * path entry (jar or file) changes. Entries are softly referenced, so they are evicted under memory pressure.
+ *
+ * Only decoded metadata is cached, types are resolved once per compilation (see {@link ResolvedMetadataCache}) because
+ * resolved types are bound to the {@link javax.lang.model.util.Elements} of the compilation.
+ */
+final class MetadataCache {
+
+    private static final Map<String, SoftReference<Entry>> CACHE = new ConcurrentHashMap<>();
+
+    private MetadataCache() {
+        throw new IllegalStateException();
+    }
+
+    /**
+     * Gets the decoded metadata of {@code resource}, decoding it if it is not cached or if it has changed.
+     *
+     * @param resource Metadata resource.
+     * @return Decoded metadata, or null if the metadata was written by a different version.
+     * @throws IOException If metadata cannot be read.
+     */
+    static BuilderMetadata.Decoded get(FileObject resource) throws IOException {
+        URI uri = resource.toUri();
+        Path container = MetadataCache.getContainer(uri);
+
+        if (container == null) {
+            try (InputStream inputStream = resource.openInputStream()) {
+                return BuilderMetadata.decode(inputStream);
+            }
+        }
+
+        String key = uri.toString();
+        long size = Files.size(container);
+        long lastModified = Files.getLastModifiedTime(container).toMillis();
+
+        SoftReference<Entry> reference = CACHE.get(key);
+        Entry entry = reference != null ? reference.get() : null;
+
+        if (entry != null && entry.size == size && entry.lastModified == lastModified)
+            return entry.decoded;
+
+        BuilderMetadata.Decoded decoded;
+
+        try (InputStream inputStream = resource.openInputStream()) {
+            decoded = BuilderMetadata.decode(inputStream);
+        }
+
+        CACHE.values().removeIf(ref -> ref.get() == null);
+        CACHE.put(key, new SoftReference<>(new Entry(size, lastModified, decoded)));
+
+        return decoded;
+    }
+
+    /**
+     * Gets the class path entry of {@code uri}: the jar file of {@code jar:} uris or the file itself for {@code file:}
+     * uris.
+     *
+     * @param uri Resource uri.
+     * @return Class path entry, or null if {@code uri} is not in the file system.
+     */
+    private static Path getContainer(URI uri) {
+        try {
+            if ("jar".equals(uri.getScheme())) {
+                String part = uri.getRawSchemeSpecificPart();
+                int separator = part.indexOf("!/");
+
+                if (separator != -1)
+                    return Paths.get(URI.create(part.substring(0, separator)));
+            } else if ("file".equals(uri.getScheme())) {
+                return Paths.get(uri);
+            }
+        } catch (IllegalArgumentException | UnsupportedOperationException ignored) {
+        }
+
+        return null;
+    }
+
+    private static final class Entry {
+        private final long size;
+        private final long lastModified;
+        private final BuilderMetadata.Decoded decoded;
+
+        Entry(long size, long lastModified, BuilderMetadata.Decoded decoded) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.decoded = decoded;
+        }
+    }
+}
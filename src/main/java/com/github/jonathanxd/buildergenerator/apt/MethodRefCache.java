@@ -0,0 +1,114 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator.apt;
+
+import com.github.jonathanxd.buildergenerator.spec.MethodRefSpec;
+import com.github.jonathanxd.buildergenerator.unification.UnifiedMethodRef;
+import com.github.jonathanxd.kores.extra.AnnotationsKt;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.annotation.processing.Messager;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.util.Elements;
+
+/**
+ * Round-scoped memo of {@link MethodRefValidator} results, each method reference is resolved (and failures reported)
+ * only once per round, even if the annotated method is shared by many builders.
+ */
+final class MethodRefCache {
+
+    private static final Object FAILED = new Object();
+
+    private final Map<Key, Object> results = new HashMap<>();
+
+    /**
+     * @see MethodRefValidator#getOrReport(ExecutableElement, UnifiedMethodRef, Messager, Options, Elements,
+     * MethodRefValidator.VType)
+     */
+    MethodRefSpec getOrReport(ExecutableElement annotated, UnifiedMethodRef methodRef,
+                              Messager messager, Options options, Elements elements, MethodRefValidator.VType type) {
+        Key key = new Key(annotated, AnnotationsKt.getHandlerOfAnnotation(methodRef).getOriginal(), type);
+
+        Object result = this.results.get(key);
+
+        if (result == FAILED)
+            return null;
+
+        if (result != null)
+            return (MethodRefSpec) result;
+
+        MethodRefSpec spec = MethodRefValidator.getOrReport(annotated, methodRef, messager, options, elements, type);
+
+        this.results.put(key, spec == null ? FAILED : spec);
+
+        return spec;
+    }
+
+    /**
+     * Removes all results, called at the end of the round.
+     */
+    void clear() {
+        this.results.clear();
+    }
+
+    boolean isEmpty() {
+        return this.results.isEmpty();
+    }
+
+    private static final class Key {
+        private final ExecutableElement annotated;
+        private final Object annotation;
+        private final MethodRefValidator.VType type;
+
+        Key(ExecutableElement annotated, Object annotation, MethodRefValidator.VType type) {
+            this.annotated = annotated;
+            this.annotation = annotation;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key))
+                return false;
+
+            Key other = (Key) obj;
+
+            return this.annotated.equals(other.annotated)
+                    && Objects.equals(this.annotation, other.annotation)
+                    && this.type == other.type;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.annotated, this.annotation, this.type);
+        }
+    }
+}
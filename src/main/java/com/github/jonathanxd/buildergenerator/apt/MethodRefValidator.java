@@ -34,9 +34,9 @@ import com.github.jonathanxd.buildergenerator.unification.UnifiedInline;
 import com.github.jonathanxd.buildergenerator.unification.UnifiedMethodRef;
 import com.github.jonathanxd.buildergenerator.util.AnnotatedConstructUtil;
 import com.github.jonathanxd.buildergenerator.util.CTypeUtil;
+import com.github.jonathanxd.buildergenerator.util.ClassResolutionCache;
 import com.github.jonathanxd.buildergenerator.util.TypeElementUtil;
 import com.github.jonathanxd.iutils.object.Pair;
-import com.github.jonathanxd.iutils.type.TypeUtil;
 import com.github.jonathanxd.kores.Instruction;
 import com.github.jonathanxd.kores.Types;
 import com.github.jonathanxd.kores.base.MethodDeclaration;
@@ -53,6 +53,7 @@ import org.jetbrains.annotations.NonNls;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 import javax.annotation.processing.Messager;
 import javax.lang.model.element.AnnotationMirror;
@@ -89,38 +90,53 @@ public class MethodRefValidator {
      * @param annotated Annotated element.
      * @param methodRef MethodRef Annotation mirror.
      * @param messager  Messager to log errors.
+     * @param options   Options of the annotation processor.
      * @param elements  Element utilities to resolve types.
      * @param type      Type of the annotation to validate.
      * @return True if success, false if validation failed.
      */
     public static boolean validate(ExecutableElement annotated, UnifiedMethodRef methodRef,
-                                   Messager messager, Elements elements, VType type) {
+                                   Messager messager, Options options, Elements elements, VType type) {
+        return MethodRefValidator.getOrReport(annotated, methodRef, messager, options, elements, type) != null;
+    }
+
+    /**
+     * Validates and resolves the method, reporting validation errors to {@code messager}.
+     *
+     * @param annotated Annotated element.
+     * @param methodRef MethodRef Annotation mirror.
+     * @param messager  Messager to log errors.
+     * @param options   Options of the annotation processor.
+     * @param elements  Element utilities to resolve types.
+     * @param type      Type of the annotation to validate.
+     * @return Specification of resolved method, or null if validation failed.
+     */
+    public static MethodRefSpec getOrReport(ExecutableElement annotated, UnifiedMethodRef methodRef,
+                                            Messager messager, Options options, Elements elements, VType type) {
 
         Object original = AnnotationsKt.getHandlerOfAnnotation(methodRef).getOriginal();
 
         AnnotationMirror mirror = original instanceof AnnotationMirror ? (AnnotationMirror) original : null;
 
         try {
-            MethodRefValidator.get(annotated, methodRef, elements, type);
+            return MethodRefValidator.get(annotated, methodRef, elements, type);
         } catch (IllegalArgumentException e) {
 
-            if (mirror == null || Options.isThrowExceptions())
+            if (mirror == null || options.isThrowExceptions())
                 throw e;
 
             messager.printMessage(Diagnostic.Kind.ERROR, e.getMessage(), annotated, mirror);
-            return false;
+            return null;
         } catch (ReferencedMethodException e) {
             if (mirror != null)
                 messager.printMessage(Diagnostic.Kind.WARNING, e.getMessage(), annotated, mirror);
 
             messager.printMessage(Diagnostic.Kind.ERROR, e.getMessage(), e.getReferencedMethod());
-            if (mirror == null || Options.isThrowExceptions())
+            if (mirror == null || options.isThrowExceptions())
                 throw e;
 
-            return false;
+            return null;
         }
-
-        return true;
     }
 
     /**
@@ -273,11 +289,10 @@ public class MethodRefValidator {
             KoresType concreteType = KoresTypes.getConcreteType(
                     KoresTypes.getKoresType(localization));
 
-            try {
-                concreteType = KoresTypes.getKoresType(
-                        TypeUtil.resolveClass(concreteType.getCanonicalName()));
-            } catch (Throwable ignored) {
-            }
+            Optional<Class<?>> resolved = ClassResolutionCache.resolveClass(concreteType.getCanonicalName(), elements);
+
+            if (resolved.isPresent())
+                concreteType = KoresTypes.getKoresType(resolved.get());
 
             if (isInline) {
                 if (!(concreteType instanceof LoadedKoresType<?>)) {
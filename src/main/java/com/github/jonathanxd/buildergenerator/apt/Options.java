@@ -27,8 +27,17 @@
  */
 package com.github.jonathanxd.buildergenerator.apt;
 
+import com.github.jonathanxd.buildergenerator.KoresBuilderGenerator;
+
 import java.util.Map;
 
+import javax.annotation.processing.Messager;
+import javax.tools.Diagnostic;
+
+/**
+ * Annotation processor options. Options are immutable and held per {@link AnnotationProcessor} instance, so concurrent
+ * compilations in the same JVM does not interfere with each other.
+ */
 public final class Options {
 
     private static final String PATH = "jonathanxd.buildergenerator";
@@ -38,34 +47,203 @@ public final class Options {
      *
      * Annotation processor will continue verifying parameter number in setter methods.
      */
-    private static boolean DISABLE_STRICT_SETTER_CHECK;
+    private final boolean disableStrictSetterCheck;
 
     /**
      * Throw exceptions instead of only logging them.
      */
-    private static boolean THROW_EXCEPTIONS;
+    private final boolean throwExceptions;
+
+    /**
+     * Qualified name of the {@link com.github.jonathanxd.buildergenerator.registry.BuilderRegistry} to generate.
+     *
+     * The registry is not generated if this option is not defined.
+     */
+    private final String registry;
+
+    /**
+     * Writes generated builders directly as class files instead of source files, skipping
+     * compilation of generated builders by javac.
+     */
+    private final boolean emitBytecode;
 
+    /**
+     * Exports resolved {@code Builder} interface metadata to class output, compilations depending on the output reads
+     * the metadata instead of resolving the {@code Builder} interface again. Enabled by default.
+     */
+    private final boolean exportMetadata;
+
+    /**
+     * Caches metadata read from class path in a JVM-wide cache shared by all compilations, useful for long-lived JVMs
+     * such as the Gradle daemon.
+     */
+    private final boolean sharedMetadataCache;
 
-    private Options() {
+    /**
+     * Source backend, {@code kores} (default) generates sources from {@code Kores} AST and {@code template} renders
+     * common builders from templates (see {@link com.github.jonathanxd.buildergenerator.TemplateBuilderGenerator}).
+     */
+    private final String backend;
+
+    /**
+     * Estimated bytecode size limit of generated {@code build()} and defaults constructor, larger methods are split into
+     * helper methods.
+     */
+    private final int methodSizeBudget;
+
+    /**
+     * Measures bytecode size of generated builder methods, reports methods above inlining thresholds and writes the
+     * sizes to {@code META-INF/buildergenerator/inlining-report.json} in class output.
+     */
+    private final boolean inliningReport;
+
+    /**
+     * Bytecode size threshold of methods always inlined, same as {@code -XX:MaxInlineSize} (default {@code 35}).
+     */
+    private final int maxInlineSize;
+
+    /**
+     * Bytecode size threshold of hot methods inlined, same as {@code -XX:FreqInlineSize} (default {@code 325}).
+     */
+    private final int freqInlineSize;
+
+    private Options(boolean disableStrictSetterCheck, boolean throwExceptions, String registry, boolean emitBytecode,
+                    boolean exportMetadata, boolean sharedMetadataCache, String backend, int methodSizeBudget,
+                    boolean inliningReport, int maxInlineSize, int freqInlineSize) {
+        this.disableStrictSetterCheck = disableStrictSetterCheck;
+        this.throwExceptions = throwExceptions;
+        this.registry = registry;
+        this.emitBytecode = emitBytecode;
+        this.exportMetadata = exportMetadata;
+        this.sharedMetadataCache = sharedMetadataCache;
+        this.backend = backend;
+        this.methodSizeBudget = methodSizeBudget;
+        this.inliningReport = inliningReport;
+        this.maxInlineSize = maxInlineSize;
+        this.freqInlineSize = freqInlineSize;
     }
 
     /**
-     * @see #DISABLE_STRICT_SETTER_CHECK
+     * @see #disableStrictSetterCheck
      */
-    public static boolean isDisableStrictSetterCheck() {
-        return Options.DISABLE_STRICT_SETTER_CHECK;
+    public boolean isDisableStrictSetterCheck() {
+        return this.disableStrictSetterCheck;
     }
 
-    public static boolean isThrowExceptions() {
-        return Options.THROW_EXCEPTIONS;
+    public boolean isThrowExceptions() {
+        return this.throwExceptions;
     }
 
-    public static void load(Map<String, String> options) {
-        Options.DISABLE_STRICT_SETTER_CHECK =
-                Boolean.valueOf(options.getOrDefault(PATH + ".disableStrictSetterCheck", "false"));
+    /**
+     * @see #registry
+     */
+    public String getRegistry() {
+        return this.registry;
+    }
+
+    /**
+     * @see #emitBytecode
+     */
+    public boolean isEmitBytecode() {
+        return this.emitBytecode;
+    }
+
+    /**
+     * @see #exportMetadata
+     */
+    public boolean isExportMetadata() {
+        return this.exportMetadata;
+    }
+
+    /**
+     * @see #sharedMetadataCache
+     */
+    public boolean isSharedMetadataCache() {
+        return this.sharedMetadataCache;
+    }
+
+    /**
+     * @see #backend
+     */
+    public String getBackend() {
+        return this.backend;
+    }
+
+    /**
+     * @see #methodSizeBudget
+     */
+    public int getMethodSizeBudget() {
+        return this.methodSizeBudget;
+    }
+
+    /**
+     * @see #inliningReport
+     */
+    public boolean isInliningReport() {
+        return this.inliningReport;
+    }
+
+    /**
+     * @see #maxInlineSize
+     */
+    public int getMaxInlineSize() {
+        return this.maxInlineSize;
+    }
+
+    /**
+     * @see #freqInlineSize
+     */
+    public int getFreqInlineSize() {
+        return this.freqInlineSize;
+    }
+
+    /**
+     * Loads options from annotation processor {@code options}. Invalid numeric options are reported to {@code messager}
+     * and replaced by their default value.
+     *
+     * @param options  Annotation processor options.
+     * @param messager Messager to report invalid options.
+     * @return Loaded options.
+     */
+    public static Options load(Map<String, String> options, Messager messager) {
+        return new Options(
+                Boolean.valueOf(options.getOrDefault(PATH + ".disableStrictSetterCheck", "false")),
+                Boolean.valueOf(options.getOrDefault(PATH + ".throwExceptions", "false")),
+                options.get(PATH + ".registry"),
+                Boolean.valueOf(options.getOrDefault(PATH + ".emitBytecode", "false")),
+                Boolean.valueOf(options.getOrDefault(PATH + ".exportMetadata", "true")),
+                Boolean.valueOf(options.getOrDefault(PATH + ".sharedMetadataCache", "false")),
+                options.getOrDefault(PATH + ".backend", "kores"),
+                Options.getInt(options, "methodSizeBudget", KoresBuilderGenerator.DEFAULT_METHOD_SIZE_BUDGET, messager),
+                Boolean.valueOf(options.getOrDefault(PATH + ".inliningReport", "false")),
+                Options.getInt(options, "maxInlineSize", InliningReport.DEFAULT_MAX_INLINE_SIZE, messager),
+                Options.getInt(options, "freqInlineSize", InliningReport.DEFAULT_FREQ_INLINE_SIZE, messager)
+        );
+    }
+
+    /**
+     * Gets the positive int value of option {@code name}, values which are not positive integers are reported to
+     * {@code messager} and {@code defaultValue} is used instead.
+     */
+    private static int getInt(Map<String, String> options, String name, int defaultValue, Messager messager) {
+        String value = options.get(PATH + "." + name);
+
+        if (value == null)
+            return defaultValue;
+
+        try {
+            int parsed = Integer.parseInt(value.trim());
+
+            if (parsed > 0)
+                return parsed;
+        } catch (NumberFormatException ignored) {
+        }
+
+        messager.printMessage(Diagnostic.Kind.WARNING,
+                "Invalid value '" + value + "' of option '" + PATH + "." + name
+                        + "' (expected a positive integer), using default value '" + defaultValue + "'.");
 
-        Options.THROW_EXCEPTIONS =
-                Boolean.valueOf(options.getOrDefault(PATH + ".throwExceptions", "false"));
+        return defaultValue;
     }
 
 }
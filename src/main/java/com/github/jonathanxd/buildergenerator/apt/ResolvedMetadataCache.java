@@ -0,0 +1,78 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator.apt;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import javax.lang.model.util.Elements;
+
+/**
+ * Per-compilation cache of {@link BuilderMetadata} resolved from class path.
+ *
+ * Resolving metadata looks up every referenced type and method in the compilation model, so the metadata of a {@code
+ * Builder} interface is resolved only once per compilation instead of once per round. Absent metadata is cached too.
+ * The cache is bound to the {@link Elements} of the compilation and released with it.
+ */
+final class ResolvedMetadataCache {
+
+    private static final Map<Elements, ResolvedMetadataCache> CACHES =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Map<String, Optional<BuilderMetadata>> results = new ConcurrentHashMap<>();
+
+    ResolvedMetadataCache() {
+    }
+
+    /**
+     * Gets the cache of the compilation of {@code elements}.
+     *
+     * @param elements Elements of the compilation.
+     * @return Cache of the compilation of {@code elements}.
+     */
+    static ResolvedMetadataCache get(Elements elements) {
+        return CACHES.computeIfAbsent(elements, e -> new ResolvedMetadataCache());
+    }
+
+    /**
+     * Gets the metadata of {@code Builder} interface of {@code binaryName}, resolving it with {@code resolver} only if
+     * it was not resolved by this compilation yet.
+     *
+     * @param binaryName Binary name of {@code Builder} interface.
+     * @param resolver   Resolver of metadata, returns null if there is no valid metadata.
+     * @return Resolved metadata, or null if there is no valid metadata.
+     */
+    BuilderMetadata get(String binaryName, Function<String, BuilderMetadata> resolver) {
+        return this.results.computeIfAbsent(binaryName, name -> Optional.ofNullable(resolver.apply(name)))
+                .orElse(null);
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator.metrics;
+
+/**
+ * Receives instrumentation events of builders generated with {@link com.github.jonathanxd.buildergenerator.annotation.GenBuilder#metrics()
+ * metrics} enabled.
+ *
+ * Implementations are registered as {@link java.util.ServiceLoader} service and loaded once by {@link Metrics}.
+ * Methods are invoked from builder code, implementations should be thread-safe and must not throw exceptions.
+ */
+public interface BuilderMetrics {
+
+    /**
+     * Called when a builder of {@code type} builds an instance, after all properties were validated.
+     *
+     * @param type Qualified name of base type.
+     */
+    default void onBuild(String type) {
+    }
+
+    /**
+     * Called when validation of {@code property} fails, before the exception is rethrown.
+     *
+     * @param type      Qualified name of base type.
+     * @param property  Name of property.
+     * @param exception Validation exception.
+     */
+    default void onValidationFailure(String type, String property, RuntimeException exception) {
+    }
+
+    /**
+     * Called when the default value provider of {@code property} is invoked (once per builder instance).
+     *
+     * @param type     Qualified name of base type.
+     * @param property Name of property.
+     */
+    default void onDefaultValue(String type, String property) {
+    }
+
+}
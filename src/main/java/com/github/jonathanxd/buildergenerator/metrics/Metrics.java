@@ -0,0 +1,79 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator.metrics;
+
+import java.util.Iterator;
+import java.util.ServiceLoader;
+
+/**
+ * Lookup of {@link BuilderMetrics} service used by generated builders.
+ *
+ * Generated builders read {@link #isEnabled()} and {@link #get()} once, in static final fields, so the JIT removes
+ * instrumentation when metrics are disabled. Metrics are enabled if a {@link BuilderMetrics} service is present and
+ * {@code jonathanxd.buildergenerator.metrics} system property is not {@code false}.
+ */
+public final class Metrics {
+
+    private static final BuilderMetrics NOOP = new BuilderMetrics() {
+    };
+
+    private static final BuilderMetrics METRICS = Metrics.load();
+
+    private Metrics() {
+        throw new IllegalStateException();
+    }
+
+    /**
+     * Returns true if a {@link BuilderMetrics} service is enabled.
+     *
+     * @return True if a {@link BuilderMetrics} service is enabled.
+     */
+    public static boolean isEnabled() {
+        return Metrics.METRICS != Metrics.NOOP;
+    }
+
+    /**
+     * Gets the enabled {@link BuilderMetrics} service, or a no-op instance if metrics are disabled.
+     *
+     * @return Enabled {@link BuilderMetrics} service, or a no-op instance if metrics are disabled.
+     */
+    public static BuilderMetrics get() {
+        return Metrics.METRICS;
+    }
+
+    private static BuilderMetrics load() {
+        if (!"false".equals(System.getProperty("jonathanxd.buildergenerator.metrics"))) {
+            Iterator<BuilderMetrics> iterator = ServiceLoader.load(BuilderMetrics.class).iterator();
+
+            if (iterator.hasNext())
+                return iterator.next();
+        }
+
+        return Metrics.NOOP;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator.registry;
+
+/**
+ * Registry of generated builders.
+ *
+ * Implementations are generated by {@link com.github.jonathanxd.buildergenerator.apt.AnnotationProcessor}
+ * when {@code jonathanxd.buildergenerator.registry} option is defined (one registry per
+ * compilation) and are registered as {@link java.util.ServiceLoader} service. Generated registries
+ * depend on {@code BuilderGenerator} at runtime, builders are still free of runtime dependency.
+ *
+ * Use {@link Builders} to lookup builders.
+ */
+public interface BuilderRegistry {
+
+    /**
+     * Gets the base types which this registry provides builders. The index of the base type is the
+     * {@code id} of the builder.
+     *
+     * @return Base types which this registry provides builders.
+     */
+    Class<?>[] getBaseTypes();
+
+    /**
+     * Creates a new builder.
+     *
+     * @param id Id of the builder.
+     * @return New builder.
+     * @throws IllegalArgumentException If {@code id} is not a valid id.
+     */
+    Object createBuilder(int id);
+
+    /**
+     * Creates a new builder with values of {@code defaults} instance.
+     *
+     * @param id       Id of the builder.
+     * @param defaults Instance to copy values from.
+     * @return New builder.
+     * @throws IllegalArgumentException If {@code id} is not a valid id.
+     */
+    Object createBuilder(int id, Object defaults);
+
+}
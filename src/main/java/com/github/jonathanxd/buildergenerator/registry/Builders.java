@@ -0,0 +1,174 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator.registry;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.ServiceLoader;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Lookup of generated builders registered through {@link BuilderRegistry} services.
+ *
+ * All registries are loaded once, lookups are a single map read and do not use reflection. Each base type must be
+ * registered by only one registry, a base type registered twice (for example by two jars which generated a builder of
+ * the same base type) fails the loading with an {@link IllegalStateException} naming both registries.
+ */
+public final class Builders {
+
+    private static final Map<Class<?>, Entry> ENTRIES = Builders.load(ServiceLoader.load(BuilderRegistry.class));
+
+    private Builders() {
+        throw new IllegalStateException();
+    }
+
+    /**
+     * Returns true if a builder of {@code baseType} is registered.
+     *
+     * @param baseType Base type.
+     * @return True if a builder of {@code baseType} is registered.
+     */
+    public static boolean hasBuilder(Class<?> baseType) {
+        return Builders.ENTRIES.containsKey(baseType);
+    }
+
+    /**
+     * Creates a new builder of {@code baseType}.
+     *
+     * @param baseType Base type.
+     * @param <B>      Builder type.
+     * @return New builder of {@code baseType}.
+     * @throws IllegalArgumentException If there is no builder registered for {@code baseType}.
+     */
+    @SuppressWarnings("unchecked")
+    public static <B> B builder(Class<?> baseType) {
+        return (B) Builders.get(baseType).create();
+    }
+
+    /**
+     * Creates a new builder of {@code baseType} with values of {@code defaults}.
+     *
+     * @param baseType Base type.
+     * @param defaults Instance to copy values from.
+     * @param <T>      Base type.
+     * @param <B>      Builder type.
+     * @return New builder of {@code baseType}.
+     * @throws IllegalArgumentException If there is no builder registered for {@code baseType}.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T, B> B builder(Class<T> baseType, T defaults) {
+        return (B) Builders.get(baseType).create(defaults);
+    }
+
+    /**
+     * Gets the supplier of new builders of {@code baseType}.
+     *
+     * @param baseType Base type.
+     * @param <B>      Builder type.
+     * @return Supplier of new builders of {@code baseType}.
+     * @throws IllegalArgumentException If there is no builder registered for {@code baseType}.
+     */
+    @SuppressWarnings("unchecked")
+    public static <B> Supplier<B> supplier(Class<?> baseType) {
+        Entry entry = Builders.get(baseType);
+        return () -> (B) entry.create();
+    }
+
+    /**
+     * Gets the function which creates builders of {@code baseType} with values of the input
+     * instance.
+     *
+     * @param baseType Base type.
+     * @param <T>      Base type.
+     * @param <B>      Builder type.
+     * @return Function which creates builders of {@code baseType} with values of the input
+     * instance.
+     * @throws IllegalArgumentException If there is no builder registered for {@code baseType}.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T, B> Function<T, B> copyFunction(Class<T> baseType) {
+        Entry entry = Builders.get(baseType);
+        return defaults -> (B) entry.create(defaults);
+    }
+
+    private static Entry get(Class<?> baseType) {
+        Entry entry = Builders.ENTRIES.get(Objects.requireNonNull(baseType));
+
+        if (entry == null)
+            throw new IllegalArgumentException("There is no builder registered for '" + baseType.getCanonicalName() + "'!");
+
+        return entry;
+    }
+
+    /**
+     * Maps base types of {@code registries} to their builders.
+     *
+     * @param registries Registries.
+     * @return Entries of base types.
+     * @throws IllegalStateException If a base type is registered by more than one registry.
+     */
+    static Map<Class<?>, Entry> load(Iterable<BuilderRegistry> registries) {
+        Map<Class<?>, Entry> entries = new HashMap<>();
+
+        for (BuilderRegistry registry : registries) {
+            Class<?>[] baseTypes = registry.getBaseTypes();
+
+            for (int i = 0; i < baseTypes.length; i++) {
+                Entry previous = entries.putIfAbsent(baseTypes[i], new Entry(registry, i));
+
+                if (previous != null)
+                    throw new IllegalStateException("Builder of '" + baseTypes[i].getCanonicalName()
+                            + "' is registered by both '" + previous.registry.getClass().getName() + "' and '"
+                            + registry.getClass().getName() + "'!");
+            }
+        }
+
+        return Collections.unmodifiableMap(entries);
+    }
+
+    static final class Entry {
+        private final BuilderRegistry registry;
+        private final int id;
+
+        Entry(BuilderRegistry registry, int id) {
+            this.registry = registry;
+            this.id = id;
+        }
+
+        Object create() {
+            return this.registry.createBuilder(this.id);
+        }
+
+        Object create(Object defaults) {
+            return this.registry.createBuilder(this.id, defaults);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator.runtime;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Content-addressed on-disk cache of runtime generated builder classes.
+ *
+ * Each entry is stored in a single file named after the {@link com.github.jonathanxd.buildergenerator.util.SpecFingerprint
+ * fingerprint} of the builder spec. Entries are written to a temporary file and atomically moved to the final location,
+ * so multiple JVMs can share the same cache directory. Cache failures are never propagated, the builder is generated
+ * again instead.
+ *
+ * The cache is enabled by setting the {@code buildergenerator.cache.dir} system property.
+ */
+final class BuilderClassCache {
+
+    static final String CACHE_DIR_PROPERTY = "buildergenerator.cache.dir";
+
+    private static final int MAGIC = 0x42474343; // BGCC
+    private static final String EXTENSION = ".bgc";
+
+    private final Path directory;
+    // False to always use the non-atomic fallback (for file systems that do not support atomic moves)
+    private final boolean atomicMove;
+
+    BuilderClassCache(Path directory) {
+        this(directory, true);
+    }
+
+    BuilderClassCache(Path directory, boolean atomicMove) {
+        this.directory = directory;
+        this.atomicMove = atomicMove;
+    }
+
+    /**
+     * Creates the cache configured by {@link #CACHE_DIR_PROPERTY} system property.
+     *
+     * @return Cache configured by system property, or null if the property is not defined.
+     */
+    static BuilderClassCache fromSystemProperty() {
+        String dir = System.getProperty(CACHE_DIR_PROPERTY);
+
+        if (dir == null || dir.isEmpty())
+            return null;
+
+        return new BuilderClassCache(Paths.get(dir));
+    }
+
+    /**
+     * Loads the classes stored with {@code key}.
+     *
+     * @param key Fingerprint of builder spec.
+     * @return Map of binary name to class bytes, or null if there is no valid entry for {@code key}.
+     */
+    Map<String, byte[]> load(String key) {
+        Path file = this.directory.resolve(key + EXTENSION);
+
+        if (!Files.isRegularFile(file))
+            return null;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.getInt() != MAGIC)
+                return null;
+
+            int count = buffer.getInt();
+            Map<String, byte[]> classes = new LinkedHashMap<>();
+
+            for (int i = 0; i < count; i++) {
+                String name = new String(BuilderClassCache.read(buffer), StandardCharsets.UTF_8);
+                classes.put(name, BuilderClassCache.read(buffer));
+            }
+
+            return classes;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Stores {@code classes} with {@code key}.
+     *
+     * @param key     Fingerprint of builder spec.
+     * @param classes Map of binary name to class bytes.
+     */
+    void store(String key, Map<String, byte[]> classes) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(MAGIC);
+            output.writeInt(classes.size());
+
+            for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+                byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+
+                output.writeInt(name.length);
+                output.write(name);
+                output.writeInt(entry.getValue().length);
+                output.write(entry.getValue());
+            }
+        } catch (IOException e) {
+            return;
+        }
+
+        Path temp = null;
+
+        try {
+            Files.createDirectories(this.directory);
+
+            temp = Files.createTempFile(this.directory, key, ".tmp");
+            Files.write(temp, bytes.toByteArray());
+
+            Path file = this.directory.resolve(key + EXTENSION);
+
+            try {
+                if (!this.atomicMove)
+                    throw new AtomicMoveNotSupportedException(temp.toString(), file.toString(), null);
+
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                // Entries of the same key have the same content, replacing an entry written concurrently is harmless
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    private static byte[] read(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
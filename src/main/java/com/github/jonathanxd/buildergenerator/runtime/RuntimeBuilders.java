@@ -0,0 +1,185 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator.runtime;
+
+import com.github.jonathanxd.buildergenerator.KoresBuilderGenerator;
+import com.github.jonathanxd.buildergenerator.spec.BuilderSpec;
+import com.github.jonathanxd.buildergenerator.util.ClassFileUtil;
+import com.github.jonathanxd.buildergenerator.util.SpecFingerprint;
+import com.github.jonathanxd.kores.bytecode.BytecodeClass;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runtime builder generator, generates builders of classes which were not processed by the annotation processor (such
+ * as plugin-loaded classes).
+ *
+ * The {@link BuilderSpec} is resolved using reflection (see {@link RuntimeSpecResolver}), the classes are generated with
+ * {@link KoresBuilderGenerator.Bytecode} and defined in a dedicated class loader, which is child of the class loader of
+ * the annotated class. Generated builders are cached per class and generated only once, even if requested concurrently.
+ *
+ * Generated classes can also be cached on disk across JVM runs by setting the {@code buildergenerator.cache.dir} system
+ * property to the cache directory.
+ *
+ * This class requires {@code Kores-BytecodeWriter} in the class path.
+ */
+public final class RuntimeBuilders {
+
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+    private static final BuilderClassCache CACHE = BuilderClassCache.fromSystemProperty();
+
+    private static final ClassValue<Holder> HOLDERS = new ClassValue<Holder>() {
+        @Override
+        protected Holder computeValue(Class<?> type) {
+            return new Holder(type);
+        }
+    };
+
+    private RuntimeBuilders() {
+        throw new IllegalStateException();
+    }
+
+    /**
+     * Creates a new builder of {@code type}, generating the builder class if it was not generated yet.
+     *
+     * @param type Class annotated with {@link com.github.jonathanxd.buildergenerator.annotation.GenBuilder} or which
+     *             declares a {@link com.github.jonathanxd.buildergenerator.annotation.GenBuilder} annotated constructor
+     *             or factory method.
+     * @param <B>  Builder type.
+     * @return New builder of {@code type}.
+     * @throws IllegalArgumentException If builder cannot be generated for {@code type}.
+     */
+    @SuppressWarnings("unchecked")
+    public static <B> B builderFor(Class<?> type) {
+        try {
+            return (B) RuntimeBuilders.HOLDERS.get(type).getConstructor().invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Failed to create builder of '" + type.getCanonicalName() + "'!", t);
+        }
+    }
+
+    /**
+     * Gets the builder class of {@code type}, generating the builder class if it was not generated yet.
+     *
+     * @param type Class annotated with {@link com.github.jonathanxd.buildergenerator.annotation.GenBuilder} or which
+     *             declares a {@link com.github.jonathanxd.buildergenerator.annotation.GenBuilder} annotated constructor
+     *             or factory method.
+     * @return Builder class of {@code type}.
+     * @throws IllegalArgumentException If builder cannot be generated for {@code type}.
+     */
+    public static Class<?> getBuilderClass(Class<?> type) {
+        return RuntimeBuilders.HOLDERS.get(type).getBuilderClass();
+    }
+
+    /**
+     * Holds the lazily generated builder class. {@link ClassValue#computeValue(Class)} may be called concurrently, so
+     * the generation is not done there, but once in the holder that won the race.
+     */
+    private static final class Holder {
+        private final Class<?> type;
+        private volatile Class<?> builderClass;
+        private volatile MethodHandle constructor;
+
+        Holder(Class<?> type) {
+            this.type = type;
+        }
+
+        Class<?> getBuilderClass() {
+            this.getConstructor();
+            return this.builderClass;
+        }
+
+        MethodHandle getConstructor() {
+            MethodHandle constructor = this.constructor;
+
+            if (constructor == null) {
+                synchronized (this) {
+                    constructor = this.constructor;
+
+                    if (constructor == null) {
+                        constructor = this.generate();
+                        this.constructor = constructor;
+                    }
+                }
+            }
+
+            return constructor;
+        }
+
+        private MethodHandle generate() {
+            BuilderSpec builderSpec = RuntimeSpecResolver.resolve(this.type);
+
+            String key = RuntimeBuilders.CACHE != null ? SpecFingerprint.of(builderSpec) : null;
+            Map<String, byte[]> classes = key != null ? RuntimeBuilders.CACHE.load(key) : null;
+
+            if (classes == null) {
+                // Generator (and its InlineMethodRegistry) is not shared between types: the registry retains the
+                // inline methods classes, a shared registry would keep class loaders of unloaded plugins reachable.
+                KoresBuilderGenerator.Bytecode generator = new KoresBuilderGenerator.Bytecode(true);
+
+                List<BytecodeClass> bytecodeClasses = generator.generate(builderSpec,
+                        methodTypeSpecs -> {
+                        });
+
+                classes = new HashMap<>();
+
+                for (BytecodeClass bytecodeClass : bytecodeClasses) {
+                    byte[] bytecode = bytecodeClass.getBytecode();
+                    classes.put(ClassFileUtil.getBinaryName(bytecode), bytecode);
+                }
+
+                if (key != null)
+                    RuntimeBuilders.CACHE.store(key, classes);
+            }
+
+            GeneratedClassLoader loader = new GeneratedClassLoader(this.type.getClassLoader(), classes);
+
+            try {
+                Class<?> builderClass = loader.loadClass(builderSpec.getBuilderQualifiedName());
+
+                MethodHandle constructor = MethodHandles.publicLookup()
+                        .findConstructor(builderClass, MethodType.methodType(void.class))
+                        .asType(CONSTRUCTOR_TYPE);
+
+                this.builderClass = builderClass;
+
+                return constructor;
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Failed to define builder of '" + this.type.getCanonicalName() + "'!", e);
+            }
+        }
+    }
+}
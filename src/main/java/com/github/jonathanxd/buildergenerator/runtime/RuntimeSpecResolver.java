@@ -0,0 +1,507 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator.runtime;
+
+import com.github.jonathanxd.buildergenerator.annotation.DefaultImpl;
+import com.github.jonathanxd.buildergenerator.annotation.DefaultUtil;
+import com.github.jonathanxd.buildergenerator.annotation.GenBuilder;
+import com.github.jonathanxd.buildergenerator.annotation.Inline;
+import com.github.jonathanxd.buildergenerator.annotation.MethodRef;
+import com.github.jonathanxd.buildergenerator.annotation.PropertyInfo;
+import com.github.jonathanxd.buildergenerator.spec.BuilderFeature;
+import com.github.jonathanxd.buildergenerator.spec.BuilderSpec;
+import com.github.jonathanxd.buildergenerator.spec.MethodRefSpec;
+import com.github.jonathanxd.buildergenerator.spec.MethodSpec;
+import com.github.jonathanxd.buildergenerator.spec.PropertySpec;
+import com.github.jonathanxd.kores.Instruction;
+import com.github.jonathanxd.kores.base.KoresModifier;
+import com.github.jonathanxd.kores.base.KoresParameter;
+import com.github.jonathanxd.kores.base.MethodDeclaration;
+import com.github.jonathanxd.kores.base.TypeSpec;
+import com.github.jonathanxd.kores.base.VariableBase;
+import com.github.jonathanxd.kores.common.MethodTypeSpec;
+import com.github.jonathanxd.kores.factory.Factories;
+import com.github.jonathanxd.kores.type.Generic;
+import com.github.jonathanxd.kores.type.KoresType;
+import com.github.jonathanxd.kores.type.KoresTypes;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import kotlin.text.StringsKt;
+
+/**
+ * Resolves {@link BuilderSpec} of {@link GenBuilder} annotated classes using reflection, the resolution follows the same
+ * rules of the annotation processor.
+ *
+ * Property names are read from parameters of the factory constructor (or method), so the class must be compiled with
+ * {@code -parameters} flag.
+ */
+public final class RuntimeSpecResolver {
+
+    private RuntimeSpecResolver() {
+        throw new IllegalStateException();
+    }
+
+    /**
+     * Resolves the {@link BuilderSpec} of {@code type}.
+     *
+     * @param type Class annotated with {@link GenBuilder} or which declares a {@link GenBuilder} annotated constructor
+     *             or factory method.
+     * @return {@link BuilderSpec} of {@code type}.
+     * @throws IllegalArgumentException If the {@link BuilderSpec} cannot be resolved.
+     */
+    public static BuilderSpec resolve(Class<?> type) {
+        GenBuilder genBuilder = type.getAnnotation(GenBuilder.class);
+        Executable factory = null;
+
+        if (genBuilder != null) {
+            for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+                if (factory == null || factory.getParameterCount() < constructor.getParameterCount())
+                    factory = constructor;
+            }
+
+            if (factory == null)
+                throw new IllegalArgumentException("At least one constructor is required!");
+        } else {
+            List<Executable> executables = new ArrayList<>();
+
+            executables.addAll(Arrays.asList(type.getDeclaredConstructors()));
+            executables.addAll(Arrays.asList(type.getDeclaredMethods()));
+
+            for (Executable executable : executables) {
+                if (executable.isAnnotationPresent(GenBuilder.class)) {
+                    factory = executable;
+                    genBuilder = executable.getAnnotation(GenBuilder.class);
+                    break;
+                }
+            }
+
+            if (factory == null)
+                throw new IllegalArgumentException("Class '" + type.getCanonicalName() + "' is not annotated with @GenBuilder!");
+        }
+
+        Set<BuilderFeature> features = EnumSet.noneOf(BuilderFeature.class);
+
+        if (genBuilder.combinable())
+            features.add(BuilderFeature.COMBINE);
+
+        if (genBuilder.builderArgument())
+            features.add(BuilderFeature.BUILDER_ARGUMENT);
+
+        if (genBuilder.metrics())
+            features.add(BuilderFeature.METRICS);
+
+        if (genBuilder.trustedBuild())
+            features.add(BuilderFeature.TRUSTED_BUILD);
+
+        if (genBuilder.copyable())
+            features.add(BuilderFeature.COPY);
+
+        if (genBuilder.preserveIdentity())
+            features.add(BuilderFeature.PRESERVE_IDENTITY);
+
+        return RuntimeSpecResolver.resolve(factory,
+                DefaultUtil.isDefaultType(genBuilder.base()) ? null : genBuilder.base(),
+                genBuilder.qualifiedName(), features);
+    }
+
+    /**
+     * Resolves the {@link BuilderSpec} of builder of {@code baseClass} which creates instances with {@code factory},
+     * the {@code factory} does not need to be annotated with {@link GenBuilder}. The builder is resolved with default
+     * {@link GenBuilder} settings.
+     *
+     * @param baseClass Base class, which declares the {@code Builder} interface.
+     * @param factory   Constructor or public static method which creates instances of {@code baseClass}.
+     * @return {@link BuilderSpec} of builder of {@code baseClass}.
+     * @throws IllegalArgumentException If the {@link BuilderSpec} cannot be resolved.
+     */
+    public static BuilderSpec resolve(Class<?> baseClass, Executable factory) {
+        return RuntimeSpecResolver.resolve(factory, Objects.requireNonNull(baseClass), "",
+                EnumSet.noneOf(BuilderFeature.class));
+    }
+
+    private static BuilderSpec resolve(Executable factory, Class<?> baseClass, String qualifiedName,
+                                       Set<BuilderFeature> features) {
+        Class<?> type = factory.getDeclaringClass();
+        boolean isConstructor = factory instanceof Constructor<?>;
+
+        if (!isConstructor
+                && (!Modifier.isPublic(factory.getModifiers()) || !Modifier.isStatic(factory.getModifiers())))
+            throw new IllegalArgumentException("Factory method must be public and static.");
+
+        KoresType factoryClass = KoresTypes.getKoresType(type);
+        KoresType factoryResultType;
+        String factoryMethodName = null;
+
+        if (isConstructor) {
+            factoryResultType = factoryClass;
+        } else {
+            factoryResultType = KoresTypes.getKoresType(((Method) factory).getReturnType());
+            factoryMethodName = factory.getName();
+
+            if (baseClass == null)
+                baseClass = ((Method) factory).getReturnType();
+        }
+
+        if (baseClass == null) {
+            Class<?>[] interfaces = type.getInterfaces();
+
+            if (interfaces.length != 1)
+                throw new IllegalArgumentException("Base type cannot be inferred, please specify the base type!");
+
+            baseClass = interfaces[0];
+        }
+
+        KoresType baseType = KoresTypes.getKoresType(baseClass);
+
+        String builderQualifiedName = !qualifiedName.isEmpty()
+                                      ? qualifiedName
+                                      : factoryResultType.getPackageName() + ".builder." + baseType.getSimpleName() + "Builder";
+
+        Class<?> builder = RuntimeSpecResolver.getBuilderClass(baseClass);
+
+        List<MethodSpec> methodSpecs = new ArrayList<>();
+        List<Method> builderMethods = new ArrayList<>();
+
+        for (Method method : builder.getMethods()) {
+            DefaultImpl defaultImpl = method.getAnnotation(DefaultImpl.class);
+
+            if (method.isDefault() || defaultImpl != null) {
+                if (!method.isDefault()) {
+                    List<KoresParameter> parameters = new ArrayList<>();
+
+                    for (Parameter parameter : method.getParameters()) {
+                        parameters.add(Factories.parameter(parameter.getType(), parameter.getName()));
+                    }
+
+                    MethodDeclaration targetMethod = MethodDeclaration.Builder.builder()
+                            .modifiers(KoresModifier.PUBLIC)
+                            .name(method.getName())
+                            .returnType(method.getReturnType())
+                            .parameters(parameters)
+                            .build();
+
+                    methodSpecs.add(new MethodSpec(targetMethod,
+                            RuntimeSpecResolver.resolveDefaultImpl(method, defaultImpl.value())));
+                }
+            } else if (!Modifier.isStatic(method.getModifiers())) {
+                builderMethods.add(method);
+            }
+        }
+
+        List<PropertySpec> propertySpecs = new ArrayList<>();
+        // Property name, type and generic type
+        List<Object[]> properties = new ArrayList<>();
+
+        if (features.contains(BuilderFeature.BUILDER_ARGUMENT)) {
+            if (!baseClass.isInterface()
+                    || factory.getParameterCount() != 1
+                    || factory.getParameterTypes()[0] != baseClass)
+                throw new IllegalArgumentException("Factory of builder with 'builderArgument' must have a single parameter of base type '"
+                        + baseClass.getCanonicalName() + "' and the base type must be an interface.");
+
+            RuntimeSpecResolver.checkBuilderArgumentBase(baseClass);
+
+            for (Method getter : baseClass.getMethods()) {
+                String getterName = getter.getName();
+
+                if (getterName.startsWith("get") && getterName.length() > 3
+                        && getter.getParameterCount() == 0
+                        && !getter.isDefault()
+                        && !Modifier.isStatic(getter.getModifiers())) {
+                    properties.add(new Object[]{StringsKt.decapitalize(getterName.substring(3)),
+                            getter.getReturnType(), getter.getGenericReturnType()});
+                }
+            }
+        } else {
+            for (Parameter parameter : factory.getParameters()) {
+                if (!parameter.isNamePresent())
+                    throw new IllegalArgumentException("Parameter names of '" + factory + "' are not available, compile the class with '-parameters' flag.");
+
+                properties.add(new Object[]{parameter.getName(), parameter.getType(), parameter.getParameterizedType()});
+            }
+        }
+
+        for (Object[] property : properties) {
+            String name = (String) property[0];
+            Class<?> propertyClass = (Class<?>) property[1];
+            Type parameterizedType = (Type) property[2];
+            String capitalized = StringsKt.capitalize(name);
+
+            Method getter = RuntimeSpecResolver.getMethod(baseClass.getMethods(), "get" + capitalized);
+            Method withMethod = RuntimeSpecResolver.getMethod(builderMethods.toArray(new Method[0]), "with" + capitalized);
+
+            if (getter == null)
+                throw new IllegalArgumentException("Missing getter 'get" + capitalized + "' method of property '" + name + "'.");
+
+            if (withMethod == null || withMethod.getParameterCount() != 1)
+                throw new IllegalArgumentException("Missing Builder 'with" + capitalized + "' method of property '" + name + "'.");
+
+            KoresType propertyType = RuntimeSpecResolver.toKoresType(parameterizedType);
+            KoresType setterType = RuntimeSpecResolver.toKoresType(withMethod.getGenericParameterTypes()[0]);
+            Class<?> setterClass = withMethod.getParameterTypes()[0];
+
+            KoresType type_ = propertyType;
+            boolean isOptional = false;
+
+            if (propertyClass == Optional.class
+                    && setterClass != Optional.class
+                    && parameterizedType instanceof ParameterizedType) {
+                type_ = RuntimeSpecResolver.toKoresType(
+                        ((ParameterizedType) parameterizedType).getActualTypeArguments()[0]);
+                isOptional = true;
+            }
+
+            PropertyInfo propertyInfo = withMethod.getAnnotation(PropertyInfo.class);
+
+            if (propertyInfo != null) {
+                String defaultsPropertyName = propertyInfo.defaultsPropertyName().isEmpty()
+                                              ? name
+                                              : propertyInfo.defaultsPropertyName();
+
+                if (!defaultsPropertyName.equals(name)
+                        && RuntimeSpecResolver.getMethod(baseClass.getMethods(),
+                        "get" + StringsKt.capitalize(defaultsPropertyName)) == null)
+                    throw new IllegalArgumentException("Specified property name '" + defaultsPropertyName + "' cannot be found!.");
+
+                MethodRefSpec defaultValue = DefaultUtil.isDefault(propertyInfo.defaultValue())
+                                             ? null
+                                             : RuntimeSpecResolver.resolve(propertyInfo.defaultValue(), false,
+                                                     new Class<?>[]{VariableBase.class},
+                                                     setterClass, new Class<?>[]{String.class, Class.class});
+
+                MethodRefSpec validator = DefaultUtil.isDefault(propertyInfo.validator())
+                                          ? null
+                                          : RuntimeSpecResolver.resolve(propertyInfo.validator().value(), false,
+                                                  new Class<?>[]{VariableBase.class, Instruction.class},
+                                                  Void.TYPE, new Class<?>[]{setterClass, String.class, Class.class});
+
+                propertySpecs.add(new PropertySpec(name, defaultsPropertyName, type_, setterType,
+                        propertyInfo.isNullable(), isOptional, defaultValue, validator));
+            } else {
+                propertySpecs.add(new PropertySpec(name, name, type_, setterType,
+                        false, isOptional, null, null));
+            }
+        }
+
+        return new BuilderSpec(builderQualifiedName, factoryClass, factoryResultType, factoryMethodName,
+                baseType, KoresTypes.getKoresType(builder), propertySpecs, methodSpecs, features);
+    }
+
+    private static Class<?> getBuilderClass(Class<?> baseClass) {
+        for (Class<?> declared : baseClass.getDeclaredClasses()) {
+            if (declared.getSimpleName().equals("Builder")) {
+                if (!declared.isInterface())
+                    throw new IllegalArgumentException("Invalid 'Builder' in base type '" + baseClass.getCanonicalName() + "': The 'Builder' must be an interface.");
+
+                return declared;
+            }
+        }
+
+        throw new IllegalArgumentException("Cannot find Builder class in base type '" + baseClass.getCanonicalName() + "'.");
+    }
+
+    /**
+     * Checks that all abstract methods of {@code baseClass} are {@code get} getters, which are the only methods that a
+     * builder with {@link BuilderFeature#BUILDER_ARGUMENT} implements.
+     */
+    private static void checkBuilderArgumentBase(Class<?> baseClass) {
+        Set<String> implemented = new HashSet<>();
+        Set<String> unsupported = new LinkedHashSet<>();
+
+        for (Method method : baseClass.getMethods()) {
+            if (!Modifier.isAbstract(method.getModifiers()))
+                implemented.add(RuntimeSpecResolver.signature(method));
+        }
+
+        for (Method method : baseClass.getMethods()) {
+            String name = method.getName();
+            String signature = RuntimeSpecResolver.signature(method);
+
+            if (Modifier.isAbstract(method.getModifiers())
+                    && !implemented.contains(signature)
+                    && !(name.startsWith("get") && name.length() > 3 && method.getParameterCount() == 0)
+                    && !RuntimeSpecResolver.isObjectMethod(method))
+                unsupported.add(signature);
+        }
+
+        if (!unsupported.isEmpty())
+            throw new IllegalArgumentException("Base type '" + baseClass.getCanonicalName() + "' of builder with 'builderArgument' "
+                    + "has abstract methods which are not 'get' getters and cannot be implemented by the builder: "
+                    + String.join(", ", unsupported) + ".");
+    }
+
+    private static boolean isObjectMethod(Method method) {
+        try {
+            Object.class.getMethod(method.getName(), method.getParameterTypes());
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static String signature(Method method) {
+        return Arrays.stream(method.getParameterTypes())
+                .map(Class::getTypeName)
+                .collect(Collectors.joining(", ", method.getName() + "(", ")"));
+    }
+
+    private static Method getMethod(Method[] methods, String name) {
+        for (Method method : methods) {
+            if (method.getName().equals(name))
+                return method;
+        }
+
+        return null;
+    }
+
+    private static MethodRefSpec resolveDefaultImpl(Method annotated, MethodRef methodRef) {
+        Class<?>[] parameterTypes = annotated.getParameterTypes();
+
+        if (methodRef.name().startsWith(":"))
+            return RuntimeSpecResolver.resolve(methodRef, true, null, annotated.getReturnType(), parameterTypes);
+
+        Class<?>[] ptypes = new Class<?>[parameterTypes.length + 1];
+
+        ptypes[0] = annotated.getDeclaringClass();
+        System.arraycopy(parameterTypes, 0, ptypes, 1, parameterTypes.length);
+
+        return RuntimeSpecResolver.resolve(methodRef, false, new Class<?>[]{MethodDeclaration.class, List.class},
+                annotated.getReturnType(), ptypes);
+    }
+
+    /**
+     * Resolves the method referenced by {@code methodRef}, first using the {@link Inline} signature, then using the
+     * regular signature.
+     *
+     * @param methodRef     Method reference.
+     * @param isThis        Whether the method is a method of the builder.
+     * @param inlinePtypes  Parameter types of inline method, or null if the method cannot be inline.
+     * @param rtype         Return type of regular method.
+     * @param ptypes        Parameter types of regular method.
+     * @return Spec of resolved method.
+     */
+    private static MethodRefSpec resolve(MethodRef methodRef, boolean isThis, Class<?>[] inlinePtypes,
+                                         Class<?> rtype, Class<?>[] ptypes) {
+        Class<?> localization = methodRef.value();
+        String name = isThis ? methodRef.name().substring(1) : methodRef.name();
+        Class<?>[] explicit = methodRef.parameterTypes();
+
+        if (explicit.length == 1 && DefaultUtil.isDefaultType(explicit[0]))
+            explicit = null;
+
+        Method method = null;
+        boolean isInline = false;
+
+        if (inlinePtypes != null) {
+            method = RuntimeSpecResolver.findMethod(localization, name, explicit != null ? explicit : inlinePtypes);
+
+            if (method != null && method.getReturnType() != Instruction.class)
+                method = null;
+
+            isInline = method != null && method.isAnnotationPresent(Inline.class);
+        }
+
+        if (method == null)
+            method = RuntimeSpecResolver.findMethod(localization, name, explicit != null ? explicit : ptypes);
+
+        if (method == null)
+            throw new IllegalArgumentException("Cannot find referenced method '" + localization.getCanonicalName()
+                    + "." + name + Arrays.toString(explicit != null ? explicit : ptypes) + "'!");
+
+        if (!DefaultUtil.isDefaultType(methodRef.returnType()) && method.getReturnType() != methodRef.returnType())
+            throw new IllegalArgumentException("Referenced method '" + method + "' must return '"
+                    + methodRef.returnType().getCanonicalName() + "'!");
+
+        if (!isInline && !isThis && !rtype.isAssignableFrom(method.getReturnType()))
+            throw new IllegalArgumentException("Referenced method '" + method + "' must return '"
+                    + rtype.getCanonicalName() + "'!");
+
+        if (!isThis && (!Modifier.isPublic(method.getModifiers()) || !Modifier.isStatic(method.getModifiers())))
+            throw new IllegalArgumentException("Referenced method '" + method + "' must be public and static!");
+
+        return new MethodRefSpec(isThis, isInline, new MethodTypeSpec(localization, method.getName(),
+                new TypeSpec(method.getReturnType(), Arrays.asList(method.getParameterTypes()))));
+    }
+
+    private static Method findMethod(Class<?> localization, String name, Class<?>[] ptypes) {
+        try {
+            return localization.getMethod(name, ptypes);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Converts reflection {@link Type} to {@link KoresType}. Wildcard types are converted to their upper bound, the
+     * generated builder is only used as bytecode, so only erasure and parameterized types of optional properties are
+     * relevant.
+     *
+     * @param type Type to convert.
+     * @return {@link KoresType} corresponding to {@code type}.
+     */
+    static KoresType toKoresType(Type type) {
+        if (type instanceof Class<?>) {
+            return KoresTypes.getKoresType((Class<?>) type);
+        } else if (type instanceof ParameterizedType) {
+            ParameterizedType parameterizedType = (ParameterizedType) type;
+            Type[] arguments = parameterizedType.getActualTypeArguments();
+            KoresType[] koresArguments = new KoresType[arguments.length];
+
+            for (int i = 0; i < arguments.length; i++) {
+                koresArguments[i] = RuntimeSpecResolver.toKoresType(arguments[i]);
+            }
+
+            return Generic.type(RuntimeSpecResolver.toKoresType(parameterizedType.getRawType())).of(koresArguments);
+        } else if (type instanceof WildcardType) {
+            return RuntimeSpecResolver.toKoresType(((WildcardType) type).getUpperBounds()[0]);
+        } else if (type instanceof TypeVariable<?>) {
+            return RuntimeSpecResolver.toKoresType(((TypeVariable<?>) type).getBounds()[0]);
+        } else {
+            throw new IllegalArgumentException("Unsupported type '" + type + "'!");
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator.spec;
+
+/**
+ * Optional features of generated builders.
+ */
+public enum BuilderFeature {
+    /**
+     * Generates a {@code combine(Builder other)} method that merges the state of another builder
+     * and a {@code collector()} factory that aggregates builders in parallel streams.
+     *
+     * @see com.github.jonathanxd.buildergenerator.annotation.GenBuilder#combinable()
+     */
+    COMBINE,
+
+    /**
+     * Builder implements the base class and is passed as the only argument of the factory.
+     *
+     * @see com.github.jonathanxd.buildergenerator.annotation.GenBuilder#builderArgument()
+     */
+    BUILDER_ARGUMENT,
+
+    /**
+     * Generated builder reports builds, validation failures and default value invocations to {@link
+     * com.github.jonathanxd.buildergenerator.metrics.BuilderMetrics}.
+     *
+     * @see com.github.jonathanxd.buildergenerator.annotation.GenBuilder#metrics()
+     */
+    METRICS,
+
+    /**
+     * Generates a {@code buildTrusted()} method that builds the instance without verifying property values.
+     *
+     * @see com.github.jonathanxd.buildergenerator.annotation.GenBuilder#trustedBuild()
+     */
+    TRUSTED_BUILD,
+
+    /**
+     * Generated builder implements {@link Cloneable} and provides a {@code copy()} method which duplicates the builder
+     * state.
+     *
+     * @see com.github.jonathanxd.buildergenerator.annotation.GenBuilder#copyable()
+     */
+    COPY,
+
+    /**
+     * Builder keeps the instance it was created from and {@code build()} returns it if no property was changed.
+     *
+     * @see com.github.jonathanxd.buildergenerator.annotation.GenBuilder#preserveIdentity()
+     */
+    PRESERVE_IDENTITY
+}
@@ -29,8 +29,11 @@ package com.github.jonathanxd.buildergenerator.spec;
 
 import com.github.jonathanxd.kores.type.KoresType;
 
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Specification of the builder.
@@ -77,6 +80,11 @@ public final class BuilderSpec {
      */
     private final List<MethodSpec> methodSpecs;
 
+    /**
+     * Optional features to generate.
+     */
+    private final Set<BuilderFeature> features;
+
     /**
      * Construct builder specification.
      *
@@ -89,6 +97,22 @@ public final class BuilderSpec {
      * @param methodSpecs          Non-property method specification.
      */
     public BuilderSpec(String builderQualifiedName, KoresType factoryClass, KoresType factoryResultType, String factoryMethodName, KoresType baseClass, KoresType builderBaseClass, List<PropertySpec> properties, List<MethodSpec> methodSpecs) {
+        this(builderQualifiedName, factoryClass, factoryResultType, factoryMethodName, baseClass, builderBaseClass, properties, methodSpecs, Collections.emptySet());
+    }
+
+    /**
+     * Construct builder specification.
+     *
+     * @param builderQualifiedName Builder qualified name.
+     * @param factoryClass         Factory class.
+     * @param factoryResultType    Factory result type (base class implementation/builder result)
+     * @param factoryMethodName    Name of the factory method.
+     * @param baseClass            Base class.
+     * @param properties           Properties to generate builder.
+     * @param methodSpecs          Non-property method specification.
+     * @param features             Optional features to generate.
+     */
+    public BuilderSpec(String builderQualifiedName, KoresType factoryClass, KoresType factoryResultType, String factoryMethodName, KoresType baseClass, KoresType builderBaseClass, List<PropertySpec> properties, List<MethodSpec> methodSpecs, Set<BuilderFeature> features) {
         this.builderQualifiedName = builderQualifiedName;
         this.factoryClass = factoryClass;
         this.factoryResultType = factoryResultType;
@@ -97,6 +121,9 @@ public final class BuilderSpec {
         this.builderBaseClass = builderBaseClass;
         this.properties = properties;
         this.methodSpecs = methodSpecs;
+        this.features = features.isEmpty()
+                        ? Collections.emptySet()
+                        : Collections.unmodifiableSet(EnumSet.copyOf(features));
     }
 
     /**
@@ -171,4 +198,23 @@ public final class BuilderSpec {
     public List<MethodSpec> getMethodSpecs() {
         return this.methodSpecs;
     }
+
+    /**
+     * Gets the optional features to generate.
+     *
+     * @return Optional features to generate.
+     */
+    public Set<BuilderFeature> getFeatures() {
+        return this.features;
+    }
+
+    /**
+     * Returns true if {@code feature} should be generated.
+     *
+     * @param feature Feature to check.
+     * @return True if {@code feature} should be generated.
+     */
+    public boolean hasFeature(BuilderFeature feature) {
+        return this.features.contains(feature);
+    }
 }
@@ -0,0 +1,127 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator.spec;
+
+import com.github.jonathanxd.kores.type.KoresType;
+
+import java.util.List;
+
+/**
+ * Specification of the mapper.
+ */
+public final class MapperSpec {
+
+    /**
+     * Mapper name.
+     */
+    private final String mapperQualifiedName;
+
+    /**
+     * Source base class.
+     */
+    private final KoresType fromClass;
+
+    /**
+     * Target base class.
+     */
+    private final KoresType toClass;
+
+    /**
+     * Target builder base class (inner class of target base class).
+     */
+    private final KoresType toBuilderClass;
+
+    /**
+     * Properties to map. {@link PropertySpec#getDefaultsPropertyName()} is the name of the source
+     * property, {@link PropertySpec#getType()} is the type of the source property and {@link
+     * PropertySpec#getBuilderSetterType()} is the type of the target setter.
+     */
+    private final List<PropertySpec> properties;
+
+    /**
+     * Construct mapper specification.
+     *
+     * @param mapperQualifiedName Mapper qualified name.
+     * @param fromClass           Source base class.
+     * @param toClass             Target base class.
+     * @param toBuilderClass      Target builder base class (inner class of target base class).
+     * @param properties          Properties to map.
+     */
+    public MapperSpec(String mapperQualifiedName, KoresType fromClass, KoresType toClass, KoresType toBuilderClass, List<PropertySpec> properties) {
+        this.mapperQualifiedName = mapperQualifiedName;
+        this.fromClass = fromClass;
+        this.toClass = toClass;
+        this.toBuilderClass = toBuilderClass;
+        this.properties = properties;
+    }
+
+    /**
+     * Gets the mapper qualified name.
+     *
+     * @return Mapper qualified name.
+     */
+    public String getMapperQualifiedName() {
+        return this.mapperQualifiedName;
+    }
+
+    /**
+     * Gets the source base class.
+     *
+     * @return Source base class.
+     */
+    public KoresType getFromClass() {
+        return this.fromClass;
+    }
+
+    /**
+     * Gets the target base class.
+     *
+     * @return Target base class.
+     */
+    public KoresType getToClass() {
+        return this.toClass;
+    }
+
+    /**
+     * Gets the 'Builder' class of target base class.
+     *
+     * @return 'Builder' class of target base class.
+     */
+    public KoresType getToBuilderClass() {
+        return this.toBuilderClass;
+    }
+
+    /**
+     * Gets properties to map.
+     *
+     * @return Properties to map.
+     */
+    public List<PropertySpec> getProperties() {
+        return this.properties;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator.spec;
+
+import com.github.jonathanxd.kores.type.KoresType;
+
+import java.util.List;
+
+/**
+ * Specification of the builder registry.
+ *
+ * @see com.github.jonathanxd.buildergenerator.registry.BuilderRegistry
+ */
+public final class RegistrySpec {
+
+    /**
+     * Registry name.
+     */
+    private final String registryQualifiedName;
+
+    /**
+     * Registered builders, the index of the entry is the id of the builder.
+     */
+    private final List<Entry> entries;
+
+    /**
+     * Construct registry specification.
+     *
+     * @param registryQualifiedName Registry qualified name.
+     * @param entries               Registered builders.
+     */
+    public RegistrySpec(String registryQualifiedName, List<Entry> entries) {
+        this.registryQualifiedName = registryQualifiedName;
+        this.entries = entries;
+    }
+
+    /**
+     * Gets the registry qualified name.
+     *
+     * @return Registry qualified name.
+     */
+    public String getRegistryQualifiedName() {
+        return this.registryQualifiedName;
+    }
+
+    /**
+     * Gets registered builders, the index of the entry is the id of the builder.
+     *
+     * @return Registered builders.
+     */
+    public List<Entry> getEntries() {
+        return this.entries;
+    }
+
+    /**
+     * Registered builder.
+     */
+    public static final class Entry {
+
+        /**
+         * Base class.
+         */
+        private final KoresType baseClass;
+
+        /**
+         * Builder class.
+         */
+        private final KoresType builderClass;
+
+        /**
+         * Construct registry entry.
+         *
+         * @param baseClass    Base class.
+         * @param builderClass Builder class.
+         */
+        public Entry(KoresType baseClass, KoresType builderClass) {
+            this.baseClass = baseClass;
+            this.builderClass = builderClass;
+        }
+
+        /**
+         * Gets the base class.
+         *
+         * @return Base class.
+         */
+        public KoresType getBaseClass() {
+            return this.baseClass;
+        }
+
+        /**
+         * Gets the builder class.
+         *
+         * @return Builder class.
+         */
+        public KoresType getBuilderClass() {
+            return this.builderClass;
+        }
+    }
+}
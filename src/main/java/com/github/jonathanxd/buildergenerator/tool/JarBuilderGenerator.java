@@ -0,0 +1,375 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator.tool;
+
+import com.github.jonathanxd.buildergenerator.BytecodeBatch;
+import com.github.jonathanxd.buildergenerator.annotation.GenBuilder;
+import com.github.jonathanxd.buildergenerator.runtime.RuntimeSpecResolver;
+import com.github.jonathanxd.buildergenerator.spec.BuilderSpec;
+import com.github.jonathanxd.buildergenerator.util.ClassFileUtil;
+import com.github.jonathanxd.kores.bytecode.BytecodeClass;
+import com.github.jonathanxd.kores.bytecode.VisitLineType;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.jar.JarEntry;
+import java.util.jar.JarInputStream;
+import java.util.jar.JarOutputStream;
+
+/**
+ * Generates builders of base interfaces of a compiled jar.
+ *
+ * A base interface is an interface which declares a nested {@code Builder} interface (like the base types of {@link
+ * GenBuilder}). Jar entries are streamed, classes which does not reference a {@code $Builder} class in the constant
+ * pool are discarded without parsing, the remaining classes are checked with ASM (skipping code).
+ *
+ * The factory of each base interface is provided with {@code --factory <base>=<factory class>[#<method>]} argument, or
+ * found by convention: the {@code <base>Impl} class of the same package. The constructor (or public static method of
+ * the factory name) with most parameters is used, if the factory class is annotated with {@link GenBuilder}, its
+ * settings are used. Base interfaces without factory are skipped.
+ *
+ * Specs are resolved with {@link RuntimeSpecResolver} (factories must be compiled with {@code -parameters}) and
+ * generated in parallel with {@link BytecodeBatch}. Generated classes are written to the output jar.
+ *
+ * Usage: {@code JarBuilderGenerator [--factory <base>=<factory class>[#<method>]]... <input jar> <output jar> [class
+ * path entries...]}
+ */
+public final class JarBuilderGenerator {
+
+    static final String FACTORY_OPTION = "--factory";
+    static final String FACTORY_SUFFIX = "Impl";
+    private static final String USAGE = "Usage: JarBuilderGenerator [" + FACTORY_OPTION
+            + " <base>=<factory class>[#<method>]]... <input jar> <output jar> [class path entries...]";
+    private static final byte[] BUILDER_NAME = "$Builder".getBytes(StandardCharsets.UTF_8);
+
+    private JarBuilderGenerator() {
+        throw new IllegalStateException();
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> factories = new HashMap<>();
+        List<String> arguments = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals(FACTORY_OPTION)) {
+                String factory = i + 1 < args.length ? args[++i] : "";
+                int separator = factory.indexOf('=');
+
+                if (separator <= 0 || separator == factory.length() - 1) {
+                    System.err.println("Invalid factory '" + factory + "'.");
+                    System.err.println(USAGE);
+                    System.exit(2);
+                    return;
+                }
+
+                factories.put(factory.substring(0, separator), factory.substring(separator + 1));
+            } else {
+                arguments.add(args[i]);
+            }
+        }
+
+        if (arguments.size() < 2) {
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        List<Path> classPath = new ArrayList<>();
+
+        for (int i = 2; i < arguments.size(); i++) {
+            classPath.add(Paths.get(arguments.get(i)));
+        }
+
+        try (BytecodeBatch batch = new BytecodeBatch(Runtime.getRuntime().availableProcessors(), VisitLineType.DISABLED)) {
+            int generated = JarBuilderGenerator.generate(Paths.get(arguments.get(0)), Paths.get(arguments.get(1)),
+                    classPath, factories, batch);
+
+            System.out.println("Generated " + generated + " builders.");
+        } catch (IllegalStateException e) {
+            System.err.println(e.getMessage());
+
+            for (Throwable suppressed : e.getSuppressed()) {
+                System.err.println(suppressed.getMessage());
+            }
+
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Generates builders of all base interfaces of {@code input} jar and writes them to {@code output} jar.
+     *
+     * @param input     Input jar.
+     * @param output    Output jar.
+     * @param classPath Class path required to load classes of {@code input} jar.
+     * @param factories Map of base interface binary name to factory, the factory is a class binary name (of which the
+     *                  constructor is used) optionally followed by {@code #} and the name of a public static method.
+     *                  Base interfaces which are not present in the map use the {@code <base>Impl} convention.
+     * @param batch     Batch used to generate builders.
+     * @return Number of generated builders.
+     * @throws IOException           If input jar cannot be read or output jar cannot be written.
+     * @throws IllegalStateException If any builder cannot be generated.
+     */
+    public static int generate(Path input, Path output, List<Path> classPath, Map<String, String> factories,
+                               BytecodeBatch batch) throws IOException {
+        List<String> classes;
+
+        try (InputStream inputStream = Files.newInputStream(input)) {
+            classes = JarBuilderGenerator.scan(inputStream);
+        }
+
+        List<URL> urls = new ArrayList<>();
+        urls.add(JarBuilderGenerator.toURL(input));
+
+        for (Path path : classPath) {
+            urls.add(JarBuilderGenerator.toURL(path));
+        }
+
+        List<IllegalStateException> failures = Collections.synchronizedList(new ArrayList<>());
+
+        try (URLClassLoader loader = new URLClassLoader(urls.toArray(new URL[0]), JarBuilderGenerator.class.getClassLoader());
+             JarOutputStream jarOutputStream = new JarOutputStream(Files.newOutputStream(output))) {
+
+            Iterable<BuilderSpec> specs = () -> classes.stream()
+                    .map(name -> JarBuilderGenerator.resolve(loader, name, factories.get(name), failures))
+                    .filter(Objects::nonNull)
+                    .iterator();
+
+            int[] generated = new int[1];
+
+            try {
+                batch.generate(specs, (builderSpec, bytecodeClasses) -> {
+                    synchronized (jarOutputStream) {
+                        JarBuilderGenerator.write(jarOutputStream, bytecodeClasses);
+                        generated[0]++;
+                    }
+                });
+            } catch (IllegalStateException e) {
+                failures.add(e);
+            }
+
+            if (!failures.isEmpty()) {
+                IllegalStateException exception = new IllegalStateException(
+                        "Failed to generate builders of '" + input + "'.", failures.get(0));
+
+                for (int i = 1; i < failures.size(); i++) {
+                    exception.addSuppressed(failures.get(i));
+                }
+
+                throw exception;
+            }
+
+            return generated[0];
+        }
+    }
+
+    /**
+     * Scans the jar stream for base interfaces, which are interfaces that declare a nested {@code Builder} interface.
+     *
+     * @param jar Jar input stream, entries are read sequentially.
+     * @return Binary names of found base interfaces.
+     * @throws IOException If the jar cannot be read.
+     */
+    public static List<String> scan(InputStream jar) throws IOException {
+        List<String> classes = new ArrayList<>();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(8192);
+        byte[] readBuffer = new byte[8192];
+
+        try (JarInputStream jarInputStream = new JarInputStream(jar, false)) {
+            JarEntry entry;
+
+            while ((entry = jarInputStream.getNextJarEntry()) != null) {
+                if (entry.isDirectory() || !entry.getName().endsWith(".class"))
+                    continue;
+
+                buffer.reset();
+
+                int read;
+                while ((read = jarInputStream.read(readBuffer)) != -1) {
+                    buffer.write(readBuffer, 0, read);
+                }
+
+                byte[] bytecode = buffer.toByteArray();
+
+                if (JarBuilderGenerator.contains(bytecode, BUILDER_NAME) && JarBuilderGenerator.isBaseInterface(bytecode))
+                    classes.add(ClassFileUtil.getBinaryName(bytecode));
+            }
+        }
+
+        return classes;
+    }
+
+    private static boolean isBaseInterface(byte[] bytecode) {
+        ClassReader reader = new ClassReader(bytecode);
+
+        if ((reader.getAccess() & Opcodes.ACC_INTERFACE) == 0)
+            return false;
+
+        String className = reader.getClassName();
+        boolean[] found = new boolean[1];
+
+        reader.accept(new ClassVisitor(Opcodes.ASM5) {
+            @Override
+            public void visitInnerClass(String name, String outerName, String innerName, int access) {
+                found[0] |= className.equals(outerName)
+                        && "Builder".equals(innerName)
+                        && (access & Opcodes.ACC_INTERFACE) != 0;
+            }
+        }, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+
+        return found[0];
+    }
+
+    private static BuilderSpec resolve(ClassLoader loader, String name, String factory,
+                                       List<IllegalStateException> failures) {
+        try {
+            Class<?> baseClass = Class.forName(name, false, loader);
+            String factoryClassName = factory;
+            String factoryMethodName = null;
+
+            if (factory == null) {
+                factoryClassName = name + FACTORY_SUFFIX;
+            } else if (factory.indexOf('#') != -1) {
+                factoryClassName = factory.substring(0, factory.indexOf('#'));
+                factoryMethodName = factory.substring(factory.indexOf('#') + 1);
+            }
+
+            Class<?> factoryClass;
+
+            try {
+                factoryClass = Class.forName(factoryClassName, false, loader);
+            } catch (ClassNotFoundException e) {
+                if (factory == null)
+                    return null; // No factory by convention, not a builder base.
+
+                throw e;
+            }
+
+            if (factoryMethodName == null && factoryClass.isAnnotationPresent(GenBuilder.class))
+                return RuntimeSpecResolver.resolve(factoryClass);
+
+            Executable executable = JarBuilderGenerator.getFactory(baseClass, factoryClass, factoryMethodName);
+
+            if (executable == null)
+                throw new IllegalArgumentException("Cannot find factory " + (factoryMethodName == null
+                                                                             ? "constructor"
+                                                                             : "method '" + factoryMethodName + "'")
+                        + " of '" + factoryClass.getName() + "'.");
+
+            return RuntimeSpecResolver.resolve(baseClass, executable);
+        } catch (ClassNotFoundException | LinkageError | IllegalArgumentException e) {
+            failures.add(new IllegalStateException("Failed to resolve builder specification of '" + name + "': " + e.getMessage(), e));
+            return null;
+        }
+    }
+
+    /**
+     * Gets the public constructor (or public static method named {@code methodName} which returns {@code baseClass})
+     * with most parameters.
+     */
+    private static Executable getFactory(Class<?> baseClass, Class<?> factoryClass, String methodName) {
+        Executable factory = null;
+        List<Executable> candidates = new ArrayList<>();
+
+        if (methodName == null) {
+            if (baseClass.isAssignableFrom(factoryClass))
+                Collections.addAll(candidates, factoryClass.getConstructors());
+        } else {
+            for (Method method : factoryClass.getMethods()) {
+                if (method.getName().equals(methodName)
+                        && Modifier.isStatic(method.getModifiers())
+                        && baseClass.isAssignableFrom(method.getReturnType()))
+                    candidates.add(method);
+            }
+        }
+
+        for (Executable candidate : candidates) {
+            if (factory == null || factory.getParameterCount() < candidate.getParameterCount())
+                factory = candidate;
+        }
+
+        return factory;
+    }
+
+    private static void write(JarOutputStream jarOutputStream, List<BytecodeClass> bytecodeClasses) {
+        try {
+            for (BytecodeClass bytecodeClass : bytecodeClasses) {
+                byte[] bytecode = bytecodeClass.getBytecode();
+
+                jarOutputStream.putNextEntry(new JarEntry(ClassFileUtil.getBinaryName(bytecode).replace('.', '/') + ".class"));
+
+                jarOutputStream.write(bytecode);
+
+                jarOutputStream.closeEntry();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write generated classes.", e);
+        }
+    }
+
+    private static boolean contains(byte[] bytes, byte[] value) {
+        int last = bytes.length - value.length;
+
+        outer:
+        for (int i = 0; i <= last; i++) {
+            for (int j = 0; j < value.length; j++) {
+                if (bytes[i + j] != value[j])
+                    continue outer;
+            }
+
+            return true;
+        }
+
+        return false;
+    }
+
+    private static URL toURL(Path path) throws MalformedURLException {
+        return path.toUri().toURL();
+    }
+}
@@ -30,6 +30,7 @@ package com.github.jonathanxd.buildergenerator.unification;
 import com.github.jonathanxd.buildergenerator.annotation.DefaultImpl;
 import com.github.jonathanxd.buildergenerator.annotation.DefaultUtil;
 import com.github.jonathanxd.buildergenerator.annotation.GenBuilder;
+import com.github.jonathanxd.buildergenerator.annotation.GenMapper;
 import com.github.jonathanxd.buildergenerator.annotation.Inline;
 import com.github.jonathanxd.buildergenerator.annotation.MethodRef;
 import com.github.jonathanxd.buildergenerator.annotation.PropertyInfo;
@@ -57,6 +58,7 @@ public class UnificationFactory {
     static {
         UNIFICATION_CLASSES.put(DefaultImpl.class, UnifiedDefaultImpl.class);
         UNIFICATION_CLASSES.put(GenBuilder.class, UnifiedGenBuilder.class);
+        UNIFICATION_CLASSES.put(GenMapper.class, UnifiedGenMapper.class);
         UNIFICATION_CLASSES.put(Inline.class, UnifiedInline.class);
         UNIFICATION_CLASSES.put(MethodRef.class, UnifiedMethodRef.class);
         UNIFICATION_CLASSES.put(PropertyInfo.class, UnifiedPropertyInfo.class);
@@ -80,6 +82,10 @@ public class UnificationFactory {
         return UnificationFactory.create(annotation, UnifiedGenBuilder.class, elements);
     }
 
+    public static UnifiedGenMapper createGenMapper(AnnotationMirror annotation, Elements elements) {
+        return UnificationFactory.create(annotation, UnifiedGenMapper.class, elements);
+    }
+
     public static UnifiedInline createInline(AnnotationMirror annotation, Elements elements) {
         return UnificationFactory.create(annotation, UnifiedInline.class, elements);
     }
@@ -106,6 +112,10 @@ public class UnificationFactory {
         return UnificationFactory.create(annotation, UnifiedGenBuilder.class, elements);
     }
 
+    public static UnifiedGenMapper create(GenMapper annotation, Elements elements) {
+        return UnificationFactory.create(annotation, UnifiedGenMapper.class, elements);
+    }
+
     public static UnifiedInline create(Inline annotation, Elements elements) {
         return UnificationFactory.create(annotation, UnifiedInline.class, elements);
     }
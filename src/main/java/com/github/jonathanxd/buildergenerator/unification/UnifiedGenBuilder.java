@@ -66,4 +66,49 @@ public interface UnifiedGenBuilder extends UnifiedAnnotation {
      */
     String qualifiedName();
 
+    /**
+     * Whether the builder should provide a {@code combine(Builder other)} method and a {@code
+     * collector()} factory.
+     *
+     * @return Whether the builder should provide {@code combine} and {@code collector}.
+     */
+    boolean combinable();
+
+    /**
+     * Whether the builder itself should be passed as the only argument of the factory, instead of one argument per
+     * property.
+     *
+     * @return Whether the builder should be passed as the only factory argument.
+     */
+    boolean builderArgument();
+
+    /**
+     * Whether the builder should report builds, validation failures and default value provider invocations to {@code
+     * BuilderMetrics} service.
+     *
+     * @return Whether the builder should report to {@code BuilderMetrics}.
+     */
+    boolean metrics();
+
+    /**
+     * Whether the builder should provide a {@code buildTrusted()} method which builds without verifying values.
+     *
+     * @return Whether the builder should provide a {@code buildTrusted()} method.
+     */
+    boolean trustedBuild();
+
+    /**
+     * Whether the builder should provide a {@code copy()} method which duplicates the builder state.
+     *
+     * @return Whether the builder should provide a {@code copy()} method.
+     */
+    boolean copyable();
+
+    /**
+     * Whether the builder should return the defaults instance from {@code build()} if no property was changed.
+     *
+     * @return Whether the builder should return the defaults instance if no property was changed.
+     */
+    boolean preserveIdentity();
+
 }
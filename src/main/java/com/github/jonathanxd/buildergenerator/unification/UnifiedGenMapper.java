@@ -0,0 +1,64 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator.unification;
+
+import com.github.jonathanxd.kores.extra.UnifiedAnnotation;
+import com.github.jonathanxd.kores.type.KoresType;
+
+/**
+ * Generates a mapper between two base classes.
+ *
+ * Unification version of {@link com.github.jonathanxd.buildergenerator.annotation.GenMapper}
+ */
+public interface UnifiedGenMapper extends UnifiedAnnotation {
+
+    /**
+     * Source base class, properties are read from getter methods of this class.
+     *
+     * @return Source base class.
+     */
+    KoresType from();
+
+    /**
+     * Target base class.
+     *
+     * The target class MUST have an inner-class interface 'Builder', properties are written
+     * through {@code with} methods of this inner-class.
+     *
+     * @return Target base class.
+     */
+    KoresType to();
+
+    /**
+     * Qualified name of the mapper.
+     *
+     * @return Qualified name of the mapper.
+     */
+    String qualifiedName();
+
+}
@@ -59,4 +59,9 @@ import com.github.jonathanxd.kores.extra.UnifiedAnnotation;
  * annotation.
  */
 public interface UnifiedInline extends UnifiedAnnotation {
+
+    /**
+     * @see com.github.jonathanxd.buildergenerator.annotation.Inline#pure()
+     */
+    boolean pure();
 }
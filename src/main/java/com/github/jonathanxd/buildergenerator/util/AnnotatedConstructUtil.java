@@ -29,6 +29,7 @@ package com.github.jonathanxd.buildergenerator.util;
 
 import com.github.jonathanxd.buildergenerator.annotation.DefaultImpl;
 import com.github.jonathanxd.buildergenerator.annotation.GenBuilder;
+import com.github.jonathanxd.buildergenerator.annotation.GenMapper;
 import com.github.jonathanxd.buildergenerator.annotation.Inline;
 import com.github.jonathanxd.buildergenerator.annotation.MethodRef;
 import com.github.jonathanxd.buildergenerator.annotation.PropertyInfo;
@@ -36,6 +37,7 @@ import com.github.jonathanxd.buildergenerator.annotation.Validator;
 import com.github.jonathanxd.buildergenerator.unification.UnificationFactory;
 import com.github.jonathanxd.buildergenerator.unification.UnifiedDefaultImpl;
 import com.github.jonathanxd.buildergenerator.unification.UnifiedGenBuilder;
+import com.github.jonathanxd.buildergenerator.unification.UnifiedGenMapper;
 import com.github.jonathanxd.buildergenerator.unification.UnifiedInline;
 import com.github.jonathanxd.buildergenerator.unification.UnifiedMethodRef;
 import com.github.jonathanxd.buildergenerator.unification.UnifiedPropertyInfo;
@@ -61,6 +63,7 @@ public final class AnnotatedConstructUtil {
     static {
         UNIFICATION_MAP.put(UnifiedDefaultImpl.class, DefaultImpl.class);
         UNIFICATION_MAP.put(UnifiedGenBuilder.class, GenBuilder.class);
+        UNIFICATION_MAP.put(UnifiedGenMapper.class, GenMapper.class);
         UNIFICATION_MAP.put(UnifiedInline.class, Inline.class);
         UNIFICATION_MAP.put(UnifiedMethodRef.class, MethodRef.class);
         UNIFICATION_MAP.put(UnifiedPropertyInfo.class, PropertyInfo.class);
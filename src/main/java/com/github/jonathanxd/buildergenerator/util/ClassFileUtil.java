@@ -0,0 +1,199 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Minimal class file reader, only reads the information required by the processor.
+ */
+public final class ClassFileUtil {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private ClassFileUtil() {
+        throw new IllegalStateException();
+    }
+
+    /**
+     * Reads the binary name ({@code com.example.Outer$Inner}) of the class declared in {@code bytecode}.
+     *
+     * @param bytecode Class file bytes.
+     * @return Binary name of the class declared in {@code bytecode}.
+     * @throws IllegalArgumentException If {@code bytecode} is not a valid class file.
+     */
+    public static String getBinaryName(byte[] bytecode) {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytecode))) {
+            ConstantPool pool = ConstantPool.read(input);
+
+            input.readUnsignedShort(); // access_flags
+
+            return pool.getClassName(input.readUnsignedShort()).replace('/', '.');
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalArgumentException("Invalid class file.", e);
+        }
+    }
+
+    /**
+     * Reads the {@code code_length} of all methods declared in {@code bytecode}, methods without {@code Code} attribute
+     * (abstract and native methods) are not included.
+     *
+     * @param bytecode Class file bytes.
+     * @return Map of method name and descriptor ({@code name(I)V}) to code length, in declaration order.
+     * @throws IllegalArgumentException If {@code bytecode} is not a valid class file.
+     */
+    public static Map<String, Integer> getCodeLengths(byte[] bytecode) {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytecode))) {
+            ConstantPool pool = ConstantPool.read(input);
+
+            input.readUnsignedShort(); // access_flags
+            input.readUnsignedShort(); // this_class
+            input.readUnsignedShort(); // super_class
+
+            input.skipBytes(input.readUnsignedShort() * 2); // interfaces
+
+            int fieldsCount = input.readUnsignedShort();
+
+            for (int i = 0; i < fieldsCount; i++) {
+                input.skipBytes(6); // access_flags, name_index, descriptor_index
+                skipAttributes(input);
+            }
+
+            Map<String, Integer> codeLengths = new LinkedHashMap<>();
+            int methodsCount = input.readUnsignedShort();
+
+            for (int i = 0; i < methodsCount; i++) {
+                input.readUnsignedShort(); // access_flags
+
+                String name = pool.getUtf8(input.readUnsignedShort());
+                String descriptor = pool.getUtf8(input.readUnsignedShort());
+                int attributesCount = input.readUnsignedShort();
+
+                for (int j = 0; j < attributesCount; j++) {
+                    String attributeName = pool.getUtf8(input.readUnsignedShort());
+                    int length = input.readInt();
+
+                    if (attributeName.equals("Code")) {
+                        input.skipBytes(4); // max_stack, max_locals
+                        codeLengths.put(name + descriptor, input.readInt());
+                        input.skipBytes(length - 8);
+                    } else {
+                        input.skipBytes(length);
+                    }
+                }
+            }
+
+            return codeLengths;
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalArgumentException("Invalid class file.", e);
+        }
+    }
+
+    private static void skipAttributes(DataInputStream input) throws IOException {
+        int count = input.readUnsignedShort();
+
+        for (int i = 0; i < count; i++) {
+            input.readUnsignedShort(); // attribute_name_index
+            input.skipBytes(input.readInt());
+        }
+    }
+
+    static final class ConstantPool {
+        private final String[] utf8;
+        private final int[] references;
+
+        private ConstantPool(String[] utf8, int[] references) {
+            this.utf8 = utf8;
+            this.references = references;
+        }
+
+        static ConstantPool read(DataInputStream input) throws IOException {
+            if (input.readInt() != MAGIC)
+                throw new IOException("Invalid magic number.");
+
+            input.readUnsignedShort(); // minor_version
+            input.readUnsignedShort(); // major_version
+
+            int count = input.readUnsignedShort();
+
+            String[] utf8 = new String[count];
+            int[] references = new int[count];
+
+            for (int i = 1; i < count; i++) {
+                int tag = input.readUnsignedByte();
+
+                switch (tag) {
+                    case 1: // Utf8
+                        utf8[i] = input.readUTF();
+                        break;
+                    case 7: // Class
+                    case 8: // String
+                    case 16: // MethodType
+                    case 19: // Module
+                    case 20: // Package
+                        references[i] = input.readUnsignedShort();
+                        break;
+                    case 15: // MethodHandle
+                        input.skipBytes(3);
+                        break;
+                    case 3: // Integer
+                    case 4: // Float
+                    case 9: // Fieldref
+                    case 10: // Methodref
+                    case 11: // InterfaceMethodref
+                    case 12: // NameAndType
+                    case 17: // Dynamic
+                    case 18: // InvokeDynamic
+                        input.skipBytes(4);
+                        break;
+                    case 5: // Long
+                    case 6: // Double
+                        input.skipBytes(8);
+                        i++;
+                        break;
+                    default:
+                        throw new IOException("Unknown constant pool tag '" + tag + "'.");
+                }
+            }
+
+            return new ConstantPool(utf8, references);
+        }
+
+        String getUtf8(int index) {
+            return this.utf8[index];
+        }
+
+        String getClassName(int index) {
+            return this.utf8[this.references[index]];
+        }
+    }
+}
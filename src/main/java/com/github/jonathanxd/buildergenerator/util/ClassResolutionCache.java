@@ -0,0 +1,98 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator.util;
+
+import com.github.jonathanxd.iutils.type.TypeUtil;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.lang.model.util.Elements;
+
+/**
+ * Per-compilation cache of class resolution results ({@link TypeUtil#resolveClass(String)}).
+ *
+ * Both found and not found classes are cached, so types which only exists in the compilation model (source types) are
+ * reflectively resolved only once per compilation instead of failing with a {@link ClassNotFoundException} every time.
+ * The cache is bound to the {@link Elements} of the compilation and released with it.
+ */
+public final class ClassResolutionCache {
+
+    private static final Map<Elements, ClassResolutionCache> CACHES =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Map<String, Optional<Class<?>>> results = new ConcurrentHashMap<>();
+
+    private ClassResolutionCache() {
+    }
+
+    /**
+     * Gets the cache of the compilation of {@code elements}.
+     *
+     * @param elements Elements of the compilation.
+     * @return Cache of the compilation of {@code elements}.
+     */
+    public static ClassResolutionCache get(Elements elements) {
+        return CACHES.computeIfAbsent(elements, e -> new ClassResolutionCache());
+    }
+
+    /**
+     * Resolves the class of {@code name} using the cache of the compilation of {@code elements}.
+     *
+     * @param name     Class name.
+     * @param elements Elements of the compilation, or null to resolve without cache.
+     * @return {@link Optional} of resolved class, or empty {@link Optional} if the class cannot be resolved.
+     */
+    public static Optional<Class<?>> resolveClass(String name, Elements elements) {
+        if (elements == null)
+            return ClassResolutionCache.load(name);
+
+        return ClassResolutionCache.get(elements).resolveClass(name);
+    }
+
+    /**
+     * Resolves the class of {@code name}.
+     *
+     * @param name Class name.
+     * @return {@link Optional} of resolved class, or empty {@link Optional} if the class cannot be resolved.
+     */
+    public Optional<Class<?>> resolveClass(String name) {
+        return this.results.computeIfAbsent(name, ClassResolutionCache::load);
+    }
+
+    private static Optional<Class<?>> load(String name) {
+        try {
+            return Optional.of(TypeUtil.resolveClass(name));
+        } catch (Exception | LinkageError e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -28,10 +28,15 @@
 package com.github.jonathanxd.buildergenerator.util;
 
 import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
 import java.util.Optional;
 
 import javax.annotation.processing.Filer;
 import javax.tools.FileObject;
+import javax.tools.JavaFileManager;
 import javax.tools.StandardLocation;
 
 public final class FilerUtil {
@@ -57,4 +62,51 @@ public final class FilerUtil {
         }
 
     }
+
+    /**
+     * Reads the content of the {@link FileObject} in the {@code pkg/name} of {@code location}.
+     *
+     * @param filer    Filer.
+     * @param location Location of the file.
+     * @param pkg      Package.
+     * @param name     Name.
+     * @return {@link Optional} of file content, or empty {@link Optional} if the file cannot be read.
+     */
+    public static Optional<String> read(Filer filer, JavaFileManager.Location location, String pkg, String name) {
+        try {
+            return FilerUtil.read(filer.getResource(location, pkg, name));
+        } catch (IOException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Reads the content of {@code fileObject}.
+     *
+     * @param fileObject File to read.
+     * @return {@link Optional} of file content, or empty {@link Optional} if the file cannot be read.
+     */
+    public static Optional<String> read(FileObject fileObject) {
+        try {
+            return Optional.of(fileObject.getCharContent(true).toString());
+        } catch (IOException | IllegalStateException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Sets the last modified time of {@code fileObject}, does nothing if the file is not in the file system.
+     *
+     * @param fileObject   File.
+     * @param lastModified Last modified time in milliseconds.
+     */
+    public static void setLastModified(FileObject fileObject, long lastModified) {
+        try {
+            URI uri = fileObject.toUri();
+
+            if ("file".equals(uri.getScheme()))
+                Files.setLastModifiedTime(Paths.get(uri), FileTime.fromMillis(lastModified));
+        } catch (IOException | RuntimeException ignored) {
+        }
+    }
 }
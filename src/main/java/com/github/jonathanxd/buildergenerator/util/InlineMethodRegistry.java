@@ -0,0 +1,141 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator.util;
+
+import com.github.jonathanxd.buildergenerator.annotation.Inline;
+import com.github.jonathanxd.buildergenerator.spec.MethodRefSpec;
+import com.github.jonathanxd.buildergenerator.spec.MethodSpec;
+import com.github.jonathanxd.buildergenerator.spec.PropertySpec;
+import com.github.jonathanxd.kores.Instruction;
+import com.github.jonathanxd.kores.common.MethodTypeSpec;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of resolved {@link Inline inline methods}.
+ *
+ * Each {@link MethodRefSpec} is resolved only once and invoked through a cached {@link MethodHandle}. Results of {@link
+ * Inline#pure() pure} inline methods are memoized per arguments (the property variable and the value access), so the
+ * same instruction is reused for all properties of same name and type.
+ *
+ * A registry should be shared by all builders generated in the same compilation. A registry retains the classes of
+ * resolved methods, so a long-lived registry must not be shared by builders of classes from different class loaders
+ * (see {@link com.github.jonathanxd.buildergenerator.runtime.RuntimeBuilders}).
+ */
+public final class InlineMethodRegistry {
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Instruction.class, Object[].class);
+
+    private final Map<MethodTypeSpec, Optional<InlineMethodInvoker>> invokers = new ConcurrentHashMap<>();
+
+    /**
+     * Resolve the {@link com.github.jonathanxd.buildergenerator.annotation.PropertyInfo#validator()} method.
+     *
+     * @param propertySpec Property specification.
+     * @return {@link Optional} of the validator invoker, or an empty {@link Optional} if the method is not inline.
+     */
+    public Optional<InlineMethodInvoker> resolveValidator(PropertySpec propertySpec) {
+        return propertySpec.getValidatorSpec().flatMap(this::resolve);
+    }
+
+    /**
+     * Resolve the {@link com.github.jonathanxd.buildergenerator.annotation.PropertyInfo#defaultValue()} method.
+     *
+     * @param propertySpec Property specification.
+     * @return {@link Optional} of the default value invoker, or an empty {@link Optional} if the method is not inline.
+     */
+    public Optional<InlineMethodInvoker> resolveDefaultMethod(PropertySpec propertySpec) {
+        return propertySpec.getDefaultValueSpec().flatMap(this::resolve);
+    }
+
+    /**
+     * Resolve the {@link com.github.jonathanxd.buildergenerator.annotation.DefaultImpl#value()} method.
+     *
+     * @param methodSpec Method specification.
+     * @return {@link Optional} of the default implementation invoker, or an empty {@link Optional} if the method is not
+     * inline.
+     */
+    public Optional<InlineMethodInvoker> resolveDefaultImpl(MethodSpec methodSpec) {
+        return methodSpec.getDefaultMethod().flatMap(this::resolve);
+    }
+
+    /**
+     * Resolve the {@link Inline inlinable method} and returns the cached invoker of the method.
+     *
+     * @param methodRefSpec Method specification.
+     * @return {@link Optional} of the inline method invoker, or an empty {@link Optional} if the method is not inline.
+     */
+    public Optional<InlineMethodInvoker> resolve(MethodRefSpec methodRefSpec) {
+        if (!methodRefSpec.isInline())
+            return Optional.empty();
+
+        return this.invokers.computeIfAbsent(methodRefSpec.getMethodTypeSpec(),
+                spec -> MethodResolver.resolve(methodRefSpec).map(InlineMethodRegistry::createInvoker));
+    }
+
+    private static InlineMethodInvoker createInvoker(Method method) {
+        MethodHandle handle;
+
+        try {
+            handle = MethodHandles.publicLookup()
+                    .unreflect(method)
+                    .asSpreader(Object[].class, method.getParameterCount())
+                    .asType(INVOKER_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Provided method must be public and static!", e);
+        }
+
+        Inline inline = method.getAnnotation(Inline.class);
+
+        if (inline == null || !inline.pure())
+            return args -> InlineMethodRegistry.invoke(handle, args);
+
+        Map<List<Object>, Instruction> results = new ConcurrentHashMap<>();
+
+        return args -> results.computeIfAbsent(Arrays.asList(args.clone()),
+                key -> InlineMethodRegistry.invoke(handle, args));
+    }
+
+    private static Instruction invoke(MethodHandle handle, Object[] args) {
+        try {
+            return (Instruction) handle.invokeExact(args);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RuntimeException(t);
+        }
+    }
+}
@@ -63,7 +63,9 @@ public final class MethodResolver {
      *
      * @param propertySpec Property specification.
      * @return {@link Optional} of the validator invoker, or an empty {@link Optional} if the method cannot be found.
+     * @deprecated Use {@link InlineMethodRegistry#resolveValidator(PropertySpec)}, which caches resolved invokers.
      */
+    @Deprecated
     public static Optional<InlineMethodInvoker> resolveValidator(PropertySpec propertySpec) {
         return MethodResolver.resolve(propertySpec::getValidatorSpec);
     }
@@ -73,7 +75,9 @@ public final class MethodResolver {
      *
      * @param propertySpec Property specification.
      * @return {@link Optional} of the default value invoker, or an empty {@link Optional} if the method cannot be found.
+     * @deprecated Use {@link InlineMethodRegistry#resolveDefaultMethod(PropertySpec)}, which caches resolved invokers.
      */
+    @Deprecated
     public static Optional<InlineMethodInvoker> resolveDefaultMethod(PropertySpec propertySpec) {
         return MethodResolver.resolve(propertySpec::getDefaultValueSpec);
     }
@@ -83,7 +87,9 @@ public final class MethodResolver {
      *
      * @param methodSpec Method specification.
      * @return {@link Optional} of the default implementation invoker, or an empty {@link Optional} if the method cannot be found.
+     * @deprecated Use {@link InlineMethodRegistry#resolveDefaultImpl(MethodSpec)}, which caches resolved invokers.
      */
+    @Deprecated
     public static Optional<InlineMethodInvoker> resolveDefaultImpl(MethodSpec methodSpec) {
         return MethodResolver.resolve(methodSpec::getDefaultMethod);
     }
@@ -94,7 +100,9 @@ public final class MethodResolver {
      *
      * @param supplier Provider of {@link MethodRefSpec inlinable method specification}.
      * @return {@link Optional} of the inline method invoker, or an empty {@link Optional} if the method cannot be found.
+     * @deprecated Use {@link InlineMethodRegistry}, which caches resolved invokers.
      */
+    @Deprecated
     public static Optional<InlineMethodInvoker> resolve(Supplier<Optional<MethodRefSpec>> supplier) {
         Optional<MethodRefSpec> validatorSpec = supplier.get();
 
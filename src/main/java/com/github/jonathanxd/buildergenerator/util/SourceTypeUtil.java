@@ -0,0 +1,98 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator.util;
+
+import com.github.jonathanxd.kores.type.GenericType;
+import com.github.jonathanxd.kores.type.KoresType;
+import com.github.jonathanxd.kores.type.KoresTypes;
+
+import java.lang.reflect.Type;
+
+/**
+ * Conversion of types to Java source form.
+ */
+public final class SourceTypeUtil {
+
+    private SourceTypeUtil() {
+        throw new IllegalStateException();
+    }
+
+    /**
+     * Converts {@code type} to Java source form (with qualified names), which is also the form read by {@link
+     * com.github.jonathanxd.kores.util.GenericTypeUtil#fromSourceString}.
+     *
+     * @param type Type.
+     * @return Source form of {@code type}.
+     */
+    public static String toSourceString(Type type) {
+        KoresType koresType = KoresTypes.getKoresType(type);
+
+        if (!(koresType instanceof GenericType))
+            return koresType.getCanonicalName();
+
+        GenericType genericType = (GenericType) koresType;
+        GenericType.Bound[] bounds = genericType.getBounds();
+        StringBuilder sb = new StringBuilder();
+
+        if (genericType.isType()) {
+            sb.append(genericType.getResolvedType().getCanonicalName());
+
+            if (bounds.length > 0) {
+                sb.append('<');
+
+                for (int i = 0; i < bounds.length; i++) {
+                    if (i > 0)
+                        sb.append(", ");
+
+                    sb.append(SourceTypeUtil.toSourceString(bounds[i].getType()));
+                }
+
+                sb.append('>');
+            }
+        } else {
+            sb.append(genericType.isWildcard() ? "?" : genericType.getName());
+
+            for (int i = 0; i < bounds.length; i++) {
+                sb.append(i > 0 ? " & " : bounds[i] instanceof GenericType.Super ? " super " : " extends ");
+                sb.append(SourceTypeUtil.toSourceString(bounds[i].getType()));
+            }
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Converts the erasure of {@code type} to Java source form.
+     *
+     * @param type Type.
+     * @return Source form of erasure of {@code type}.
+     */
+    public static String toErasureSourceString(Type type) {
+        return KoresTypes.getKoresType(CTypeUtil.resolve(type)).getCanonicalName();
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator.util;
+
+import com.github.jonathanxd.buildergenerator.spec.BuilderFeature;
+import com.github.jonathanxd.buildergenerator.spec.BuilderSpec;
+import com.github.jonathanxd.buildergenerator.spec.MethodRefSpec;
+import com.github.jonathanxd.buildergenerator.spec.MethodSpec;
+import com.github.jonathanxd.buildergenerator.spec.PropertySpec;
+import com.github.jonathanxd.kores.base.KoresParameter;
+import com.github.jonathanxd.kores.base.MethodDeclaration;
+import com.github.jonathanxd.kores.common.MethodTypeSpec;
+import com.github.jonathanxd.kores.type.GenericType;
+import com.github.jonathanxd.kores.type.KoresType;
+import com.github.jonathanxd.kores.type.KoresTypes;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Optional;
+
+/**
+ * Computes fingerprints of {@link BuilderSpec}. Two specs with same fingerprint generates the same builder class.
+ *
+ * The fingerprint includes the {@link #GENERATOR_VERSION generator version}, the {@link #PROCESSOR_VERSION processor
+ * version} and, as {@link com.github.jonathanxd.buildergenerator.annotation.Inline inline methods} generate part of the
+ * builder code, the hash of the class file of each inline method.
+ */
+public final class SpecFingerprint {
+
+    /**
+     * Version of the generated code, must be changed every time the generator output changes.
+     */
+    public static final int GENERATOR_VERSION = 1;
+
+    /**
+     * Version of BuilderGenerator artifact, or {@code dev} if the version is not available.
+     */
+    public static final String PROCESSOR_VERSION = Optional.ofNullable(SpecFingerprint.class.getPackage())
+            .map(Package::getImplementationVersion)
+            .orElse("dev");
+
+    private static final ClassValue<String> CLASS_HASHES = new ClassValue<String>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            return SpecFingerprint.classHash(type);
+        }
+    };
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private SpecFingerprint() {
+        throw new IllegalStateException();
+    }
+
+    /**
+     * Computes the SHA-256 fingerprint of {@code builderSpec}, {@link #GENERATOR_VERSION} and {@link
+     * #PROCESSOR_VERSION}.
+     *
+     * @param builderSpec Builder specification.
+     * @return Hexadecimal SHA-256 fingerprint.
+     */
+    public static String of(BuilderSpec builderSpec) {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append(GENERATOR_VERSION).append(' ').append(PROCESSOR_VERSION).append('\n');
+        sb.append(builderSpec.getBuilderQualifiedName()).append('\n');
+        SpecFingerprint.append(sb, builderSpec.getFactoryClass());
+        SpecFingerprint.append(sb, builderSpec.getFactoryResultType());
+        sb.append(builderSpec.getFactoryMethodName().orElse("<init>")).append('\n');
+        SpecFingerprint.append(sb, builderSpec.getBaseClass());
+        SpecFingerprint.append(sb, builderSpec.getBuilderBaseClass());
+
+        for (PropertySpec property : builderSpec.getProperties()) {
+            sb.append("property ").append(property.getName()).append(' ').append(property.getDefaultsPropertyName());
+            sb.append(' ').append(property.isNullable()).append(' ').append(property.isOptional()).append('\n');
+            SpecFingerprint.append(sb, property.getType());
+            SpecFingerprint.append(sb, property.getBuilderSetterType());
+            SpecFingerprint.append(sb, property.getDefaultValueSpec().orElse(null));
+            SpecFingerprint.append(sb, property.getValidatorSpec().orElse(null));
+        }
+
+        for (MethodSpec methodSpec : builderSpec.getMethodSpecs()) {
+            MethodDeclaration targetMethod = methodSpec.getTargetMethod();
+
+            sb.append("method ").append(targetMethod.getName()).append('\n');
+            SpecFingerprint.append(sb, targetMethod.getReturnType());
+
+            for (KoresParameter parameter : targetMethod.getParameters()) {
+                sb.append(parameter.getName()).append(' ');
+                SpecFingerprint.append(sb, parameter.getType());
+            }
+
+            SpecFingerprint.append(sb, methodSpec.getDefaultMethod().orElse(null));
+        }
+
+        for (BuilderFeature feature : BuilderFeature.values()) {
+            if (builderSpec.hasFeature(feature))
+                sb.append("feature ").append(feature.name()).append('\n');
+        }
+
+        return SpecFingerprint.sha256(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void append(StringBuilder sb, MethodRefSpec methodRefSpec) {
+        if (methodRefSpec == null) {
+            sb.append("null\n");
+            return;
+        }
+
+        MethodTypeSpec spec = methodRefSpec.getMethodTypeSpec();
+
+        sb.append(methodRefSpec.isThis()).append(' ').append(methodRefSpec.isInline()).append(' ');
+        sb.append(KoresTypes.getKoresType(spec.getLocalization()).getCanonicalName()).append(' ');
+        sb.append(spec.toMethodString()).append('\n');
+
+        if (methodRefSpec.isInline())
+            sb.append("code ").append(SpecFingerprint.inlineCodeHash(methodRefSpec)).append('\n');
+    }
+
+    /**
+     * Gets the hash of the class file which declares the inline method. Inline methods are executed by the generator,
+     * so a change to their code changes the generated builder even if the method signature is the same.
+     */
+    private static String inlineCodeHash(MethodRefSpec methodRefSpec) {
+        Optional<Method> method;
+
+        try {
+            method = MethodResolver.resolve(methodRefSpec);
+        } catch (IllegalArgumentException e) {
+            return "unresolved";
+        }
+
+        return method.map(value -> SpecFingerprint.CLASS_HASHES.get(value.getDeclaringClass())).orElse("unresolved");
+    }
+
+    private static String classHash(Class<?> type) {
+        String resource = type.getName().replace('.', '/') + ".class";
+        ClassLoader classLoader = type.getClassLoader();
+
+        try (InputStream inputStream = classLoader != null
+                                       ? classLoader.getResourceAsStream(resource)
+                                       : ClassLoader.getSystemResourceAsStream(resource)) {
+            if (inputStream == null)
+                return "unavailable";
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+
+            while ((read = inputStream.read(buffer)) != -1) {
+                bytes.write(buffer, 0, read);
+            }
+
+            return SpecFingerprint.sha256(bytes.toByteArray());
+        } catch (IOException e) {
+            return "unavailable";
+        }
+    }
+
+    private static void append(StringBuilder sb, java.lang.reflect.Type type) {
+        SpecFingerprint.appendType(sb, type == null ? null : KoresTypes.getKoresType(type));
+        sb.append('\n');
+    }
+
+    private static void appendType(StringBuilder sb, KoresType type) {
+        if (type == null) {
+            sb.append("null");
+        } else if (type instanceof GenericType) {
+            GenericType genericType = (GenericType) type;
+
+            sb.append(genericType.isType() ? genericType.getResolvedType().getCanonicalName() : genericType.getName());
+
+            GenericType.Bound[] bounds = genericType.getBounds();
+
+            if (bounds.length > 0) {
+                sb.append('<');
+
+                for (GenericType.Bound bound : bounds) {
+                    sb.append(bound.getSign()).append(' ');
+                    SpecFingerprint.appendType(sb, bound.getType());
+                    sb.append(',');
+                }
+
+                sb.append('>');
+            }
+        } else {
+            sb.append(type.getCanonicalName());
+        }
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            char[] hex = new char[digest.length * 2];
+
+            for (int i = 0; i < digest.length; i++) {
+                hex[i * 2] = HEX[(digest[i] >> 4) & 0xF];
+                hex[i * 2 + 1] = HEX[digest[i] & 0xF];
+            }
+
+            return new String(hex);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available!", e);
+        }
+    }
+}
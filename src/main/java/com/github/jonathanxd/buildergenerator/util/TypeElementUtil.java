@@ -27,7 +27,6 @@
  */
 package com.github.jonathanxd.buildergenerator.util;
 
-import com.github.jonathanxd.iutils.type.TypeUtil;
 import com.github.jonathanxd.kores.type.KoresType;
 import com.github.jonathanxd.kores.type.KoresTypes;
 import com.github.jonathanxd.kores.type.ModelKoresTypesKt;
@@ -76,13 +75,10 @@ public class TypeElementUtil {
      * @return {@link KoresType} corresponding to {@link TypeElement}.
      */
     public static KoresType toKoresType(TypeElement typeElement, Elements elements) {
-        return GenericTypeUtil.fromSourceString(typeElement.getQualifiedName().toString(), s -> {
-            try {
-                return KoresTypes.getKoresType(TypeUtil.resolveClass(s));
-            } catch (Exception e) {
-                return ModelKoresTypesKt.getKoresType(typeElement, elements);
-            }
-        });
+        return GenericTypeUtil.fromSourceString(typeElement.getQualifiedName().toString(), s ->
+                ClassResolutionCache.resolveClass(s, elements)
+                        .<KoresType>map(KoresTypes::getKoresType)
+                        .orElseGet(() -> ModelKoresTypesKt.getKoresType(typeElement, elements)));
     }
 
     /**
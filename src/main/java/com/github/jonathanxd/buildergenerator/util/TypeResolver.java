@@ -36,6 +36,8 @@ import com.github.jonathanxd.kores.util.KoresTypeResolverFunc;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Optional;
+
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.util.Elements;
 
@@ -43,6 +45,7 @@ import javax.lang.model.util.Elements;
  * Type resolver, resolves class literal.
  *
  * @see TypeUtil#resolveClass(String)
+ * @see ClassResolutionCache
  */
 public final class TypeResolver extends KoresTypeResolverFunc {
 
@@ -55,18 +58,19 @@ public final class TypeResolver extends KoresTypeResolverFunc {
     @NotNull
     @Override
     protected KoresType resolve(String s) {
-        try {
-            return KoresTypes.getKoresType(TypeUtil.resolveClass(s));
-        } catch (Exception e) {
-            if (elements != null) {
-                TypeElement typeElement = elements.getTypeElement(s);
+        Optional<Class<?>> resolved = ClassResolutionCache.resolveClass(s, this.elements);
 
-                if (typeElement != null) {
-                    return ModelKoresTypesKt.getKoresType(typeElement, this.elements);
-                }
-            }
+        if (resolved.isPresent())
+            return KoresTypes.getKoresType(resolved.get());
+
+        if (this.elements != null) {
+            TypeElement typeElement = this.elements.getTypeElement(s);
 
-            return new PlainKoresType(s, false);
+            if (typeElement != null) {
+                return ModelKoresTypesKt.getKoresType(typeElement, this.elements);
+            }
         }
+
+        return new PlainKoresType(s, false);
     }
 }
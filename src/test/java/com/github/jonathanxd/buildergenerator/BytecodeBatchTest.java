@@ -0,0 +1,139 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator;
+
+import com.github.jonathanxd.buildergenerator.spec.BuilderFeature;
+import com.github.jonathanxd.buildergenerator.spec.BuilderSpec;
+import com.github.jonathanxd.buildergenerator.spec.PropertySpec;
+import com.github.jonathanxd.buildergenerator.util.ClassFileUtil;
+import com.github.jonathanxd.kores.Types;
+import com.github.jonathanxd.kores.bytecode.BytecodeClass;
+import com.github.jonathanxd.kores.bytecode.VisitLineType;
+import com.github.jonathanxd.kores.type.KoresType;
+import com.github.jonathanxd.kores.type.KoresTypes;
+import com.github.jonathanxd.kores.type.PlainKoresType;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class BytecodeBatchTest {
+
+    @Test
+    public void parallelMatchesSequential() {
+        List<BuilderSpec> specs = new ArrayList<>();
+
+        for (int i = 0; i < 64; i++) {
+            specs.add(BytecodeBatchTest.spec(i));
+        }
+
+        KoresBuilderGenerator.Bytecode generator = new KoresBuilderGenerator.Bytecode(true,
+                VisitLineType.GEN_LINE_INSTRUCTION);
+
+        Map<String, byte[]> sequential = new ConcurrentHashMap<>();
+
+        for (BuilderSpec spec : specs) {
+            BytecodeBatchTest.put(sequential, generator.generate(spec, methodTypeSpecs -> {
+            }));
+        }
+
+        Map<String, byte[]> parallel = new ConcurrentHashMap<>();
+
+        // Less pending slots than specs, so the producer is blocked
+        try (BytecodeBatch batch = new BytecodeBatch(8, 4, VisitLineType.GEN_LINE_INSTRUCTION, true)) {
+            batch.generate(specs, (spec, classes) -> BytecodeBatchTest.put(parallel, classes));
+        }
+
+        Assert.assertEquals(sequential.keySet(), parallel.keySet());
+
+        for (Map.Entry<String, byte[]> entry : sequential.entrySet()) {
+            Assert.assertArrayEquals("Bytecode of '" + entry.getKey() + "' differs.",
+                    entry.getValue(), parallel.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    public void failuresAreReportedAfterBatch() {
+        List<BuilderSpec> specs = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            specs.add(BytecodeBatchTest.spec(i));
+        }
+
+        Map<String, byte[]> generated = new ConcurrentHashMap<>();
+
+        try (BytecodeBatch batch = new BytecodeBatch(2, VisitLineType.DISABLED)) {
+            batch.generate(specs, (spec, classes) -> {
+                if (spec.getBuilderQualifiedName().equals("com.builder.Builder1"))
+                    throw new IllegalArgumentException("Consumer failure");
+
+                BytecodeBatchTest.put(generated, classes);
+            });
+            Assert.fail("Batch must fail.");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("Failed to generate 1 builders.", e.getMessage());
+        }
+
+        // Other builders are still generated
+        Assert.assertTrue(generated.containsKey("com.builder.Builder0"));
+        Assert.assertTrue(generated.containsKey("com.builder.Builder2"));
+    }
+
+    private static void put(Map<String, byte[]> map, List<BytecodeClass> classes) {
+        for (BytecodeClass bytecodeClass : classes) {
+            byte[] bytecode = bytecodeClass.getBytecode();
+            map.put(ClassFileUtil.getBinaryName(bytecode), bytecode);
+        }
+    }
+
+    private static BuilderSpec spec(int index) {
+        List<PropertySpec> properties = new ArrayList<>();
+        KoresType[] types = {Types.STRING, Types.INT, Types.LONG, KoresTypes.getKoresType(List.class)};
+
+        for (int i = 0; i <= index % 16; i++) {
+            KoresType type = types[(index + i) % types.length];
+            properties.add(new PropertySpec("p" + i, "p" + i, type, type, i % 2 == 0, false, null, null));
+        }
+
+        return new BuilderSpec("com.builder.Builder" + index,
+                new PlainKoresType("com.Impl" + index, false),
+                new PlainKoresType("com.Impl" + index, false),
+                null,
+                new PlainKoresType("com.Base" + index, false),
+                KoresTypes.getKoresType(Builder.class),
+                properties,
+                Collections.emptyList(),
+                index % 3 == 0 ? EnumSet.of(BuilderFeature.COMBINE) : EnumSet.noneOf(BuilderFeature.class));
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator.apt;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+
+public class MetadataCacheTest {
+
+    private static final String ENTRY = BuilderMetadata.DIRECTORY + "com.Person$Builder" + BuilderMetadata.EXTENSION;
+
+    @Test
+    public void cachedUntilJarChanges() throws Exception {
+        Path jar = Files.createTempFile("bg-metadata", ".jar");
+        FileObject resource = MetadataCacheTest.resource(jar);
+
+        MetadataCacheTest.writeJar(jar, new BuilderMetadata(false));
+        Files.setLastModifiedTime(jar, FileTime.fromMillis(1000000000000L));
+
+        BuilderMetadata.Decoded decoded = MetadataCache.get(resource);
+
+        Assert.assertNotNull(decoded);
+        Assert.assertSame(decoded, MetadataCache.get(resource));
+
+        // Different size
+        BuilderMetadata changed = new BuilderMetadata(false);
+        changed.putProperty("withName(java.lang.String)", null, null);
+
+        MetadataCacheTest.writeJar(jar, changed);
+        Files.setLastModifiedTime(jar, FileTime.fromMillis(1000000000000L));
+
+        BuilderMetadata.Decoded changedDecoded = MetadataCache.get(resource);
+
+        Assert.assertNotSame(decoded, changedDecoded);
+        Assert.assertSame(changedDecoded, MetadataCache.get(resource));
+
+        // Same size, different last modified time
+        Files.setLastModifiedTime(jar, FileTime.fromMillis(1000000010000L));
+
+        Assert.assertNotSame(changedDecoded, MetadataCache.get(resource));
+    }
+
+    private static void writeJar(Path jar, BuilderMetadata metadata) throws IOException {
+        try (JarOutputStream jarOutputStream = new JarOutputStream(Files.newOutputStream(jar))) {
+            jarOutputStream.putNextEntry(new JarEntry(ENTRY));
+            metadata.write(jarOutputStream);
+            jarOutputStream.closeEntry();
+        }
+    }
+
+    /**
+     * Resource of metadata entry in {@code jar}, as provided by the Filer for class path jars.
+     */
+    private static FileObject resource(Path jar) {
+        URI uri = URI.create("jar:" + jar.toUri() + "!/" + ENTRY);
+
+        return new SimpleJavaFileObject(uri, JavaFileObject.Kind.OTHER) {
+            @Override
+            public InputStream openInputStream() throws IOException {
+                URLConnection connection = this.toUri().toURL().openConnection();
+                // Jar is rewritten by the test, cached jar files would be outdated
+                connection.setUseCaches(false);
+                return connection.getInputStream();
+            }
+        };
+    }
+}
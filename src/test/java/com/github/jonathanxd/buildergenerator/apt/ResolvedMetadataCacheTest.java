@@ -0,0 +1,103 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator.apt;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.lang.model.util.Elements;
+
+public class ResolvedMetadataCacheTest {
+
+    private static final String NAME = "com.Person$Builder";
+
+    @Test
+    public void secondLookupSkipsResolution() {
+        ResolvedMetadataCache cache = new ResolvedMetadataCache();
+        AtomicInteger resolutions = new AtomicInteger();
+        BuilderMetadata metadata = new BuilderMetadata(true);
+
+        BuilderMetadata first = cache.get(NAME, name -> {
+            resolutions.incrementAndGet();
+            return metadata;
+        });
+
+        BuilderMetadata second = cache.get(NAME, name -> {
+            resolutions.incrementAndGet();
+            return new BuilderMetadata(true);
+        });
+
+        Assert.assertSame(metadata, first);
+        Assert.assertSame(metadata, second);
+        Assert.assertEquals(1, resolutions.get());
+    }
+
+    @Test
+    public void absentMetadataIsCached() {
+        ResolvedMetadataCache cache = new ResolvedMetadataCache();
+        AtomicInteger resolutions = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            Assert.assertNull(cache.get(NAME, name -> {
+                resolutions.incrementAndGet();
+                return null;
+            }));
+        }
+
+        Assert.assertEquals(1, resolutions.get());
+    }
+
+    @Test
+    public void cacheIsBoundToCompilation() {
+        Elements elements = ResolvedMetadataCacheTest.elements();
+
+        Assert.assertSame(ResolvedMetadataCache.get(elements), ResolvedMetadataCache.get(elements));
+        Assert.assertNotSame(ResolvedMetadataCache.get(elements),
+                ResolvedMetadataCache.get(ResolvedMetadataCacheTest.elements()));
+    }
+
+    /**
+     * Elements of a distinct compilation, the cache only uses its identity.
+     */
+    private static Elements elements() {
+        return (Elements) Proxy.newProxyInstance(Elements.class.getClassLoader(), new Class<?>[]{Elements.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
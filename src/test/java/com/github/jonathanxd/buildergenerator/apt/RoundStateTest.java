@@ -0,0 +1,139 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator.apt;
+
+import com.google.testing.compile.JavaFileObjects;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.Completion;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
+/**
+ * Tests that {@link AnnotationProcessor} does not retain the elements of a round after the round.
+ */
+public class RoundStateTest {
+
+    @Test
+    public void roundStateIsCleared() throws IOException {
+        AnnotationProcessor processor = new AnnotationProcessor();
+        List<Boolean> cleared = new ArrayList<>();
+        Path classOutput = Files.createTempDirectory("bg-classes");
+        Path sourceOutput = Files.createTempDirectory("bg-sources");
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singletonList(classOutput.toFile()));
+            fileManager.setLocation(StandardLocation.SOURCE_OUTPUT, Collections.singletonList(sourceOutput.toFile()));
+
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, null, null,
+                    Arrays.asList(JavaFileObjects.forResource("Person.java"),
+                            JavaFileObjects.forResource("PersonImpl.java")));
+
+            task.setProcessors(Collections.singletonList(new RoundListener(processor, cleared)));
+
+            Assert.assertTrue(task.call());
+        }
+
+        Assert.assertTrue(Files.exists(sourceOutput.resolve("com/builder/PersonBuilder.java")));
+        // Round of sources, round of generated builder and final round
+        Assert.assertTrue(cleared.size() >= 2);
+        Assert.assertFalse(cleared.contains(false));
+    }
+
+    /**
+     * Delegates to {@link AnnotationProcessor} and records whether the round state was cleared after each round.
+     */
+    private static final class RoundListener implements Processor {
+        private final AnnotationProcessor processor;
+        private final List<Boolean> cleared;
+
+        RoundListener(AnnotationProcessor processor, List<Boolean> cleared) {
+            this.processor = processor;
+            this.cleared = cleared;
+        }
+
+        @Override
+        public Set<String> getSupportedOptions() {
+            return this.processor.getSupportedOptions();
+        }
+
+        @Override
+        public Set<String> getSupportedAnnotationTypes() {
+            return this.processor.getSupportedAnnotationTypes();
+        }
+
+        @Override
+        public SourceVersion getSupportedSourceVersion() {
+            return this.processor.getSupportedSourceVersion();
+        }
+
+        @Override
+        public void init(ProcessingEnvironment processingEnv) {
+            this.processor.init(processingEnv);
+        }
+
+        @Override
+        public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+            boolean result = this.processor.process(annotations, roundEnv);
+
+            this.cleared.add(this.processor.isRoundStateCleared());
+
+            return result;
+        }
+
+        @Override
+        public Iterable<? extends Completion> getCompletions(Element element, AnnotationMirror annotation,
+                                                             ExecutableElement member, String userText) {
+            return this.processor.getCompletions(element, annotation, member, userText);
+        }
+    }
+}
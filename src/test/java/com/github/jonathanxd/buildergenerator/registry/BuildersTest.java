@@ -0,0 +1,90 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator.registry;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+
+public class BuildersTest {
+
+    @Test
+    public void registriesAreMerged() {
+        Map<Class<?>, Builders.Entry> entries = Builders.load(Arrays.asList(
+                new TestRegistry("first", String.class), new OtherRegistry("second", Integer.class)));
+
+        Assert.assertEquals("first:0", entries.get(String.class).create());
+        Assert.assertEquals("second:0", entries.get(Integer.class).create());
+    }
+
+    @Test
+    public void duplicateBaseTypeFails() {
+        try {
+            Builders.load(Arrays.asList(
+                    new TestRegistry("first", String.class), new OtherRegistry("second", Integer.class, String.class)));
+            Assert.fail("Duplicate base type must not be loaded.");
+        } catch (IllegalStateException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("java.lang.String"));
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains(TestRegistry.class.getName()));
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains(OtherRegistry.class.getName()));
+        }
+    }
+
+    static class TestRegistry implements BuilderRegistry {
+        private final String name;
+        private final Class<?>[] baseTypes;
+
+        TestRegistry(String name, Class<?>... baseTypes) {
+            this.name = name;
+            this.baseTypes = baseTypes;
+        }
+
+        @Override
+        public Class<?>[] getBaseTypes() {
+            return this.baseTypes;
+        }
+
+        @Override
+        public Object createBuilder(int id) {
+            return this.name + ":" + id;
+        }
+
+        @Override
+        public Object createBuilder(int id, Object defaults) {
+            return this.name + ":" + id + ":" + defaults;
+        }
+    }
+
+    static final class OtherRegistry extends TestRegistry {
+        OtherRegistry(String name, Class<?>... baseTypes) {
+            super(name, baseTypes);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator.runtime;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class BuilderClassCacheTest {
+
+    private static final String KEY = "0123456789abcdef";
+
+    @Test
+    public void missAndHit() throws Exception {
+        Path directory = Files.createTempDirectory("bg-cache");
+        BuilderClassCache cache = new BuilderClassCache(directory);
+
+        Assert.assertNull(cache.load(KEY));
+
+        cache.store(KEY, BuilderClassCacheTest.classes());
+
+        BuilderClassCacheTest.assertClasses(cache.load(KEY));
+        Assert.assertNull(cache.load("fedcba9876543210"));
+    }
+
+    @Test
+    public void writesThroughTemporaryFile() throws Exception {
+        Path directory = Files.createTempDirectory("bg-cache");
+        BuilderClassCache cache = new BuilderClassCache(directory);
+
+        cache.store(KEY, BuilderClassCacheTest.classes());
+
+        // Temporary file is moved to the final location
+        Assert.assertEquals(1, BuilderClassCacheTest.files(directory).size());
+        Assert.assertTrue(Files.isRegularFile(directory.resolve(KEY + ".bgc")));
+    }
+
+    @Test
+    public void invalidEntryIsMiss() throws Exception {
+        Path directory = Files.createTempDirectory("bg-cache");
+        BuilderClassCache cache = new BuilderClassCache(directory);
+
+        Files.write(directory.resolve(KEY + ".bgc"), new byte[]{1, 2, 3});
+
+        Assert.assertNull(cache.load(KEY));
+
+        // Truncated entry
+        cache.store(KEY, BuilderClassCacheTest.classes());
+        byte[] bytes = Files.readAllBytes(directory.resolve(KEY + ".bgc"));
+        byte[] truncated = new byte[bytes.length - 1];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        Files.write(directory.resolve(KEY + ".bgc"), truncated);
+
+        Assert.assertNull(cache.load(KEY));
+    }
+
+    @Test
+    public void failedStoreIsIgnored() throws Exception {
+        Path file = Files.createTempFile("bg-cache", ".file");
+        // Directory cannot be created because the path is a file
+        BuilderClassCache cache = new BuilderClassCache(file);
+
+        cache.store(KEY, BuilderClassCacheTest.classes());
+
+        Assert.assertNull(cache.load(KEY));
+    }
+
+    @Test
+    public void concurrentWriters() throws Exception {
+        BuilderClassCacheTest.concurrentWriters(true);
+    }
+
+    @Test
+    public void concurrentWritersNonAtomicMove() throws Exception {
+        BuilderClassCacheTest.concurrentWriters(false);
+    }
+
+    private static void concurrentWriters(boolean atomicMove) throws Exception {
+        Path directory = Files.createTempDirectory("bg-cache");
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads * 2);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < threads; i++) {
+                // Each writer has its own instance, as writers of different JVMs would
+                BuilderClassCache cache = new BuilderClassCache(directory, atomicMove);
+
+                futures.add(executor.submit(() -> {
+                    start.await();
+
+                    for (int j = 0; j < 50; j++)
+                        cache.store(KEY, BuilderClassCacheTest.classes());
+
+                    return null;
+                }));
+
+                futures.add(executor.submit(() -> {
+                    start.await();
+
+                    for (int j = 0; j < 50; j++) {
+                        Map<String, byte[]> classes = cache.load(KEY);
+
+                        // Readers never see a partially written entry
+                        if (classes != null)
+                            BuilderClassCacheTest.assertClasses(classes);
+                    }
+
+                    return null;
+                }));
+            }
+
+            start.countDown();
+
+            for (Future<?> future : futures)
+                future.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        BuilderClassCacheTest.assertClasses(new BuilderClassCache(directory).load(KEY));
+        // No temporary file is left behind
+        Assert.assertEquals(1, BuilderClassCacheTest.files(directory).size());
+    }
+
+    private static List<Path> files(Path directory) throws IOException {
+        try (Stream<Path> stream = Files.list(directory)) {
+            return stream.collect(Collectors.toList());
+        }
+    }
+
+    private static Map<String, byte[]> classes() {
+        Map<String, byte[]> classes = new LinkedHashMap<>();
+
+        classes.put("com.builder.PointBuilder", "PointBuilder".getBytes(StandardCharsets.UTF_8));
+        classes.put("com.builder.PointBuilder$Combiner", new byte[4096]);
+
+        return classes;
+    }
+
+    private static void assertClasses(Map<String, byte[]> classes) {
+        Assert.assertNotNull(classes);
+        Assert.assertEquals(2, classes.size());
+        Assert.assertArrayEquals("PointBuilder".getBytes(StandardCharsets.UTF_8),
+                classes.get("com.builder.PointBuilder"));
+        Assert.assertArrayEquals(new byte[4096], classes.get("com.builder.PointBuilder$Combiner"));
+    }
+}
@@ -0,0 +1,434 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator.test;
+
+import com.google.common.io.Resources;
+import com.google.testing.compile.JavaFileObjects;
+
+import com.github.jonathanxd.buildergenerator.metrics.Metrics;
+import com.github.jonathanxd.buildergenerator.registry.BuilderRegistry;
+import com.github.jonathanxd.buildergenerator.runtime.RuntimeBuilders;
+import com.github.jonathanxd.buildergenerator.runtime.RuntimeSpecResolver;
+import com.github.jonathanxd.buildergenerator.test.fixture.Account;
+import com.github.jonathanxd.buildergenerator.test.fixture.Tags;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.stream.Collector;
+
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Tests behavior of generated builders by compiling and executing them.
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class GeneratedBuilderTest {
+
+    public static final JavaFileObject TAGS_IMPL = JavaFileObjects.forResource("TagsImpl.java");
+
+    public static final JavaFileObject POINT = JavaFileObjects.forResource("Point.java");
+
+    public static final JavaFileObject POINT_IMPL = JavaFileObjects.forResource("PointImpl.java");
+
+    public static final JavaFileObject POINT_FACTORY = JavaFileObjects.forResource("PointFactory.java");
+
+    @Test
+    public void combineKeepsUnsetProperties() {
+        TestCompiler.Result result = TestCompiler.create().compile(TAGS_IMPL).assertSuccess();
+
+        Tags.Builder a = GeneratedBuilderTest.tags(result)
+                .withName("a")
+                .withCount(3)
+                .withTags(Collections.singletonList("x"));
+
+        // A new builder is the identity of combine
+        Tags identity = GeneratedBuilderTest.build(a.combine(GeneratedBuilderTest.tags(result)));
+
+        Assert.assertEquals("a", identity.getName());
+        Assert.assertEquals(3, identity.getCount());
+        Assert.assertEquals(Collections.singletonList("x"), identity.getTags());
+
+        Tags left = GeneratedBuilderTest.build(GeneratedBuilderTest.tags(result).combine(a));
+
+        Assert.assertEquals("a", left.getName());
+        Assert.assertEquals(3, left.getCount());
+        Assert.assertEquals(Collections.singletonList("x"), left.getTags());
+
+        Tags merged = GeneratedBuilderTest.build(
+                a.combine(GeneratedBuilderTest.tags(result).withTags(Collections.singletonList("y"))));
+
+        Assert.assertEquals(3, merged.getCount());
+        Assert.assertEquals(Arrays.asList("x", "y"), merged.getTags());
+
+        Tags replaced = GeneratedBuilderTest.build(a.combine(GeneratedBuilderTest.tags(result).withCount(0)));
+
+        Assert.assertEquals(0, replaced.getCount());
+    }
+
+    @Test
+    public void collectorParallelMatchesSequential() throws Exception {
+        TestCompiler.Result result = TestCompiler.create().compile(TAGS_IMPL).assertSuccess();
+
+        Collector<Tags.Builder, ?, Tags> collector = (Collector<Tags.Builder, ?, Tags>)
+                result.load("com.builder.TagsBuilder").getMethod("collector").invoke(null);
+
+        List<Tags.Builder> builders = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++) {
+            Tags.Builder builder = GeneratedBuilderTest.tags(result);
+
+            if (i == 0)
+                builder.withName("tags");
+
+            if (i == 500)
+                builder.withCount(500);
+
+            // Leaves some builders empty
+            if (i % 3 != 0)
+                builder.withTags(Collections.singletonList("t" + i));
+
+            builders.add(builder);
+        }
+
+        // combine mutates accumulated builders, so each collection receives its own copies
+        Tags sequential = builders.stream().map(builder -> GeneratedBuilderTest.tags(result).combine(builder))
+                .collect(collector);
+        Tags parallel = builders.parallelStream().map(builder -> GeneratedBuilderTest.tags(result).combine(builder))
+                .collect(collector);
+
+        Assert.assertEquals("tags", parallel.getName());
+        Assert.assertEquals(500, parallel.getCount());
+        Assert.assertEquals(sequential.getName(), parallel.getName());
+        Assert.assertEquals(sequential.getCount(), parallel.getCount());
+        Assert.assertEquals(sequential.getTags(), parallel.getTags());
+    }
+
+    @Test
+    public void combineHasNoUncheckedOperations() throws Exception {
+        TestCompiler.Result result = TestCompiler.create()
+                .options("-Xlint:unchecked")
+                .compile(TAGS_IMPL)
+                .assertSuccess();
+
+        for (Diagnostic.Kind kind : new Diagnostic.Kind[]{Diagnostic.Kind.WARNING, Diagnostic.Kind.MANDATORY_WARNING}) {
+            Assert.assertFalse(result.messages(kind).toString(), result.hasMessage(kind, "unchecked"));
+        }
+
+        Assert.assertTrue(result.getSource("com.builder.TagsBuilder").contains("ArrayList<"));
+
+        // Set<? extends Person> is merged into a LinkedHashSet of Person
+        TestCompiler.Result wildcard = TestCompiler.create()
+                .compile(SimpleTest.INTERFACE, GeneratedBuilderTest.genBuilder("PersonImpl", "combinable = true"))
+                .assertSuccess();
+
+        Assert.assertTrue(wildcard.getSource("com.builder.PersonBuilder").contains("LinkedHashSet<"));
+    }
+
+    @Test
+    public void registry() throws Exception {
+        TestCompiler.Result result = TestCompiler.create()
+                .options("-Ajonathanxd.buildergenerator.registry=com.Builders")
+                .compile(POINT, POINT_IMPL)
+                .assertSuccess();
+
+        Path service = result.getClassOutput().resolve("META-INF/services/" + BuilderRegistry.class.getName());
+
+        Assert.assertTrue(Files.exists(service));
+        Assert.assertEquals("com.Builders", new String(Files.readAllBytes(service), StandardCharsets.UTF_8).trim());
+        Assert.assertTrue(Files.exists(result.getClassOutput().resolve("com/Builders.class")));
+        // Registry source must not be created in the last round
+        Assert.assertFalse(result.hasMessage(Diagnostic.Kind.WARNING, "last round"));
+
+        Iterator<BuilderRegistry> registries =
+                ServiceLoader.load(BuilderRegistry.class, result.load("com.Builders").getClassLoader()).iterator();
+
+        Assert.assertTrue(registries.hasNext());
+
+        BuilderRegistry registry = registries.next();
+
+        Assert.assertArrayEquals(new Class<?>[]{result.load("com.Point")}, registry.getBaseTypes());
+        Assert.assertEquals(result.load("com.builder.PointBuilder"), registry.createBuilder(0).getClass());
+    }
+
+    @Test
+    public void emitBytecode() throws Exception {
+        TestCompiler.Result result = TestCompiler.create()
+                .options("-Ajonathanxd.buildergenerator.emitBytecode=true")
+                .compile(POINT, POINT_IMPL, POINT_FACTORY)
+                .assertSuccess();
+
+        // Builder is written as class file only, and the reference of PointFactory to it is resolved
+        Assert.assertFalse(Files.exists(result.getSourceFile("com.builder.PointBuilder")));
+        Assert.assertTrue(Files.exists(result.getClassOutput().resolve("com/builder/PointBuilder.class")));
+
+        Object point = result.load("com.PointFactory").getMethod("origin", String.class).invoke(null, "origin");
+
+        Assert.assertEquals(result.load("com.PointImpl"), point.getClass());
+        Assert.assertEquals("origin", point.getClass().getMethod("getLabel").invoke(point));
+    }
+
+    @Test
+    public void runtimeBuilder() {
+        // Only compiles the annotated class, the builder is generated at runtime
+        TestCompiler.Result result = TestCompiler.create()
+                .options("-proc:none", "-parameters")
+                .compile(TAGS_IMPL)
+                .assertSuccess();
+
+        Class<?> type = result.load("com.TagsImpl");
+
+        Assert.assertEquals("com.builder.TagsBuilder", RuntimeSpecResolver.resolve(type).getBuilderQualifiedName());
+        Assert.assertFalse(Files.exists(result.getClassOutput().resolve("com/builder/TagsBuilder.class")));
+
+        Tags.Builder builder = RuntimeBuilders.builderFor(type);
+
+        Assert.assertEquals(RuntimeBuilders.getBuilderClass(type), builder.getClass());
+        Assert.assertNotEquals(type.getClassLoader(), builder.getClass().getClassLoader());
+
+        Tags tags = GeneratedBuilderTest.build(builder.withName("runtime")
+                .withCount(1)
+                .withTags(Collections.singletonList("a")));
+
+        Assert.assertEquals(type, tags.getClass());
+        Assert.assertEquals("runtime", tags.getName());
+        Assert.assertEquals(1, tags.getCount());
+        Assert.assertEquals(Collections.singletonList("a"), tags.getTags());
+    }
+
+    @Test
+    public void metricsAreReported() throws Exception {
+        TestCompiler.Result result = TestCompiler.create()
+                .compile(GeneratedBuilderTest.genBuilder("AccountImpl", "metrics = true"))
+                .assertSuccess();
+
+        // RecordingMetrics is registered as service by test resources
+        Assert.assertTrue(Metrics.isEnabled());
+
+        String type = Account.class.getCanonicalName();
+
+        RecordingMetrics.EVENTS.clear();
+
+        Account.Builder builder = GeneratedBuilderTest.account(result);
+
+        // Default value provider of notes is invoked by the constructor
+        Assert.assertEquals(Collections.singletonList("defaultValue " + type + " notes"), RecordingMetrics.EVENTS);
+
+        try {
+            builder.withBalance(-1);
+            Assert.fail("Validator of balance must fail");
+        } catch (IllegalArgumentException expected) {
+        }
+
+        GeneratedBuilderTest.build(builder.withOwner("owner").withBalance(1));
+
+        Assert.assertEquals(Arrays.asList(
+                "defaultValue " + type + " notes",
+                "validationFailure " + type + " balance",
+                "build " + type), RecordingMetrics.EVENTS);
+
+        RecordingMetrics.EVENTS.clear();
+
+        // Unset owner fails the verification of build(), which is not reported as a build
+        try {
+            GeneratedBuilderTest.build(GeneratedBuilderTest.account(result));
+            Assert.fail("Verification of owner must fail");
+        } catch (NullPointerException expected) {
+        }
+
+        Assert.assertEquals(Arrays.asList(
+                "defaultValue " + type + " notes",
+                "validationFailure " + type + " owner"), RecordingMetrics.EVENTS);
+    }
+
+    @Test
+    public void trustedBuildSkipsVerification() throws Exception {
+        TestCompiler.Result result = TestCompiler.create()
+                .compile(GeneratedBuilderTest.genBuilder("AccountImpl", "trustedBuild = true"))
+                .assertSuccess();
+
+        // The defaults constructor does not verify values
+        Account invalid = GeneratedBuilderTest.newAccount(result, null, -1);
+        Account.Builder builder = GeneratedBuilderTest.account(result, invalid);
+
+        Account trusted = GeneratedBuilderTest.buildTrusted(builder);
+
+        Assert.assertNull(trusted.getOwner());
+        Assert.assertEquals(-1, trusted.getBalance());
+
+        try {
+            GeneratedBuilderTest.build(builder);
+            Assert.fail("Verification of owner must fail");
+        } catch (NullPointerException expected) {
+        }
+
+        try {
+            GeneratedBuilderTest.build(builder.withOwner("owner"));
+            Assert.fail("Validator of balance must fail");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    public void copyIsIndependentKores() throws Exception {
+        GeneratedBuilderTest.assertCopyIsIndependent("kores");
+    }
+
+    @Test
+    public void copyIsIndependentTemplate() throws Exception {
+        GeneratedBuilderTest.assertCopyIsIndependent("template");
+    }
+
+    private static void assertCopyIsIndependent(String backend) throws Exception {
+        TestCompiler.Result result = TestCompiler.create()
+                .options("-Ajonathanxd.buildergenerator.backend=" + backend)
+                .compile(GeneratedBuilderTest.genBuilder("TagsImpl", "copyable = true"))
+                .assertSuccess();
+
+        Tags.Builder prototype = GeneratedBuilderTest.tags(result)
+                .withName("prototype")
+                .withCount(1)
+                .withTags(Collections.singletonList("a"));
+
+        Tags.Builder copy = (Tags.Builder) prototype.getClass().getMethod("copy").invoke(prototype);
+
+        Assert.assertNotSame(prototype, copy);
+        Assert.assertEquals(prototype.getClass(), copy.getClass());
+
+        Tags copied = GeneratedBuilderTest.build(copy);
+
+        Assert.assertEquals("prototype", copied.getName());
+        Assert.assertEquals(1, copied.getCount());
+        Assert.assertEquals(Collections.singletonList("a"), copied.getTags());
+
+        // Changes of one builder are not visible in the other
+        copy.withName("copy");
+        prototype.withCount(2);
+
+        Tags fromPrototype = GeneratedBuilderTest.build(prototype);
+        Tags fromCopy = GeneratedBuilderTest.build(copy);
+
+        Assert.assertEquals("prototype", fromPrototype.getName());
+        Assert.assertEquals(2, fromPrototype.getCount());
+        Assert.assertEquals("copy", fromCopy.getName());
+        Assert.assertEquals(1, fromCopy.getCount());
+    }
+
+    @Test
+    public void preserveIdentity() throws Exception {
+        TestCompiler.Result result = TestCompiler.create()
+                .compile(GeneratedBuilderTest.genBuilder("AccountImpl", "preserveIdentity = true"))
+                .assertSuccess();
+
+        Account defaults = GeneratedBuilderTest.newAccount(result, "owner", 1, 0.0);
+
+        // No-op updates keep the defaults instance
+        Assert.assertSame(defaults, GeneratedBuilderTest.build(GeneratedBuilderTest.account(result, defaults)
+                .withOwner(new String("owner"))
+                .withBalance(1)
+                .withRate(0.0)));
+
+        Account changed = GeneratedBuilderTest.build(GeneratedBuilderTest.account(result, defaults).withBalance(2));
+
+        Assert.assertNotSame(defaults, changed);
+        Assert.assertEquals(2, changed.getBalance());
+
+        // -0.0 is equal to 0.0 by ==, but is a different value
+        Account negativeZero = GeneratedBuilderTest.build(GeneratedBuilderTest.account(result, defaults).withRate(-0.0));
+
+        Assert.assertNotSame(defaults, negativeZero);
+        Assert.assertEquals(Double.doubleToRawLongBits(-0.0), Double.doubleToRawLongBits(negativeZero.getRate()));
+
+        // NaN is not equal to NaN by ==, but is the same value
+        Account nan = GeneratedBuilderTest.newAccount(result, "owner", 1, Double.NaN);
+
+        Assert.assertSame(nan, GeneratedBuilderTest.build(GeneratedBuilderTest.account(result, nan).withRate(Double.NaN)));
+
+        // The defaults instance is returned without verification
+        Account invalid = GeneratedBuilderTest.newAccount(result, null, -1, 0.0);
+
+        Assert.assertSame(invalid, GeneratedBuilderTest.build(GeneratedBuilderTest.account(result, invalid)));
+    }
+
+    /**
+     * Creates the source of {@code com.<name>} resource, replacing its {@link com.github.jonathanxd.buildergenerator.annotation.GenBuilder}
+     * annotation by one with {@code options}.
+     */
+    private static JavaFileObject genBuilder(String name, String options) throws IOException {
+        String source = Resources.toString(Resources.getResource(name + ".java"), StandardCharsets.UTF_8)
+                .replaceFirst("@GenBuilder(\\([^)]*\\))?", "@GenBuilder(" + options + ")");
+
+        return JavaFileObjects.forSourceString("com." + name, source);
+    }
+
+    private static Account.Builder account(TestCompiler.Result result) {
+        return result.newInstance("com.builder.AccountBuilder");
+    }
+
+    private static Account.Builder account(TestCompiler.Result result, Account defaults) throws Exception {
+        return (Account.Builder) result.load("com.builder.AccountBuilder").getConstructor(Account.class)
+                .newInstance(defaults);
+    }
+
+    private static Account newAccount(TestCompiler.Result result, String owner, int balance) throws Exception {
+        return GeneratedBuilderTest.newAccount(result, owner, balance, 0.0);
+    }
+
+    private static Account newAccount(TestCompiler.Result result, String owner, int balance, double rate)
+            throws Exception {
+        return (Account) result.load("com.AccountImpl").getConstructor(String.class, int.class, double.class, List.class)
+                .newInstance(owner, balance, rate, Collections.emptyList());
+    }
+
+    private static Account build(Account.Builder builder) {
+        return (Account) builder.build();
+    }
+
+    private static Account buildTrusted(Account.Builder builder) throws Exception {
+        return (Account) builder.getClass().getMethod("buildTrusted").invoke(builder);
+    }
+
+    private static Tags.Builder tags(TestCompiler.Result result) {
+        return result.newInstance("com.builder.TagsBuilder");
+    }
+
+    private static Tags build(Tags.Builder builder) {
+        return (Tags) builder.build();
+    }
+}
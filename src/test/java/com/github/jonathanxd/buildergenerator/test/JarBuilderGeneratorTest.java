@@ -0,0 +1,153 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator.test;
+
+import com.google.testing.compile.JavaFileObjects;
+
+import com.github.jonathanxd.buildergenerator.BytecodeBatch;
+import com.github.jonathanxd.buildergenerator.tool.JarBuilderGenerator;
+import com.github.jonathanxd.kores.bytecode.VisitLineType;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class JarBuilderGeneratorTest {
+
+    @Test
+    public void scanFindsBaseInterfaces() throws Exception {
+        Path jar = JarBuilderGeneratorTest.compileJar();
+
+        try (InputStream inputStream = Files.newInputStream(jar)) {
+            Assert.assertEquals(Collections.singletonList("com.Point"), JarBuilderGenerator.scan(inputStream));
+        }
+    }
+
+    @Test
+    public void factoryByConvention() throws Exception {
+        Path jar = JarBuilderGeneratorTest.compileJar();
+        Path output = Files.createTempFile("bg-builders", ".jar");
+
+        try (BytecodeBatch batch = new BytecodeBatch(2, VisitLineType.DISABLED)) {
+            Assert.assertEquals(1, JarBuilderGenerator.generate(jar, output, Collections.emptyList(),
+                    Collections.emptyMap(), batch));
+        }
+
+        JarBuilderGeneratorTest.assertBuilds(jar, output);
+    }
+
+    @Test
+    public void factoryFromArgument() throws Exception {
+        Path jar = JarBuilderGeneratorTest.compileJar();
+        Path output = Files.createTempFile("bg-builders", ".jar");
+        Map<String, String> factories = Collections.singletonMap("com.Point", "com.Points#of");
+
+        try (BytecodeBatch batch = new BytecodeBatch(2, VisitLineType.DISABLED)) {
+            Assert.assertEquals(1, JarBuilderGenerator.generate(jar, output, Collections.emptyList(), factories,
+                    batch));
+        }
+
+        JarBuilderGeneratorTest.assertBuilds(jar, output);
+    }
+
+    @Test
+    public void missingFactoryMethodFails() throws Exception {
+        Path jar = JarBuilderGeneratorTest.compileJar();
+        Path output = Files.createTempFile("bg-builders", ".jar");
+        Map<String, String> factories = Collections.singletonMap("com.Point", "com.Points#missing");
+
+        try (BytecodeBatch batch = new BytecodeBatch(2, VisitLineType.DISABLED)) {
+            JarBuilderGenerator.generate(jar, output, Collections.emptyList(), factories, batch);
+            Assert.fail("Generation must fail.");
+        } catch (IllegalStateException e) {
+            Assert.assertTrue(e.getCause().getMessage(), e.getCause().getMessage().contains("Cannot find factory method 'missing'"));
+        }
+    }
+
+    private static void assertBuilds(Path jar, Path output) throws Exception {
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL(), jar.toUri().toURL()},
+                JarBuilderGeneratorTest.class.getClassLoader())) {
+            Class<?> builderClass = loader.loadClass("com.builder.PointBuilder");
+            Object builder = builderClass.newInstance();
+
+            builderClass.getMethod("withX", int.class).invoke(builder, 1);
+            builderClass.getMethod("withY", int.class).invoke(builder, 2);
+            builderClass.getMethod("withLabel", String.class).invoke(builder, "jar");
+
+            Object point = builderClass.getMethod("build").invoke(builder);
+
+            Assert.assertEquals(loader.loadClass("com.PointImpl"), point.getClass());
+            Assert.assertEquals(2, point.getClass().getMethod("getY").invoke(point));
+            Assert.assertEquals("jar", point.getClass().getMethod("getLabel").invoke(point));
+        }
+    }
+
+    /**
+     * Compiles Point, PointImpl and Points (without annotation processing) to a jar.
+     */
+    private static Path compileJar() throws IOException {
+        TestCompiler.Result result = TestCompiler.create()
+                .options("-proc:none", "-parameters")
+                .compile(JavaFileObjects.forResource("Point.java"),
+                        JavaFileObjects.forResource("PointImpl.java"),
+                        JavaFileObjects.forResource("Points.java"))
+                .assertSuccess();
+
+        Path classOutput = result.getClassOutput();
+        Path jar = Files.createTempFile("bg-input", ".jar");
+
+        List<Path> classes;
+
+        try (Stream<Path> stream = Files.walk(classOutput)) {
+            classes = stream.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+
+        try (JarOutputStream jarOutputStream = new JarOutputStream(Files.newOutputStream(jar))) {
+            for (Path path : classes) {
+                jarOutputStream.putNextEntry(new JarEntry(classOutput.relativize(path).toString().replace('\\', '/')));
+                jarOutputStream.write(Files.readAllBytes(path));
+                jarOutputStream.closeEntry();
+            }
+        }
+
+        return jar;
+    }
+}
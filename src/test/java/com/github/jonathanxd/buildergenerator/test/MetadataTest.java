@@ -0,0 +1,143 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator.test;
+
+import com.google.common.io.Resources;
+import com.google.testing.compile.JavaFileObjects;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.tools.JavaFileObject;
+
+/**
+ * Tests {@code Builder} interface metadata exported by a compilation and imported by another compilation.
+ */
+public class MetadataTest {
+
+    static final String METADATA = "META-INF/buildergenerator/com.Person$Builder.bgmeta";
+
+    private static final String DEFAULT_VALUE =
+            "@PropertyInfo(defaultValue = @MethodRef(value = DefaultValues.class, name = \"empty\"))";
+
+    @Test
+    public void metadataIsExportedWithoutGenBuilder() {
+        TestCompiler.Result exported = TestCompiler.create()
+                .compile(SimpleTest.INTERFACE)
+                .assertSuccess();
+
+        Assert.assertTrue(Files.isRegularFile(exported.getClassOutput().resolve(METADATA)));
+    }
+
+    @Test
+    public void metadataIsImported() {
+        Path api = MetadataTest.compileApi();
+
+        TestCompiler.Result imported = TestCompiler.create()
+                .classPath(api)
+                .compile(SimpleTest.IMPL)
+                .assertSuccess();
+
+        String source = imported.getSource("com.builder.PersonBuilder");
+
+        // Inlined by DefaultValues.empty
+        Assert.assertTrue(source.contains("Image.empty()"));
+        Assert.assertTrue(source.contains("DefaultImpls.withName("));
+    }
+
+    @Test
+    public void changedAnnotationIsNotImported() throws Exception {
+        Path api = MetadataTest.compileApi();
+        // Same Person without the default value of 'image', found before the Person which exported the metadata
+        Path changed = MetadataTest.compilePerson(MetadataTest.person().replace(DEFAULT_VALUE, ""));
+
+        TestCompiler.Result imported = TestCompiler.create()
+                .classPath(changed)
+                .classPath(api)
+                .compile(SimpleTest.IMPL)
+                .assertSuccess();
+
+        Assert.assertFalse(imported.getSource("com.builder.PersonBuilder").contains("Image.empty()"));
+    }
+
+    @Test
+    public void outdatedMetadataIsNotImported() throws Exception {
+        Path api = MetadataTest.compileApi();
+        // Metadata references DefaultImpls.withName, which is renamed in the class path
+        Path changed = MetadataTest.compilePerson(MetadataTest.person()
+                .replace("name = \"withName\", parameterTypes = {Builder.class, Object.class}",
+                        "name = \"renamed\", parameterTypes = {Builder.class, Object.class}")
+                .replace("public static Builder<Person, ?> withName(", "public static Builder<Person, ?> renamed("));
+
+        TestCompiler.Result imported = TestCompiler.create()
+                .classPath(changed)
+                .classPath(api)
+                .compile(SimpleTest.IMPL)
+                .assertSuccess();
+
+        String source = imported.getSource("com.builder.PersonBuilder");
+
+        Assert.assertTrue(source.contains("renamed("));
+        Assert.assertFalse(source.contains("DefaultImpls.withName("));
+    }
+
+    /**
+     * Compiles Person with annotation processing, the class output has the exported metadata.
+     */
+    static Path compileApi() {
+        TestCompiler.Result api = TestCompiler.create()
+                .compile(SimpleTest.INTERFACE)
+                .assertSuccess();
+
+        Assert.assertTrue(Files.isRegularFile(api.getClassOutput().resolve(METADATA)));
+
+        return api.getClassOutput();
+    }
+
+    static String person() throws IOException {
+        return Resources.toString(Resources.getResource("Person.java"), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compiles {@code source} of Person without annotation processing.
+     */
+    static Path compilePerson(String source) {
+        JavaFileObject person = JavaFileObjects.forSourceString("com.Person", source);
+
+        return TestCompiler.create()
+                .options("-proc:none")
+                .compile(person)
+                .assertSuccess()
+                .getClassOutput();
+    }
+}
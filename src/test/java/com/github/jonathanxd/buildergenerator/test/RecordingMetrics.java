@@ -0,0 +1,56 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator.test;
+
+import com.github.jonathanxd.buildergenerator.metrics.BuilderMetrics;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * {@link BuilderMetrics} service registered for tests, records all events as {@code event type property} strings.
+ */
+public class RecordingMetrics implements BuilderMetrics {
+
+    static final List<String> EVENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void onBuild(String type) {
+        RecordingMetrics.EVENTS.add("build " + type);
+    }
+
+    @Override
+    public void onValidationFailure(String type, String property, RuntimeException exception) {
+        RecordingMetrics.EVENTS.add("validationFailure " + type + " " + property);
+    }
+
+    @Override
+    public void onDefaultValue(String type, String property) {
+        RecordingMetrics.EVENTS.add("defaultValue " + type + " " + property);
+    }
+}
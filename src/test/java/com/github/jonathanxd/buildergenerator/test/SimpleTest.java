@@ -27,17 +27,54 @@
  */
 package com.github.jonathanxd.buildergenerator.test;
 
+import com.google.common.io.Resources;
 import com.google.common.truth.FailureStrategy;
 import com.google.testing.compile.CompileTester;
 import com.google.testing.compile.JavaFileObjects;
 import com.google.testing.compile.JavaSourcesSubjectFactory;
 
+import com.github.jonathanxd.buildergenerator.Builder;
+import com.github.jonathanxd.buildergenerator.DefaultValues;
+import com.github.jonathanxd.buildergenerator.KoresBuilderGenerator;
+import com.github.jonathanxd.buildergenerator.Validators;
 import com.github.jonathanxd.buildergenerator.apt.AnnotationProcessor;
+import com.github.jonathanxd.buildergenerator.spec.BuilderFeature;
+import com.github.jonathanxd.buildergenerator.spec.BuilderSpec;
+import com.github.jonathanxd.buildergenerator.spec.MethodRefSpec;
+import com.github.jonathanxd.buildergenerator.spec.PropertySpec;
+import com.github.jonathanxd.buildergenerator.util.ClassFileUtil;
 import com.github.jonathanxd.iutils.collection.Collections3;
+import com.github.jonathanxd.kores.Instruction;
+import com.github.jonathanxd.kores.Types;
+import com.github.jonathanxd.kores.base.TypeSpec;
+import com.github.jonathanxd.kores.base.VariableBase;
+import com.github.jonathanxd.kores.bytecode.BytecodeClass;
+import com.github.jonathanxd.kores.common.MethodTypeSpec;
+import com.github.jonathanxd.kores.type.KoresType;
+import com.github.jonathanxd.kores.type.KoresTypes;
+import com.github.jonathanxd.kores.type.PlainKoresType;
 
+import org.junit.Assert;
 import org.junit.Test;
 
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.tools.Diagnostic;
 import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
 
 public class SimpleTest {
 
@@ -45,6 +82,22 @@ public class SimpleTest {
 
     public static final JavaFileObject IMPL = JavaFileObjects.forResource("PersonImpl.java");
 
+    public static final JavaFileObject DTO = JavaFileObjects.forResource("PersonDto.java");
+
+    public static final JavaFileObject MAPPING = JavaFileObjects.forResource("PersonMapping.java");
+
+    public static final JavaFileObject POINT = JavaFileObjects.forResource("Point.java");
+
+    public static final JavaFileObject POINT_IMPL = JavaFileObjects.forResource("PointImpl.java");
+
+    public static final JavaFileObject POINT_BUILDER = JavaFileObjects.forResource("golden/PointBuilder.java");
+
+    public static final JavaFileObject POINT_RECORD = JavaFileObjects.forResource("PointRecord.java");
+
+    public static final JavaFileObject POINT_DTO = JavaFileObjects.forResource("PointDto.java");
+
+    public static final JavaFileObject POINT_MAPPING = JavaFileObjects.forResource("PointMapping.java");
+
     @Test
     public void test() {
         JavaSourcesSubjectFactory.javaSources()
@@ -56,6 +109,298 @@ public class SimpleTest {
 
     }
 
+    @Test
+    public void mapper() {
+        JavaSourcesSubjectFactory.javaSources()
+                .getSubject(new Fail(),
+                        Collections3.listOf(INTERFACE, IMPL, DTO, MAPPING))
+                .withCompilerOptions("-Ajonathanxd.buildergenerator.throwExceptions=true")
+                .processedWith(new AnnotationProcessor())
+                .compilesWithoutError()
+                .and()
+                .generatesFileNamed(StandardLocation.SOURCE_OUTPUT, "com.mapper", "PersonDtoToPersonMapper.java");
+
+    }
+
+    @Test
+    public void mapperCopiesProperties() throws Exception {
+        TestCompiler.Result result = TestCompiler.create()
+                .compile(INTERFACE, IMPL, DTO, MAPPING)
+                .assertSuccess();
+
+        Class<?> dtoClass = result.load("com.PersonDto");
+        Object image = result.load("com.Person$Image").getConstructor(byte[].class).newInstance((Object) new byte[]{1});
+
+        Map<String, Object> values = new HashMap<>();
+        values.put("getName", "Maria");
+        values.put("getAge", 30);
+        values.put("getImage", Optional.of(image));
+        values.put("getParents", Collections.emptySet());
+        values.put("getType", String.class);
+
+        Object dto = Proxy.newProxyInstance(dtoClass.getClassLoader(), new Class[]{dtoClass},
+                (proxy, method, args) -> values.get(method.getName()));
+
+        Object builder = result.newInstance("com.builder.PersonBuilder");
+
+        Method map = Arrays.stream(result.load("com.mapper.PersonDtoToPersonMapper").getMethods())
+                .filter(method -> method.getName().equals("map"))
+                .findFirst()
+                .orElseThrow(AssertionError::new);
+
+        Object mapped = map.invoke(null, dto, builder);
+        Object person = mapped.getClass().getMethod("build").invoke(mapped);
+
+        Assert.assertEquals("Maria", person.getClass().getMethod("getName").invoke(person));
+        Assert.assertEquals(30, person.getClass().getMethod("getAge").invoke(person));
+        Assert.assertSame(image, person.getClass().getMethod("getImage").invoke(person));
+        Assert.assertEquals(String.class, person.getClass().getMethod("getType").invoke(person));
+    }
+
+    @Test
+    public void mapperRequiredPropertyNotMapped() {
+        // PointDto has no getLabel(), 'label' is not nullable
+        JavaSourcesSubjectFactory.javaSources()
+                .getSubject(new Fail(),
+                        Collections3.listOf(POINT, POINT_DTO, POINT_MAPPING))
+                .withCompilerOptions("-Ajonathanxd.buildergenerator.throwExceptions=true")
+                .processedWith(new AnnotationProcessor())
+                .failsToCompile()
+                .withErrorContaining("Property 'label' of 'com.Point' is required");
+
+    }
+
+
+    @Test
+    public void templateBackend() {
+        SimpleTest.assertGolden("template");
+    }
+
+    @Test
+    public void koresBackend() {
+        // Both backends must generate the same builder
+        SimpleTest.assertGolden("kores");
+    }
+
+    private static void assertGolden(String backend) {
+        JavaSourcesSubjectFactory.javaSources()
+                .getSubject(new Fail(),
+                        Collections3.listOf(POINT, POINT_IMPL))
+                .withCompilerOptions("-Ajonathanxd.buildergenerator.throwExceptions=true",
+                        "-Ajonathanxd.buildergenerator.backend=" + backend)
+                .processedWith(new AnnotationProcessor())
+                .compilesWithoutError()
+                .and()
+                .generatesSources(POINT_BUILDER);
+    }
+
+    @Test
+    public void inliningReport() {
+        JavaSourcesSubjectFactory.javaSources()
+                .getSubject(new Fail(),
+                        Collections3.listOf(POINT, POINT_IMPL))
+                .withCompilerOptions("-Ajonathanxd.buildergenerator.throwExceptions=true",
+                        "-Ajonathanxd.buildergenerator.inliningReport=true")
+                .processedWith(new AnnotationProcessor())
+                .compilesWithoutError()
+                .and()
+                .generatesFileNamed(StandardLocation.CLASS_OUTPUT, "",
+                        "META-INF/buildergenerator/inlining-report.json");
+
+    }
+
+    @Test
+    public void templateBackendFallback() {
+        JavaSourcesSubjectFactory.javaSources()
+                .getSubject(new Fail(),
+                        Collections3.listOf(INTERFACE, IMPL))
+                .withCompilerOptions("-Ajonathanxd.buildergenerator.throwExceptions=true",
+                        "-Ajonathanxd.buildergenerator.backend=template")
+                .processedWith(new AnnotationProcessor())
+                .compilesWithoutError();
+
+    }
+
+    @Test
+    public void builderArgument() {
+        JavaSourcesSubjectFactory.javaSources()
+                .getSubject(new Fail(),
+                        Collections3.listOf(POINT, POINT_RECORD))
+                .withCompilerOptions("-Ajonathanxd.buildergenerator.throwExceptions=true")
+                .processedWith(new AnnotationProcessor())
+                .compilesWithoutError();
+
+    }
+
+    @Test
+    public void builderArgumentUnsupportedMethod() throws Exception {
+        // 'is' getter cannot be implemented by the builder
+        String point = Resources.toString(Resources.getResource("Point.java"), StandardCharsets.UTF_8)
+                .replace("String getLabel();", "String getLabel();\n\n    boolean isVisible();");
+
+        String pointRecord = Resources.toString(Resources.getResource("PointRecord.java"), StandardCharsets.UTF_8)
+                .replace("    @Override\n    public String getLabel() {",
+                        "    @Override\n    public boolean isVisible() {\n        return true;\n    }\n\n"
+                                + "    @Override\n    public String getLabel() {");
+
+        JavaSourcesSubjectFactory.javaSources()
+                .getSubject(new Fail(),
+                        Collections3.listOf(JavaFileObjects.forSourceString("com.Point", point),
+                                JavaFileObjects.forSourceString("com.PointRecord", pointRecord)))
+                .processedWith(new AnnotationProcessor())
+                .failsToCompile()
+                .withErrorContaining("cannot be implemented by the builder: isVisible()");
+
+    }
+
+    @Test
+    public void splitHugeMethods() {
+        List<PropertySpec> properties = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++) {
+            properties.add(new PropertySpec("p" + i, "p" + i, Types.STRING, Types.STRING, false, false, null, null));
+        }
+
+        // Builder argument: a factory with 1000 parameters would exceed the limit of 255 parameter slots
+        BuilderSpec builderSpec = new BuilderSpec("com.builder.HugeBuilder",
+                new PlainKoresType("com.HugeImpl", false),
+                new PlainKoresType("com.HugeImpl", false),
+                null,
+                new PlainKoresType("com.Huge", true),
+                KoresTypes.getKoresType(Builder.class),
+                properties,
+                Collections.emptyList(),
+                EnumSet.of(BuilderFeature.BUILDER_ARGUMENT));
+
+        List<BytecodeClass> classes = new KoresBuilderGenerator.Bytecode().generate(builderSpec, methodTypeSpecs -> {
+        });
+
+        Map<String, Integer> codeLengths = ClassFileUtil.getCodeLengths(classes.get(0).getBytecode());
+
+        // 1000 null checks do not fit in the 8000 bytes budget of build()
+        Assert.assertTrue(codeLengths.keySet().stream().anyMatch(method -> method.startsWith("verify$1(")));
+        Assert.assertTrue(codeLengths.keySet().stream().anyMatch(method -> method.startsWith("copyDefaults$1(")));
+
+        codeLengths.forEach((method, length) ->
+                Assert.assertTrue("Code of '" + method + "' has " + length + " bytes.",
+                        length <= KoresBuilderGenerator.DEFAULT_METHOD_SIZE_BUDGET));
+    }
+
+    @Test
+    public void splitHugeMethodsWithDefaults() {
+        MethodRefSpec emptyList = new MethodRefSpec(false, true, new MethodTypeSpec(DefaultValues.class, "emptyList",
+                new TypeSpec(Instruction.class, Collections.singletonList(VariableBase.class))));
+        MethodRefSpec positiveInt = new MethodRefSpec(false, true, new MethodTypeSpec(Validators.class, "positiveInt",
+                new TypeSpec(Instruction.class, Arrays.asList(VariableBase.class, Instruction.class))));
+
+        List<PropertySpec> properties = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++) {
+            if (i % 2 == 0) {
+                KoresType list = KoresTypes.getKoresType(List.class);
+
+                properties.add(new PropertySpec("p" + i, "p" + i, list, list, false, false, emptyList, null));
+            } else {
+                properties.add(new PropertySpec("p" + i, "p" + i, Types.INT, Types.INT, false, false, null, positiveInt));
+            }
+        }
+
+        // Field initializers (default values, set flags, identity state and metrics) are part of both constructors
+        BuilderSpec builderSpec = new BuilderSpec("com.builder.HugeBuilder",
+                new PlainKoresType("com.HugeImpl", false),
+                new PlainKoresType("com.HugeImpl", false),
+                null,
+                new PlainKoresType("com.Huge", true),
+                KoresTypes.getKoresType(Builder.class),
+                properties,
+                Collections.emptyList(),
+                EnumSet.of(BuilderFeature.BUILDER_ARGUMENT, BuilderFeature.COMBINE, BuilderFeature.PRESERVE_IDENTITY,
+                        BuilderFeature.METRICS));
+
+        List<BytecodeClass> classes = new KoresBuilderGenerator.Bytecode().generate(builderSpec, methodTypeSpecs -> {
+        });
+
+        Map<String, Integer> codeLengths = ClassFileUtil.getCodeLengths(classes.get(0).getBytecode());
+
+        Assert.assertTrue(codeLengths.keySet().stream().anyMatch(method -> method.startsWith("initDefaults$0(")));
+        Assert.assertTrue(codeLengths.keySet().stream().anyMatch(method -> method.startsWith("verify$1(")));
+        Assert.assertTrue(codeLengths.keySet().stream().anyMatch(method -> method.startsWith("combine$1(")));
+
+        codeLengths.forEach((method, length) ->
+                Assert.assertTrue("Code of '" + method + "' has " + length + " bytes.",
+                        length <= KoresBuilderGenerator.DEFAULT_METHOD_SIZE_BUDGET));
+    }
+
+    @Test
+    public void reusesUnchangedOutput() throws Exception {
+        Path sourceOutput = Files.createTempDirectory("bg-sources");
+
+        TestCompiler.Result first = TestCompiler.create()
+                .sourceOutput(sourceOutput)
+                .compile(POINT, POINT_IMPL)
+                .assertSuccess();
+
+        Path builder = first.getSourceFile("com.builder.PointBuilder");
+        FileTime time = FileTime.fromMillis(1000000000000L);
+
+        Files.setLastModifiedTime(builder, time);
+
+        // Same spec: previous output is reused and its timestamp is kept
+        TestCompiler.create()
+                .sourceOutput(sourceOutput)
+                .compile(POINT, POINT_IMPL)
+                .assertSuccess();
+
+        Assert.assertEquals(time, Files.getLastModifiedTime(builder));
+
+        String copyable = Resources.toString(Resources.getResource("PointImpl.java"), StandardCharsets.UTF_8)
+                .replace("@GenBuilder", "@GenBuilder(copyable = true)");
+
+        // Changed spec: builder is generated again
+        TestCompiler.Result changed = TestCompiler.create()
+                .sourceOutput(sourceOutput)
+                .compile(POINT, JavaFileObjects.forSourceString("com.PointImpl", copyable))
+                .assertSuccess();
+
+        Assert.assertNotEquals(time, Files.getLastModifiedTime(builder));
+        Assert.assertTrue(changed.getSource("com.builder.PointBuilder").contains("copy()"));
+    }
+
+    @Test
+    public void duplicateBuilderIsSkipped() {
+        // Second class which generates the same builder of Point
+        JavaFileObject duplicate = JavaFileObjects.forSourceString("com.OtherPointImpl", "package com;\n"
+                + "@com.github.jonathanxd.buildergenerator.annotation.GenBuilder(base = Point.class)\n"
+                + "public class OtherPointImpl extends PointImpl {\n"
+                + "    public OtherPointImpl(int x, int y, String label) { super(x, y, label); }\n"
+                + "}\n");
+
+        TestCompiler.Result result = TestCompiler.create()
+                .compile(POINT, POINT_IMPL, duplicate)
+                .assertSuccess();
+
+        Assert.assertTrue(result.hasMessage(Diagnostic.Kind.WARNING, "Already processed!"));
+        Assert.assertEquals(1, result.messages(Diagnostic.Kind.WARNING).stream()
+                .filter(message -> message.contains("Already processed!"))
+                .count());
+        Assert.assertTrue(Files.exists(result.getSourceFile("com.builder.PointBuilder")));
+    }
+
+    @Test
+    public void invalidNumericOptionUsesDefault() {
+        TestCompiler.Result result = TestCompiler.create()
+                .options("-Ajonathanxd.buildergenerator.methodSizeBudget=8k",
+                        "-Ajonathanxd.buildergenerator.inliningReport=true",
+                        "-Ajonathanxd.buildergenerator.maxInlineSize=-1")
+                .compile(POINT, POINT_IMPL)
+                .assertSuccess();
+
+        Assert.assertTrue(result.hasMessage(Diagnostic.Kind.WARNING,
+                "Invalid value '8k' of option 'jonathanxd.buildergenerator.methodSizeBudget'"));
+        Assert.assertTrue(result.hasMessage(Diagnostic.Kind.WARNING,
+                "Invalid value '-1' of option 'jonathanxd.buildergenerator.maxInlineSize'"));
+        Assert.assertTrue(Files.exists(result.getSourceFile("com.builder.PointBuilder")));
+    }
 
     public static class Fail extends FailureStrategy {
     }
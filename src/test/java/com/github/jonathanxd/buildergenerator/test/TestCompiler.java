@@ -0,0 +1,219 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator.test;
+
+import com.github.jonathanxd.buildergenerator.apt.AnnotationProcessor;
+
+import org.junit.Assert;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
+/**
+ * Compiles sources with {@link AnnotationProcessor} to directories, so generated classes can be loaded and executed by
+ * tests. Generated classes are loaded by a class loader child of the test class loader, generated builders can be used
+ * through the types declared in test sources.
+ */
+final class TestCompiler {
+
+    private final List<String> options = new ArrayList<>();
+    private final List<Path> classPath = new ArrayList<>();
+    private Path classOutput;
+    private Path sourceOutput;
+
+    static TestCompiler create() {
+        return new TestCompiler();
+    }
+
+    TestCompiler options(String... options) {
+        this.options.addAll(Arrays.asList(options));
+        return this;
+    }
+
+    TestCompiler classPath(Path path) {
+        this.classPath.add(path);
+        return this;
+    }
+
+    TestCompiler classOutput(Path classOutput) {
+        this.classOutput = classOutput;
+        return this;
+    }
+
+    TestCompiler sourceOutput(Path sourceOutput) {
+        this.sourceOutput = sourceOutput;
+        return this;
+    }
+
+    Result compile(JavaFileObject... sources) {
+        try {
+            Path classOutput = this.classOutput != null ? this.classOutput : Files.createTempDirectory("bg-classes");
+            Path sourceOutput = this.sourceOutput != null ? this.sourceOutput : Files.createTempDirectory("bg-sources");
+
+            JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+            DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+            StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8);
+
+            fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singletonList(classOutput.toFile()));
+            fileManager.setLocation(StandardLocation.SOURCE_OUTPUT, Collections.singletonList(sourceOutput.toFile()));
+
+            StringBuilder classPath = new StringBuilder(System.getProperty("java.class.path"));
+
+            for (Path path : this.classPath) {
+                classPath.append(File.pathSeparator).append(path.toAbsolutePath());
+            }
+
+            List<String> options = new ArrayList<>(this.options);
+            options.add("-classpath");
+            options.add(classPath.toString());
+
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null,
+                    Arrays.asList(sources));
+
+            task.setProcessors(Collections.singletonList(new AnnotationProcessor()));
+
+            boolean success = task.call();
+
+            fileManager.close();
+
+            return new Result(success, diagnostics.getDiagnostics(), classOutput, sourceOutput, this.classPath);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static final class Result {
+        private final boolean success;
+        private final List<Diagnostic<? extends JavaFileObject>> diagnostics;
+        private final Path classOutput;
+        private final Path sourceOutput;
+        private final ClassLoader classLoader;
+
+        Result(boolean success, List<Diagnostic<? extends JavaFileObject>> diagnostics, Path classOutput,
+               Path sourceOutput, List<Path> classPath) {
+            this.success = success;
+            this.diagnostics = diagnostics;
+            this.classOutput = classOutput;
+            this.sourceOutput = sourceOutput;
+
+            List<URL> urls = new ArrayList<>();
+
+            try {
+                urls.add(classOutput.toUri().toURL());
+
+                for (Path path : classPath) {
+                    urls.add(path.toUri().toURL());
+                }
+            } catch (MalformedURLException e) {
+                throw new IllegalStateException(e);
+            }
+
+            this.classLoader = new URLClassLoader(urls.toArray(new URL[0]), TestCompiler.class.getClassLoader());
+        }
+
+        boolean isSuccess() {
+            return this.success;
+        }
+
+        /**
+         * Fails the test with all diagnostics if the compilation failed.
+         */
+        Result assertSuccess() {
+            Assert.assertTrue("Compilation failed:\n" + this.messages(Diagnostic.Kind.ERROR), this.success);
+            return this;
+        }
+
+        List<String> messages(Diagnostic.Kind kind) {
+            return this.diagnostics.stream()
+                    .filter(diagnostic -> diagnostic.getKind() == kind)
+                    .map(diagnostic -> diagnostic.getMessage(null))
+                    .collect(Collectors.toList());
+        }
+
+        boolean hasMessage(Diagnostic.Kind kind, String part) {
+            return this.messages(kind).stream().anyMatch(message -> message.contains(part));
+        }
+
+        Path getClassOutput() {
+            return this.classOutput;
+        }
+
+        Path getSourceOutput() {
+            return this.sourceOutput;
+        }
+
+        Path getSourceFile(String qualifiedName) {
+            return this.sourceOutput.resolve(qualifiedName.replace('.', '/') + ".java");
+        }
+
+        String getSource(String qualifiedName) {
+            try {
+                return new String(Files.readAllBytes(this.getSourceFile(qualifiedName)), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        Class<?> load(String name) {
+            try {
+                return Class.forName(name, true, this.classLoader);
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> T newInstance(String name) {
+            try {
+                return (T) this.load(name).newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
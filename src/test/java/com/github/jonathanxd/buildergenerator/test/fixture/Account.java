@@ -0,0 +1,63 @@
+/*
+ *      BuilderGenerator - Builder implementation generator <https://github.com/JonathanxD/BuilderGenerator>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 JonathanxD
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.buildergenerator.test.fixture;
+
+import com.github.jonathanxd.buildergenerator.DefaultValues;
+import com.github.jonathanxd.buildergenerator.Validators;
+import com.github.jonathanxd.buildergenerator.annotation.MethodRef;
+import com.github.jonathanxd.buildergenerator.annotation.PropertyInfo;
+import com.github.jonathanxd.buildergenerator.annotation.Validator;
+
+import java.util.List;
+
+/**
+ * Base type with a validated property and a property with default value, used by tests of generated builders.
+ */
+public interface Account {
+    String getOwner();
+
+    int getBalance();
+
+    double getRate();
+
+    List<String> getNotes();
+
+    interface Builder<T extends Account, S extends Builder<T, S>> extends com.github.jonathanxd.buildergenerator.Builder<T, S> {
+
+        S withOwner(String owner);
+
+        @PropertyInfo(validator = @Validator(@MethodRef(value = Validators.class, name = "positiveInt")))
+        S withBalance(int balance);
+
+        S withRate(double rate);
+
+        @PropertyInfo(defaultValue = @MethodRef(value = DefaultValues.class, name = "emptyList"))
+        S withNotes(List<String> notes);
+
+    }
+}
@@ -0,0 +1,17 @@
+package com;
+
+import java.lang.reflect.Type;
+import java.util.Optional;
+import java.util.Set;
+
+public interface PersonDto {
+    String getName();
+
+    int getAge();
+
+    Optional<Person.Image> getImage();
+
+    Set<? extends Person> getParents();
+
+    Type getType();
+}
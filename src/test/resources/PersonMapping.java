@@ -0,0 +1,7 @@
+package com;
+
+import com.github.jonathanxd.buildergenerator.annotation.GenMapper;
+
+@GenMapper(from = PersonDto.class, to = Person.class)
+public interface PersonMapping {
+}
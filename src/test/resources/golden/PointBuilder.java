@@ -0,0 +1,54 @@
+package com.builder;
+
+public final class PointBuilder implements com.Point.Builder<com.Point, com.builder.PointBuilder> {
+
+    private int x = 0;
+
+    private int y = 0;
+
+    private java.lang.String label = null;
+
+    public PointBuilder() {
+    }
+
+    public PointBuilder(com.Point defaults) {
+        if (defaults != null) {
+            this.x = defaults.getX();
+            this.y = defaults.getY();
+            this.label = defaults.getLabel();
+        }
+    }
+
+    public com.builder.PointBuilder withX(int x) {
+        this.x = x;
+        return this;
+    }
+
+    public com.builder.PointBuilder withY(int y) {
+        this.y = y;
+        return this;
+    }
+
+    public com.builder.PointBuilder withLabel(java.lang.String label) {
+        java.util.Objects.requireNonNull(label, "The property 'label' cannot be null.");
+        this.label = label;
+        return this;
+    }
+
+    public int getX() {
+        return this.x;
+    }
+
+    public int getY() {
+        return this.y;
+    }
+
+    public java.lang.String getLabel() {
+        return this.label;
+    }
+
+    public com.Point build() {
+        java.util.Objects.requireNonNull(this.label, "The property 'label' cannot be null.");
+        return new com.PointImpl(this.x, this.y, this.label);
+    }
+}